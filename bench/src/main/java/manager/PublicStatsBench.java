@@ -0,0 +1,69 @@
+package manager;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import data.WordBook;
+import util.Path;
+
+// 공용 단어장 통계 저장 (QuizManager.updateStatistics -> PublicStatsStore)
+// 20문제 퀴즈 하나의 결과를 기록하고 저장하는 비용(주기적인 publics.txt 합치기 포함)과, 합치기만 따로 잼
+// PublicStatsStore는 상대 경로(res/public/vocas)를 쓰므로 실행한 디렉터리 아래에 합성 공용 단어장을 만듦
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PublicStatsBench {
+
+    private static final int QUIZ_NUM = 20;
+
+    @Param({ "1000", "100000" })
+    public int size;
+
+    private List<String> keys;
+    private PublicStatsStore store;
+    private Random random;
+
+    @Setup
+    public void setUp() throws IOException {
+        List<String> lines = SyntheticBooks.publicLines(size, SyntheticBooks.SEED);
+        File file = new File(Path.getPublicFilePath());
+        SyntheticBooks.write(file, lines);
+        new File(file.getParentFile(), "publics.stats.log").delete();
+        keys = lines.stream().map(WordBook::keyOf).toList();
+        store = PublicStatsStore.get();
+        random = new Random(1);
+    }
+
+    @Benchmark
+    public void recordAndFlushQuiz() throws IOException {
+        for (int i = 0; i < QUIZ_NUM; i++)
+            store.record(keys.get(random.nextInt(keys.size())), random.nextBoolean());
+        store.flush();
+    }
+
+    @Benchmark
+    public void recordFlushAndMerge() throws IOException {
+        for (int i = 0; i < QUIZ_NUM; i++)
+            store.record(keys.get(random.nextInt(keys.size())), random.nextBoolean());
+        store.flush();
+        store.merge();
+    }
+}
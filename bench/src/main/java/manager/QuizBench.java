@@ -0,0 +1,102 @@
+package manager;
+
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import data.Word;
+import util.Sampler;
+
+// 퀴즈 출제 (문제 뽑기, 객관식 보기 만들기, 채점, 세션 전체)
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class QuizBench {
+
+    private static final int QUIZ_NUM = 20;
+
+    @Param({ "1000", "100000", "1000000" })
+    public int size;
+
+    @Param({ "RANDOM", "SPELLING", "LENGTH", "MEANING" })
+    public DistractorEngine.Strategy strategy;
+
+    private List<Word> words;
+    private Random random;
+    private DistractorEngine distractors;
+    private QuizEngine engine;
+    private QuizEngine.AnswerSource answers;
+    private AnswerGrader grader;
+    private final int[] picked = new int[3];
+
+    private static final QuizEngine.ResultSink NO_OUTPUT = new QuizEngine.ResultSink() {
+        @Override
+        public void question(QuizEngine.Question question) {
+        }
+
+        @Override
+        public void result(QuizEngine.Result result) {
+        }
+    };
+
+    @Setup
+    public void setUp() {
+        words = SyntheticBooks.words(size, SyntheticBooks.SEED);
+        random = new Random(1);
+        distractors = new DistractorEngine(words, random);
+        distractors.pick(0, strategy, picked);
+        // 이웃 표는 처음 한 번만 만들어지므로 측정 전에 만들어 둠
+        grader = new AnswerGrader(AnswerGrader.Leniency.NORMAL);
+        engine = new QuizEngine(words, random, grader, strategy);
+        answers = BatchQuizRunner.simulated(words, new Random(2), 0.7);
+    }
+
+    @Benchmark
+    public int[] drawQuestions() {
+        return Sampler.distinctIndices(words.size(), QUIZ_NUM, random);
+    }
+
+    @Benchmark
+    public int[] drawWeightedQuestions() {
+        return Sampler.weightedIndices(words.size(), i -> 1 + (i & 63), QUIZ_NUM, random);
+    }
+
+    @Benchmark
+    public void multipleChoiceOptions(Blackhole bh) {
+        bh.consume(distractors.pick(random.nextInt(words.size()), strategy, picked));
+        bh.consume(picked);
+    }
+
+    @Benchmark
+    public AnswerGrader.Verdict gradeTypo() {
+        Word word = words.get(random.nextInt(words.size()));
+        String meaning = word.firstMeaning();
+        return grader.gradeMeaning(meaning.substring(0, meaning.length() - 1) + "가", word);
+    }
+
+    @Benchmark
+    public int multipleChoiceSession() {
+        return engine.run(QuizEngine.Mode.MULTIPLE_CHOICE, QUIZ_NUM, null, answers, NO_OUTPUT);
+    }
+
+    @Benchmark
+    public int shortAnswerSession() {
+        return engine.run(QuizEngine.Mode.SHORT_ANSWER, QUIZ_NUM, null, answers, NO_OUTPUT);
+    }
+}
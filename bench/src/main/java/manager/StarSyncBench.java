@@ -0,0 +1,81 @@
+package manager;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+// 즐겨찾기 해제 동기화 (PersonalVocaFileManager.syncRemoveStar -> StarSync.removeStars)
+// files개의 오답노트 파일에 같은 단어가 토글(apple*)되어 있을 때 모두 지우는 비용과,
+// 지울 것이 없는 단어로 파일만 훑는 비용을 따로 잼
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class StarSyncBench {
+
+    private static final int LINES_PER_FILE = 200;
+    private static final String TARGET = "benchstar";
+
+    @Param({ "10", "100", "1000" })
+    public int files;
+
+    private File dir;
+    private final List<File> noteFiles = new ArrayList<>();
+    private final List<List<String>> contents = new ArrayList<>();
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        dir = Files.createTempDirectory("star-bench").toFile();
+        File notes = new File(dir, "notes");
+        for (int f = 0; f < files; f++) {
+            List<String> lines = new ArrayList<>(SyntheticBooks.lines(LINES_PER_FILE, SyntheticBooks.SEED + f));
+            lines.set(LINES_PER_FILE / 2, TARGET + "*\t벤치");
+            File file = new File(notes, "note-" + f + ".txt");
+            SyntheticBooks.write(file, lines);
+            noteFiles.add(file);
+            contents.add(lines);
+        }
+    }
+
+    // 토글 제거 벤치마크가 파일을 바꾸므로 매번 원래 내용으로 되돌림
+    @Setup(Level.Invocation)
+    public void restoreStars() throws IOException {
+        for (int f = 0; f < files; f++)
+            SyntheticBooks.write(noteFiles.get(f), contents.get(f));
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        SyntheticBooks.deleteTree(dir);
+    }
+
+    @Benchmark
+    public int removeStarEverywhere() {
+        return StarSync.removeStars(noteFiles, Set.of(TARGET)).rewritten;
+    }
+
+    @Benchmark
+    public int scanWithoutMatches() {
+        return StarSync.removeStars(noteFiles, Set.of("nosuchword")).scanned;
+    }
+}
@@ -0,0 +1,89 @@
+package manager;
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import data.Word;
+
+// 벤치마크용 합성 단어장 생성기
+// 같은 시드면 항상 같은 단어장을 만들므로 기준선과 비교할 때 입력이 달라지지 않습니다.
+// 영단어는 "소문자 3~10자 + 번호"라서 서로 겹치지 않고, 뜻은 한글 1~4음절짜리 1~3개를 "/"로 이은 것
+public class SyntheticBooks {
+    public static final long SEED = 20240601L;
+
+    // n개의 단어장 라인 ("영단어\t뜻1/뜻2")
+    public static List<String> lines(int n, long seed) {
+        Random random = new Random(seed);
+        ArrayList<String> lines = new ArrayList<>(n);
+        for (int i = 0; i < n; i++)
+            lines.add(english(random, i) + "\t" + meanings(random));
+        return lines;
+    }
+
+    // 공용 단어장 라인 ("영단어\t뜻\t출제\t정답")
+    public static List<String> publicLines(int n, long seed) {
+        Random random = new Random(seed);
+        ArrayList<String> lines = new ArrayList<>(n);
+        for (int i = 0; i < n; i++) {
+            int questions = random.nextInt(50);
+            lines.add(english(random, i) + "\t" + meanings(random) + "\t" + questions + "\t"
+                    + (questions == 0 ? 0 : random.nextInt(questions + 1)));
+        }
+        return lines;
+    }
+
+    public static List<Word> words(int n, long seed) {
+        ArrayList<Word> words = new ArrayList<>(n);
+        for (String line : lines(n, seed))
+            words.add(new Word(line.substring(0, line.indexOf('\t')), line.substring(line.indexOf('\t') + 1)));
+        return words;
+    }
+
+    public static void write(File file, List<String> lines) throws IOException {
+        File parent = file.getAbsoluteFile().getParentFile();
+        if (parent != null)
+            parent.mkdirs();
+        try (BufferedWriter writer = Files.newBufferedWriter(file.toPath(), StandardCharsets.UTF_8)) {
+            for (String line : lines) {
+                writer.write(line);
+                writer.newLine();
+            }
+        }
+    }
+
+    // 임시 디렉터리와 그 안의 파일들을 지웁니다.
+    public static void deleteTree(File file) {
+        File[] children = file.listFiles();
+        if (children != null)
+            for (File child : children)
+                deleteTree(child);
+        file.delete();
+    }
+
+    static String english(Random random, int i) {
+        int length = 3 + random.nextInt(8);
+        StringBuilder sb = new StringBuilder(length + 7);
+        for (int j = 0; j < length; j++)
+            sb.append((char) ('a' + random.nextInt(26)));
+        return sb.append(i).toString();
+    }
+
+    static String meanings(Random random) {
+        int count = 1 + random.nextInt(3);
+        StringBuilder sb = new StringBuilder();
+        for (int m = 0; m < count; m++) {
+            if (m > 0)
+                sb.append('/');
+            int syllables = 1 + random.nextInt(4);
+            for (int s = 0; s < syllables; s++)
+                sb.append((char) (0xAC00 + random.nextInt(11172)));
+        }
+        return sb.toString();
+    }
+}
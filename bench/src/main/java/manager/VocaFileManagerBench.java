@@ -0,0 +1,102 @@
+package manager;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import data.WordBook;
+
+// 단어장 추가/수정/삭제/검색 (저널 기록과 주기적인 컴팩션 포함)
+// 추가/삭제는 단어장 크기가 계속 변하지 않도록 "삭제 + 같은 줄 다시 추가", "새 단어 추가 + 그 줄 삭제"로 잼
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class VocaFileManagerBench {
+
+    @Param({ "1000", "100000", "1000000" })
+    public int size;
+
+    private File dir;
+    private PersonalVocaFileManager manager;
+    private WordBook book;
+    private List<String> lines;
+    private Random random;
+    private int added;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        dir = Files.createTempDirectory("voca-bench").toFile();
+        File file = new File(dir, "book.txt");
+        lines = SyntheticBooks.lines(size, SyntheticBooks.SEED);
+        SyntheticBooks.write(file, lines);
+
+        manager = new PersonalVocaFileManager(file.getPath(), "bench");
+        book = manager.loadWordBook();
+        book.prepareSearch();
+        random = new Random(1);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        manager.closeWordBook();
+        SyntheticBooks.deleteTree(dir);
+    }
+
+    @Benchmark
+    public boolean addAndRemove() {
+        manager.addLine("benchword" + (added++) + "\t벤치/측정");
+        return manager.removeLine(book.size() - 1);
+        // 처음 보는 단어의 추가(색인에 새 키)를 재고, 바로 지워 크기를 유지
+    }
+
+    @Benchmark
+    public boolean edit() {
+        int idx = random.nextInt(book.size());
+        return manager.setLine(idx, WordBook.withKorean(book.get(idx), "수정" + (added++ & 7)));
+    }
+
+    @Benchmark
+    public boolean removeAndReAdd() {
+        int idx = random.nextInt(book.size());
+        String removed = book.get(idx);
+        manager.removeLine(idx);
+        return manager.addLine(removed);
+    }
+
+    @Benchmark
+    public int exactLookup() {
+        return book.indexOf(WordBook.englishOf(lines.get(random.nextInt(size))));
+    }
+
+    @Benchmark
+    public List<Integer> searchEnglishFragment() {
+        String eng = WordBook.englishOf(lines.get(random.nextInt(size)));
+        return book.search(eng.substring(0, Math.min(4, eng.length())));
+    }
+
+    @Benchmark
+    public List<Integer> searchKoreanFragment() {
+        String kor = WordBook.koreanOf(lines.get(random.nextInt(size)));
+        return book.search(kor.substring(0, Math.min(2, kor.length())));
+    }
+}
@@ -1,7 +1,12 @@
+import util.Metrics;
+
 public class Main {
     public static void main(String[] args) {
         // 프로그램 실행 중 발생할 수 있는 치명적인 오류를 잡기 위한 예외 처리
         try {
+            Metrics.startFromSystemProperties();
+            // -Dvoca.metrics=prom|log 로 실행했을 때만 측정값을 파일로 내보냄
+
             // 런처 인스턴스 생성 및 시작
             VocabularyAppLauncher vocLauncher = new VocabularyAppLauncher();
             vocLauncher.start();
@@ -1,6 +1,10 @@
+import data.BinaryWordBook;
 import data.User;
+import manager.BinaryBookConverter;
+import manager.GlobalSearchService;
 import manager.PersonalVocaFileManager;
 import manager.QuizManager;
+import manager.SnapshotManager;
 import manager.VocaFileManager;
 import util.Path;
 
@@ -9,6 +13,7 @@ import java.io.IOException;
 import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.List;
 import java.util.Scanner;
 
 public class VocabularyApp {
@@ -18,6 +23,9 @@ public class VocabularyApp {
     final User currentUser;
     // 현재 로그인한 사용자 정보 (final로 변경 불가)
 
+    GlobalSearchService searchService;
+    // 전체 검색 서비스 (처음 검색할 때 생성하고, 로그인 세션 동안 색인을 유지)
+
     public VocabularyApp(User user) {
         this.currentUser = user;
         // 생성자 - 로그인 시 전달받은 사용자 정보를 저장
@@ -44,6 +52,20 @@ public class VocabularyApp {
         }
     }
 
+    public ArrayList<String> getPersonalBinaryVocaFilesList() {
+        File dir = new File(Path.getVocaDirPath(currentUser.getName()));
+        // 사용자 개인 단어장 폴더 경로
+
+        String[] list = dir.list((d, name) -> name.endsWith(BinaryWordBook.EXTENSION));
+        // 바이너리 단어장(.vocb) 파일만 필터링 (폴더가 없으면 null)
+
+        if (list != null && list.length > 0) {
+            return new ArrayList<>(Arrays.asList(list));
+        } else {
+            return new ArrayList<>();
+        }
+    }
+
     public ArrayList<String> getPersonalNotes() {
         File dir = new File(Path.getNoteDirPath(currentUser.getName()));
         // 사용자 오답노트 폴더 경로
@@ -84,7 +106,7 @@ public class VocabularyApp {
         int choice = 0;
         // 메뉴 선택 변수
 
-        while (choice != 5) {
+        while (choice != 7) {
             System.out.println("\n\n\n==== 단어장 메뉴 화면 ====");
             System.out.println("이름: " + currentUser.getName());
             System.out.println(currentUser.getStreak() + "일 연속 공부 중!");
@@ -92,7 +114,9 @@ public class VocabularyApp {
             System.out.println("2. 공용 단어장 관리");
             System.out.println("3. 퀴즈 풀기");
             System.out.println("4. 오답노트 관리");
-            System.out.println("5. 종료하기");
+            System.out.println("5. 전체 검색");
+            System.out.println("6. 백업/복원");
+            System.out.println("7. 종료하기");
             System.out.print(">> ");
 
             try {
@@ -111,7 +135,9 @@ public class VocabularyApp {
                 case 2 -> managePublicVocas();
                 case 3 -> quiz();
                 case 4 -> manageNotes();
-                case 5 -> System.out.println("단어장 앱을 종료합니다.");
+                case 5 -> searchAll();
+                case 6 -> backup();
+                case 7 -> System.out.println("단어장 앱을 종료합니다.");
                 default -> System.out.println("잘못된 입력입니다.");
             }// switch 확장문
         }
@@ -142,7 +168,7 @@ public class VocabularyApp {
             System.out.println(String.join(", ", displayList));
             // 목록 출력
 
-            System.out.print("관리할 단어장을 선택하세요 (q: 뒤로가기, n: 새 단어장 만들기): ");
+            System.out.print("관리할 단어장을 선택하세요 (q: 뒤로가기, n: 새 단어장 만들기, b: 바이너리 변환): ");
             String choice = scanner.nextLine().trim();
 
             if (choice.equalsIgnoreCase("q")) {
@@ -153,6 +179,10 @@ public class VocabularyApp {
                 wordBooksFileArray = getPersonalVocaFilesList(); // 목록 갱신
                 continue; // while 루프 재시작
             }
+            if (choice.equalsIgnoreCase("b")) {
+                convertVocaFile(); // .txt <-> .vocb 변환
+                continue;
+            }
 
             String selectedFile = null;
             // 선택된 파일명을 null로 명시적 초기화 (안 하면 노란불)
@@ -240,6 +270,47 @@ public class VocabularyApp {
         }
     }
 
+    // 개인 단어장을 바이너리 형식(.vocb)으로 변환하거나, 바이너리 단어장을 다시 텍스트로 되돌립니다.
+    // 바이너리 단어장은 읽기 전용이며 퀴즈에서 바로 열 수 있음
+    private void convertVocaFile() {
+        ArrayList<String> binaries = getPersonalBinaryVocaFilesList();
+        if (!binaries.isEmpty())
+            System.out.println("바이너리 단어장 목록: " + String.join(", ", binaries));
+
+        System.out.print("변환할 단어장 이름을 입력하세요 (a.txt -> a.vocb, a.vocb -> a.txt): ");
+        String filename = scanner.nextLine().trim();
+        File source = new File(Path.getVocaFilePath(currentUser.getName(), filename));
+        if (filename.isEmpty() || !source.exists()) {
+            System.out.println("'" + filename + "' 단어장이 없습니다.");
+            return;
+        }
+
+        long start = System.nanoTime();
+        try {
+            int count;
+            File target;
+            if (filename.endsWith(".txt")) {
+                target = BinaryBookConverter.binaryFileOf(source);
+                count = BinaryBookConverter.importText(source, target);
+            } else if (filename.endsWith(BinaryWordBook.EXTENSION)) {
+                target = BinaryBookConverter.textFileOf(source);
+                if (target.exists()) {
+                    System.out.println("이미 같은 이름의 단어장이 존재합니다: " + target.getName());
+                    return;
+                    // 텍스트 단어장에서 고친 내용을 덮어쓰지 않도록 함
+                }
+                count = BinaryBookConverter.exportText(source, target);
+            } else {
+                System.out.println(".txt 또는 " + BinaryWordBook.EXTENSION + " 파일만 변환할 수 있습니다.");
+                return;
+            }
+            System.out.printf("'%s' -> '%s' 변환 완료 (단어 %d개, %d ms)%n", source.getName(), target.getName(), count,
+                    (System.nanoTime() - start) / 1_000_000);
+        } catch (IOException e) {
+            System.out.println("단어장 변환 중 오류: " + e.getMessage());
+        }
+    }
+
     // =========== 공용 단어 관리 ===========
 
     private void managePublicVocas() {
@@ -296,15 +367,18 @@ public class VocabularyApp {
     // =========== 퀴즈 ===========
 
     private void quiz() {
+        QuizManager quizManager = new QuizManager(currentUser);
+        // 퀴즈 매니저 생성 (메뉴를 돌 때마다 새로 만들지 않고 재사용)
         int choice = 0;
-        while (choice != 6) {
+        while (choice != 7) {
             System.out.println("==== 퀴즈 ====");
             System.out.println("1. 개인 단어장 퀴즈");
             System.out.println("2. 개인 오답노트 퀴즈");
             System.out.println("3. 즐겨찾기 단어 퀴즈");
             System.out.println("4. 공용 단어장 퀴즈");
             System.out.println("5. 많이 틀리는 단어 퀴즈");
-            System.out.println("6. 돌아가기");
+            System.out.println("6. 간격 반복 복습");
+            System.out.println("7. 돌아가기");
             System.out.print(">> ");
 
             try {
@@ -316,21 +390,124 @@ public class VocabularyApp {
                 choice = -1;
             }
 
-            QuizManager quizManager = new QuizManager(currentUser);
-            // 퀴즈 매니저 생성
-
             switch (choice) {
-                case 1 -> quizManager.personalWordQuiz(getPersonalVocaFilesList());
+                case 1 -> {
+                    ArrayList<String> files = getPersonalVocaFilesList();
+                    files.addAll(getPersonalBinaryVocaFilesList());
+                    // 바이너리 단어장도 퀴즈 대상에 포함
+                    quizManager.personalWordQuiz(files);
+                }
                 case 2 -> quizManager.personalNoteQuiz(getPersonalNotes());
                 case 3 -> quizManager.personalFavoriteQuiz(Path.getFavoriteFilePath(currentUser.getName()));
                 case 4 -> quizManager.publicWordQuiz();
                 case 5 -> quizManager.publicFrequentlyMissedQuiz();
-                case 6 -> System.out.println("메인메뉴로 돌아갑니다.");
+                case 6 -> quizManager.reviewQuiz(getPersonalVocaFilesList());
+                case 7 -> System.out.println("메인메뉴로 돌아갑니다.");
                 default -> System.out.println("잘못된 입력입니다.");
             }
         }
     }
 
+    // =========== 전체 검색 ===========
+
+    private void searchAll() {
+        System.out.println("==== 전체 검색 (개인 단어장/오답노트/즐겨찾기/공용 단어장) ====");
+        System.out.print("검색어 입력: ");
+        String q = scanner.nextLine().trim();
+
+        if (q.isEmpty()) {
+            System.out.println("검색어를 입력하세요.");
+            return;
+        }
+
+        if (searchService == null)
+            searchService = new GlobalSearchService(currentUser.getName());
+        // 처음 검색할 때 모든 파일을 병렬로 읽어 색인하고, 이후에는 바뀐 파일만 다시 읽음
+
+        List<GlobalSearchService.Hit> hits = searchService.search(q);
+        for (GlobalSearchService.Hit hit : hits) {
+            String[] parts = hit.text.split("\t");
+            String eng = parts[0].trim();
+            String kor = parts.length > 1 ? parts[1].trim() : "";
+            System.out.printf("[%s:%d] %s = %s%n", hit.source, hit.line, eng, kor);
+            // 출처 파일과 줄 번호를 함께 표시
+        }
+
+        if (hits.isEmpty())
+            System.out.println("검색 결과가 없습니다.");
+        else
+            System.out.printf("검색 결과 %d건 (검색한 파일 %d개)%n", hits.size(), searchService.fileCount());
+    }
+
+    // =========== 백업/복원 ===========
+
+    private void backup() {
+        SnapshotManager snapshots = new SnapshotManager(currentUser.getName());
+
+        while (true) {
+            System.out.println("\n==== 백업/복원 ====");
+            System.out.println("1. 전체 내보내기 (zip 파일)");
+            System.out.println("2. 스냅샷 만들기 (지난 스냅샷 이후 바뀐 파일만)");
+            System.out.println("3. 복원하기");
+            System.out.println("4. 돌아가기");
+            System.out.print(">> ");
+
+            String input = scanner.nextLine().trim();
+            try {
+                switch (input) {
+                    case "1" -> {
+                        System.out.print("내보낼 파일 경로 (엔터: " + currentUser.getName() + ".zip): ");
+                        String path = scanner.nextLine().trim();
+                        File target = new File(path.isEmpty() ? currentUser.getName() + ".zip" : path);
+                        System.out.println(snapshots.export(target));
+                    }
+                    case "2" -> System.out.println(snapshots.snapshot(false));
+                    case "3" -> restore(snapshots);
+                    case "4" -> {
+                        return;
+                    }
+                    default -> System.out.println("잘못된 입력입니다.");
+                }
+            } catch (IOException e) {
+                System.out.println("백업/복원 중 오류가 발생했습니다: " + e.getMessage());
+            }
+        }
+    }
+
+    private void restore(SnapshotManager snapshots) throws IOException {
+        List<File> list = snapshots.snapshots();
+        for (int i = 0; i < list.size(); i++)
+            System.out.printf("%d) %s%n", i + 1, list.get(i).getName());
+        System.out.print("복원할 스냅샷 번호 또는 내보낸 zip 파일 경로 (엔터: 취소): ");
+        String input = scanner.nextLine().trim();
+        if (input.isEmpty())
+            return;
+
+        File archive;
+        try {
+            int n = Integer.parseInt(input);
+            if (n < 1 || n > list.size()) {
+                System.out.println("목록에 없는 번호입니다.");
+                return;
+            }
+            archive = list.get(n - 1);
+        } catch (NumberFormatException e) {
+            archive = new File(input);
+        }
+        if (!archive.isFile()) {
+            System.out.println("파일이 없습니다: " + archive.getPath());
+            return;
+        }
+
+        System.out.print("현재 단어장/오답노트/즐겨찾기가 " + archive.getName() + " 시점으로 바뀝니다. 계속할까요? (y/n): ");
+        if (!scanner.nextLine().trim().equalsIgnoreCase("y"))
+            return;
+
+        System.out.println(snapshots.restore(archive));
+        searchService = null;
+        // 파일이 통째로 바뀌었으므로 검색 색인은 다음 검색 때 새로 만듦
+    }
+
     // =========== 오답노트 관리 ===========
 
     private void manageNotes() {
@@ -1,23 +1,22 @@
 import data.User;
+import manager.UserRepository;
 import util.Path;
 
 import java.io.File;
-import java.io.FileNotFoundException;
-import java.io.FileOutputStream;
 import java.io.IOException;
-import java.io.OutputStreamWriter;
-import java.io.PrintWriter;
 import java.time.LocalDate;
-import java.util.ArrayList;
 import java.util.Scanner;
 import java.nio.charset.StandardCharsets;
 
 public class VocabularyAppLauncher {
+    private static final int MAX_LISTED_USERS = 50;
+    // 계정 목록에 이름을 모두 출력할 최대 계정 수
+
     Scanner scanner = new Scanner(System.in, StandardCharsets.UTF_8);
     // 사용자 입력을 받기 위한 스캐너 객체 (한글 깨짐 방지를 위해 UTF-8 설정)
 
-    ArrayList<User> users = new ArrayList<>();
-    // 파일에서 읽어온 사용자 정보들을 메모리에 저장해 둘 리스트
+    UserRepository users = new UserRepository(new File(Path.getUsersFilePath()));
+    // 사용자 정보 저장소 (처음 사용할 때 users.txt를 한 번만 훑어 이름으로 찾는 인덱스를 만듦)
 
     public void start() {
         initializeSystemResources();
@@ -83,9 +82,6 @@ public class VocabularyAppLauncher {
     }
 
     private void login() {
-        readUsers();
-        // users.txt 파일에서 사용자 목록을 읽어와 users 리스트에 저장
-
         if (users.isEmpty()) {
             createUser();
             // 등록된 사용자가 한 명도 없다면 즉시 회원가입 절차 진행
@@ -94,9 +90,14 @@ public class VocabularyAppLauncher {
         String choice;
         while (true) {
             System.out.println("==== 계정 목록 ====");
-            for (User user : users) {
-                System.out.println(user.getName());
-                // 현재 등록된 모든 username을 출력
+            if (users.size() <= MAX_LISTED_USERS) {
+                for (String name : users.names()) {
+                    System.out.println(name);
+                    // 현재 등록된 모든 username을 출력
+                }
+            } else {
+                System.out.println("등록된 계정 " + users.size() + "개");
+                // 계정이 너무 많으면 목록 대신 개수만 출력
             }
             System.out.print("로그인 할 계정 이름을 입력하세요(q 입력시 종료, n 입력시 새 프로필 추가): ");
             choice = scanner.nextLine().trim();
@@ -114,14 +115,8 @@ public class VocabularyAppLauncher {
                 continue;
             }
 
-            User foundUser = null;
-            for (User user : users) {
-                if (choice.equals(user.getName())) {
-                    foundUser = user;
-                    break;
-                    // 입력한 이름과 일치하는 사용자를 리스트에서 찾음
-                }
-            }
+            User foundUser = users.find(choice);
+            // 입력한 이름과 일치하는 사용자를 해시 인덱스로 찾음
 
             if (foundUser == null) {
                 System.out.println("이름을 다시 입력해주세요.");
@@ -153,53 +148,21 @@ public class VocabularyAppLauncher {
         }
     }
 
-    private void readUsers() {
-        users.clear();
-        // 리스트를 비워 중복 로드 방지
-
-        File usersFile = new File(Path.getUsersFilePath());
-        if (!usersFile.exists()) {
-            return;
-            // 사용자 정보 파일이 없으면 읽지 않고 종료
-        }
-
-        try (Scanner file = new Scanner(usersFile, StandardCharsets.UTF_8.name())) {
-            // 파일을 UTF-8로 읽는 스캐너 생성
-
-            while (file.hasNextLine()) {
-                String line = file.nextLine();
-                String[] data = line.split("\t");
-                // 탭(Tab) 으로 구분된 데이터를 분리
-
-                if (data.length < 4)
-                    continue;
-                // 데이터가 불완전하면(이름, 비번, 스트릭, 날짜 중 하나라도 없으면) 건너뜀
-
-                try {
-                    users.add(new User(data[0].trim(), data[1].trim(), Integer.parseInt(data[2].trim()),
-                            LocalDate.parse(data[3].trim())));
-                    // 파싱한 정보로 User 객체 생성하여 리스트에 추가
-                } catch (Exception e) {
-                    System.out.println("손상된 사용자 데이터가 있어 건너뜁니다: " + line);
-                    // 날짜 형식 등이 잘못된 경우 에러 로그 출력 후 계속 진행
-                }
-            }
-        } catch (FileNotFoundException ignored) {
-            // 위에서 exists() 체크를 했으므로 발생 확률 거의 없늠
-        }
-    }
-
     private void createUser() {
         System.out.println("==== 새 프로필 추가 ====");
         System.out.print("이름 입력: ");
         String name = scanner.nextLine().trim();
 
-        for (User user : users) {
-            if (name.equals(user.getName())) {
-                System.out.println("이미 존재하는 사용자입니다!");
-                return;
-                // 중복된 ID 방지
-            }
+        if (users.exists(name)) {
+            System.out.println("이미 존재하는 사용자입니다!");
+            return;
+            // 중복된 ID 방지
+        }
+
+        if (name.startsWith(".") || name.equals("public")) {
+            System.out.println("사용할 수 없는 이름입니다!");
+            return;
+            // res/ 아래의 공용 단어장, 스냅샷 폴더와 겹치는 이름 방지
         }
 
         System.out.print("비밀번호 입력: ");
@@ -224,67 +187,26 @@ public class VocabularyAppLauncher {
             File favFile = new File(Path.getFavoriteFilePath(name));
             favFile.createNewFile();
             // 5. 빈 즐겨찾기 파일(_favorites.txt) 미리 생성
-
-            // 사용자 정보 파일(users.txt)에 새 사용자 추가 (이어쓰기 모드)
-            try (PrintWriter usersDataPrintWriter = new PrintWriter(
-                    new OutputStreamWriter(new FileOutputStream(Path.getUsersFilePath(), true),
-                            StandardCharsets.UTF_8))) {
-                // 이어쓰기(append) 모드로 스트림 열기 (기존 사용자 정보 보존 위해서!)
-            }
-
         } catch (IOException e) {
             System.out.println("사용자 폴더/파일 생성 중 오류 발생: " + e.getMessage());
             // 파일 생성 실패 시 에러 출력
         }
 
         User newUser = new User(name, password, 1, date);
-        users.add(newUser);
-        // 메모리 리스트에 새 사용자 추가
-
-        saveAllUsersToFile();
-        // 변경된 사용자 목록 전체를 파일에 안전하게 저장 (동기화)
+        users.create(newUser);
+        // 사용자 정보 파일(users.txt) 끝에 새 사용자 한 줄만 추가 (기존 사용자 정보는 건드리지 않음)
     }
 
-    private void saveAllUsersToFile() {
-        try (PrintWriter pw = new PrintWriter(
-                new OutputStreamWriter(new FileOutputStream(Path.getUsersFilePath(), false), StandardCharsets.UTF_8))) {
-            // 덮어쓰기 모드로 파일 열기
+    private void updateUserStreakAndSave(User foundUser) {
+        int streak = countStreak(foundUser);
+        // 접속일 기준 스트릭 재계산
 
-            for (User u : users) {
-                pw.printf("%s\t%s\t%d\t%s\r\n", u.getName(), u.getPassword(), u.getStreak(), u.getLastDate());
-                // 리스트에 있는 모든 사용자 정보를 파일에 기록
-            }
-        } catch (IOException e) {
-            System.out.println("사용자 정보 저장 실패: " + e.getMessage());
-        }
-    }
+        foundUser.setStreak(streak);
+        foundUser.setLastDate(LocalDate.now());
+        // 메모리 객체에 오늘 날짜와 갱신된 스트릭 반영
 
-    private void updateUserStreakAndSave(User foundUser) {
-        try (PrintWriter userDataFile = new PrintWriter(
-                new OutputStreamWriter(new FileOutputStream(Path.getUsersFilePath(), false),
-                        StandardCharsets.UTF_8))) {
-            // 파일 전체 갱신을 위해 덮어쓰기 모드로 열기
-
-            for (User user : users) {
-                if (user.equals(foundUser)) {
-                    int streak = countStreak(foundUser);
-                    // 접속일 기준 스트릭 재계산
-
-                    userDataFile.printf("%s\t%s\t%d\t%s\r\n", foundUser.getName(), foundUser.getPassword(), streak,
-                            LocalDate.now());
-                    // 파일에는 오늘 날짜와 갱신된 스트릭 저장
-
-                    foundUser.setStreak(streak);
-                    // 메모리 객체에도 반영
-                } else {
-                    userDataFile.printf("%s\t%s\t%d\t%s\r\n", user.getName(), user.getPassword(), user.getStreak(),
-                            user.getLastDate());
-                    // 다른 사용자는 기존 정보 그대로 저장
-                }
-            }
-        } catch (IOException e) {
-            System.out.println("사용자 정보 업데이트 중 오류: " + e.getMessage());
-        }
+        users.update(foundUser);
+        // 파일에서는 해당 사용자의 줄만 덮어씀
     }
 
     private int countStreak(User user) {
@@ -0,0 +1,198 @@
+package data;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardOpenOption;
+import java.util.AbstractList;
+import java.util.HashMap;
+import java.util.List;
+
+// 단어장의 바이너리 형식(.vocb)을 메모리 매핑으로 읽는 읽기 전용 단어장
+// 텍스트 단어장은 열 때마다 모든 줄을 split 하여 문자열을 새로 만들지만, 이 형식은 파일을 그대로 매핑해 두고
+// i번째 단어를 요청받을 때 그 단어의 바이트만 문자열로 바꾸므로 큰 단어장도 바로 열리고 인덱스 접근에 파싱이 없습니다.
+//
+// 파일 구성 (모든 정수는 빅엔디안)
+//   헤더 16바이트 : "VOCB" | 버전(short) | 예약(short) | 단어 수(int) | 문자열 풀 크기(int)
+//   오프셋 표     : 단어마다 24바이트 - 영단어 위치/길이, 뜻 위치/길이, 출제 수, 정답 수 (int 6개)
+//   문자열 풀     : UTF-8 바이트 (같은 문자열은 한 번만 저장)
+// 영단어 칸에는 토글(*)까지 그대로 저장하여 텍스트로 되돌렸을 때 원래 줄과 같게 만듭니다.
+// 출제 수가 -1이면 통계 칸이 없는 줄(개인 단어장), 뜻 길이가 -1이면 탭이 없는 줄입니다.
+
+public class BinaryWordBook {
+    public static final String EXTENSION = ".vocb";
+
+    private static final byte[] MAGIC = { 'V', 'O', 'C', 'B' };
+    private static final short VERSION = 1;
+    private static final int HEADER_SIZE = 16;
+    private static final int RECORD_SIZE = 24;
+    private static final int NO_STATS = -1;
+    private static final int NO_KOREAN = -1;
+
+    private final ByteBuffer buffer;
+    private final int count;
+    private final int poolStart;
+
+    private BinaryWordBook(ByteBuffer buffer, int count, int poolStart) {
+        this.buffer = buffer;
+        this.count = count;
+        this.poolStart = poolStart;
+    }
+
+    // 바이너리 단어장을 매핑하여 엽니다. 헤더만 확인하고 단어는 읽지 않음
+    public static BinaryWordBook open(File file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size > Integer.MAX_VALUE)
+                throw new IOException("바이너리 단어장은 2GB를 넘을 수 없습니다.");
+            if (size < HEADER_SIZE)
+                throw new IOException("바이너리 단어장 형식이 아닙니다.");
+
+            ByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+            // 매핑은 채널을 닫아도 유지됨
+
+            for (int i = 0; i < MAGIC.length; i++)
+                if (buffer.get(i) != MAGIC[i])
+                    throw new IOException("바이너리 단어장 형식이 아닙니다.");
+            if (buffer.getShort(4) != VERSION)
+                throw new IOException("지원하지 않는 바이너리 단어장 버전입니다: " + buffer.getShort(4));
+
+            int count = buffer.getInt(8);
+            int poolSize = buffer.getInt(12);
+            long expected = HEADER_SIZE + (long) count * RECORD_SIZE + poolSize;
+            if (count < 0 || poolSize < 0 || expected != size)
+                throw new IOException("바이너리 단어장이 손상되었습니다.");
+
+            return new BinaryWordBook(buffer, count, HEADER_SIZE + count * RECORD_SIZE);
+        }
+    }
+
+    public int size() {
+        return count;
+    }
+
+    // 영단어 칸 (토글 * 포함)
+    public String english(int i) {
+        int record = recordOf(i);
+        return decode(buffer.getInt(record), buffer.getInt(record + 4));
+    }
+
+    // 뜻 칸 (탭이 없는 줄이면 빈 문자열)
+    public String korean(int i) {
+        int record = recordOf(i);
+        int length = buffer.getInt(record + 12);
+        return length == NO_KOREAN ? "" : decode(buffer.getInt(record + 8), length);
+    }
+
+    public boolean hasStats(int i) {
+        return buffer.getInt(recordOf(i) + 16) != NO_STATS;
+    }
+
+    public int questions(int i) {
+        return Math.max(0, buffer.getInt(recordOf(i) + 16));
+    }
+
+    public int correct(int i) {
+        return buffer.getInt(recordOf(i) + 20);
+    }
+
+    // 텍스트 단어장의 한 줄과 같은 형식으로 만듭니다.
+    public String line(int i) {
+        int record = recordOf(i);
+        String line = english(i);
+        if (buffer.getInt(record + 12) != NO_KOREAN)
+            line += "\t" + korean(i);
+        if (hasStats(i))
+            line += "\t" + questions(i) + "\t" + correct(i);
+        return line;
+    }
+
+    // i번째 단어 (통계 칸이 있으면 PublicWord). 토글(*)은 제거함
+    public Word word(int i) {
+        String eng = WordBook.englishOf(english(i));
+        String kor = korean(i);
+        if (hasStats(i))
+            return new PublicWord(eng, kor, questions(i), correct(i));
+        return new Word(eng, kor);
+    }
+
+    // 매핑된 바이트 위의 읽기 전용 단어 목록 (get 할 때마다 해당 단어만 만듦)
+    public List<Word> asWords() {
+        return new AbstractList<Word>() {
+            @Override
+            public Word get(int index) {
+                return word(index);
+            }
+
+            @Override
+            public int size() {
+                return count;
+            }
+        };
+    }
+
+    private int recordOf(int i) {
+        if (i < 0 || i >= count)
+            throw new IndexOutOfBoundsException("index " + i + ", size " + count);
+        return HEADER_SIZE + i * RECORD_SIZE;
+    }
+
+    private String decode(int offset, int length) {
+        byte[] bytes = new byte[length];
+        buffer.get(poolStart + offset, bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    // 텍스트 단어장의 줄들을 바이너리 형식으로 씁니다.
+    public static void write(List<String> lines, OutputStream out) throws IOException {
+        ByteArrayOutputStream pool = new ByteArrayOutputStream();
+        HashMap<String, int[]> pooled = new HashMap<>();
+        // 문자열 -> 풀 안의 위치/길이 (같은 뜻이 여러 번 나와도 한 번만 저장)
+
+        ByteBuffer table = ByteBuffer.allocate(lines.size() * RECORD_SIZE);
+        for (String line : lines) {
+            String[] parts = line.split("\t", -1);
+            int[] eng = intern(parts[0].trim(), pool, pooled);
+            int[] kor = parts.length > 1 ? intern(parts[1].trim(), pool, pooled) : new int[] { 0, NO_KOREAN };
+
+            int questions = NO_STATS, correct = 0;
+            if (parts.length >= 4) {
+                try {
+                    questions = Integer.parseInt(parts[2].trim());
+                    correct = Integer.parseInt(parts[3].trim());
+                } catch (NumberFormatException e) {
+                    questions = NO_STATS;
+                    correct = 0;
+                    // 통계 칸이 숫자가 아니면 통계 없는 단어로 저장
+                }
+            }
+            table.putInt(eng[0]).putInt(eng[1]).putInt(kor[0]).putInt(kor[1]).putInt(questions).putInt(correct);
+        }
+
+        DataOutputStream data = new DataOutputStream(out);
+        data.write(MAGIC);
+        data.writeShort(VERSION);
+        data.writeShort(0);
+        data.writeInt(lines.size());
+        data.writeInt(pool.size());
+        data.write(table.array());
+        pool.writeTo(data);
+        data.flush();
+    }
+
+    private static int[] intern(String s, ByteArrayOutputStream pool, HashMap<String, int[]> pooled) {
+        int[] pos = pooled.get(s);
+        if (pos != null)
+            return pos;
+        byte[] bytes = s.getBytes(StandardCharsets.UTF_8);
+        pos = new int[] { pool.size(), bytes.length };
+        pool.write(bytes, 0, bytes.length);
+        pooled.put(s, pos);
+        return pos;
+    }
+}
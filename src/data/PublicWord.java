@@ -1,11 +1,12 @@
 package data;
 
 public class PublicWord extends Word {
-    public int questions = 0;
-    public int correct = 0;
+    public final int questions;
+    public final int correct;
+    // 불러올 때의 통계 (퀴즈 중 증가분은 PublicStatsStore에 기록)
 
     public PublicWord(String english, String korean) {
-        super(english, korean);
+        this(english, korean, 0, 0);
     }
 
     public PublicWord(String english, String korean, int questions, int correct) {
@@ -15,6 +16,9 @@ public class PublicWord extends Word {
     }
 
     public double getCorrectionRate() {
+        if (questions == 0)
+            return 0;
+        // 출제된 적 없는 단어는 0% (0으로 나누면 NaN이 되어 정렬/비교가 깨짐)
         return (double) correct / questions * 100;
     }
 
@@ -6,7 +6,7 @@ public class User {
     private final String name;
     private final String password;
     private int streak;
-    private final LocalDate lastDate;
+    private LocalDate lastDate;
 
     public User(String name, String password, int streak, LocalDate lastDate) {
         this.name = name;
@@ -35,6 +35,10 @@ public class User {
         return lastDate;
     }
 
+    public void setLastDate(LocalDate lastDate) {
+        this.lastDate = lastDate;
+    }
+
     @Override
     public String toString() {
         return name + '\t' + password + '\t' + streak + '\t' + lastDate;
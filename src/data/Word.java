@@ -4,14 +4,31 @@ import java.util.ArrayList;
 import java.util.List;
 import java.util.Objects;
 
+// 단어 하나 (생성 후 바뀌지 않음)
+// 뜻은 만들 때 "/"로 한 번만 나누어 두므로, 문제를 낼 때마다 나누거나 이어 붙이지 않습니다.
+// 같은 뜻 문자열은 intern하여 여러 단어장에 있는 같은 뜻이 메모리를 한 번만 차지하게 함
 public class Word {
-    String english;
-    String korean;
-    public ArrayList<String> koreanList = new ArrayList<>();
+    final String english;
+    final String korean;
+    private final String[] meanings;
+    // 앞뒤 공백을 지운 뜻들 (빈 뜻 제외, 입력 순서 유지)
+    private final String meaningStr;
+    // 정답 표시용 "뜻1/뜻2/..." (미리 만들어 둠)
 
     public Word(String english, String korean) {
         this.english = english;
         this.korean = korean;
+
+        ArrayList<String> parts = new ArrayList<>(2);
+        for (String kor : korean.split("/")) {
+            String t = kor.trim();
+            if (!t.isEmpty())
+                parts.add(t.intern());
+        }
+        if (parts.isEmpty())
+            parts.add(korean.trim().intern());
+        this.meanings = parts.toArray(new String[0]);
+        this.meaningStr = String.join("/", meanings);
     }
 
     public String getEnglish() {
@@ -22,6 +39,60 @@ public class Word {
         return korean;
     }
 
+    public int meaningCount() {
+        return meanings.length;
+    }
+
+    public String meaning(int i) {
+        return meanings[i];
+    }
+
+    // 보기에 표시하는 대표 뜻 (여러 뜻 중 첫 번째)
+    public String firstMeaning() {
+        return meanings[0];
+    }
+
+    public List<String> getMeanings() {
+        return List.of(meanings);
+    }
+
+    // 정답 표시용 "뜻1/뜻2/..."
+    public String getMeaningString() {
+        return meaningStr;
+    }
+
+    // 사용자가 입력한 뜻이 맞는지 확인합니다. "/"로 여러 개를 입력하면 모두 이 단어의 뜻이어야 정답
+    // 입력을 나누거나 자르지 않고 위치만 옮기며 비교하므로 새 객체를 만들지 않음
+    public boolean acceptsMeaning(String answer) {
+        int length = answer.length();
+        int start = 0;
+        boolean any = false;
+        while (start <= length) {
+            int end = answer.indexOf('/', start);
+            if (end < 0)
+                end = length;
+
+            int s = start, e = end;
+            while (s < e && Character.isWhitespace(answer.charAt(s)))
+                s++;
+            while (e > s && Character.isWhitespace(answer.charAt(e - 1)))
+                e--;
+            if (s < e) {
+                if (!hasMeaning(answer, s, e - s))
+                    return false;
+                any = true;
+            }
+            start = end + 1;
+        }
+        return any;
+    }
+
+    private boolean hasMeaning(String answer, int offset, int len) {
+        for (String m : meanings)
+            if (m.length() == len && answer.regionMatches(true, offset, m, 0, len))
+                return true;
+        return false;
+    }
 
     @Override
     public String toString() {
@@ -33,4 +104,9 @@ public class Word {
         if (!(o instanceof Word word)) return false;
         return Objects.equals(english, word.english) && Objects.equals(korean, word.korean);
     }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(english, korean);
+    }
 }
@@ -0,0 +1,282 @@
+package data;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+
+// 단어장 파일 하나의 내용을 메모리에 올려 두는 모델 클래스
+// 파일의 라인 순서를 그대로 유지하는 리스트와, 소문자 영단어를 키로 하는 해시 인덱스를 함께 관리합니다.
+// 중복 검사와 뜻 병합을 매번 파일을 읽어 선형 탐색하지 않고 O(1)로 처리하기 위해 사용합니다.
+
+public class WordBook {
+    private final ArrayList<String> lines = new ArrayList<>();
+    // 파일에 저장된 순서 그대로의 라인 목록 ("eng\tkor", "*eng\tkor", "eng*\tkor")
+
+    private final HashMap<String, Entry> index = new HashMap<>();
+    // 소문자 영단어(토글 * 제거) -> 그 단어의 라인 번호들
+
+    private final ArrayList<Entry> entries = new ArrayList<>();
+    // lines와 같은 순서로, 각 라인이 속한 단어 (삭제 후 뒤쪽 라인 번호를 당길 때 키를 다시 계산하거나 해시를 찾지 않음)
+
+    private WordSearchIndex searchIndex;
+    // 부분 문자열 검색용 n-gram 색인 (처음 검색할 때 만들고 이후 변경 시 함께 갱신)
+
+    // 단어 키 하나의 라인 번호들
+    private static final class Entry {
+        final String key;
+        int first = -1;
+        // 처음 등장하는 라인 번호
+        ArrayList<Integer> duplicates;
+        // 같은 단어가 여러 라인에 있을 때 두 번째 이후의 라인 번호 (오름차순, 대부분은 null)
+
+        Entry(String key) {
+            this.key = key;
+        }
+    }
+
+    public WordBook() {
+    }
+
+    public WordBook(List<String> lines) {
+        for (String line : lines)
+            add(line);
+    }
+
+    // 라인에서 토글(*)을 제거한 순수 영단어를 꺼냅니다.
+    // 개인 단어장은 앞에(*apple), 오답노트는 뒤에(apple*) 토글이 붙으므로 둘 다 제거함
+    public static String englishOf(String line) {
+        int tab = line.indexOf('\t');
+        String eng = (tab < 0 ? line : line.substring(0, tab)).trim();
+        if (eng.startsWith("*"))
+            eng = eng.substring(1).trim();
+        if (eng.endsWith("*"))
+            eng = eng.substring(0, eng.length() - 1).trim();
+        return eng;
+    }
+
+    // 라인에서 뜻 부분(탭 뒤)을 꺼냅니다.
+    public static String koreanOf(String line) {
+        int tab = line.indexOf('\t');
+        return tab < 0 ? "" : line.substring(tab + 1).trim();
+    }
+
+    // 인덱스에 사용하는 키 (대소문자 구분 없이 비교하기 위해 소문자로 통일)
+    public static String keyOf(String line) {
+        return englishOf(line).toLowerCase();
+    }
+
+    // 뜻 부분에서 공용 단어장의 통계 칸(출제 수, 정답 수)을 뺀 것 ("사과\t3\t1" -> "사과")
+    public static String meaningsOf(String line) {
+        String kor = koreanOf(line);
+        int tab = kor.indexOf('\t');
+        return tab < 0 ? kor : kor.substring(0, tab).trim();
+    }
+
+    // 공용 단어장 라인의 통계 칸 ("\t출제 수\t정답 수", 없으면 "")
+    public static String statsOf(String line) {
+        int tab = line.indexOf('\t');
+        int second = tab < 0 ? -1 : line.indexOf('\t', tab + 1);
+        return second < 0 ? "" : line.substring(second);
+    }
+
+    // 영단어 칸(토글 포함)과 통계 칸은 그대로 두고 뜻 부분만 바꾼 새 라인을 만듭니다.
+    public static String withKorean(String line, String kor) {
+        int tab = line.indexOf('\t');
+        String engPart = (tab < 0 ? line : line.substring(0, tab)).trim();
+        return engPart + "\t" + kor + statsOf(line);
+    }
+
+    public int size() {
+        return lines.size();
+    }
+
+    public boolean isEmpty() {
+        return lines.isEmpty();
+    }
+
+    public String get(int i) {
+        return lines.get(i);
+    }
+
+    // 영단어가 처음 등장하는 라인 번호를 반환합니다. 없으면 -1
+    public int indexOf(String eng) {
+        Entry entry = index.get(eng.trim().toLowerCase());
+        return entry == null ? -1 : entry.first;
+    }
+
+    public boolean contains(String eng) {
+        return indexOf(eng) >= 0;
+    }
+
+    // 라인 목록 (읽기 전용)
+    public List<String> lines() {
+        return Collections.unmodifiableList(lines);
+    }
+
+    // 수정 가능한 복사본이 필요한 곳에서 사용
+    public ArrayList<String> copyLines() {
+        return new ArrayList<>(lines);
+    }
+
+    public void add(String line) {
+        lines.add(line);
+        Entry entry = link(keyOf(line), lines.size() - 1);
+        entries.add(entry);
+        reindexSearch(entry);
+        // 같은 단어가 이미 있으면 처음 위치는 유지하고 중복 라인으로 기록
+    }
+
+    public String set(int i, String line) {
+        String old = lines.set(i, line);
+        Entry oldEntry = entries.get(i);
+        String newKey = keyOf(line);
+        if (oldEntry.key.equals(newKey)) {
+            reindexSearch(oldEntry);
+            return old;
+        }
+        // 영단어가 그대로면 인덱스는 바뀌지 않음 (뜻만 검색 색인에 반영)
+
+        unlink(oldEntry, i);
+        Entry newEntry = link(newKey, i);
+        entries.set(i, newEntry);
+        reindexSearch(oldEntry);
+        reindexSearch(newEntry);
+        return old;
+    }
+
+    public String remove(int i) {
+        String old = lines.remove(i);
+        Entry oldEntry = entries.remove(i);
+        unlink(oldEntry, i);
+
+        // 삭제된 위치 뒤의 라인들은 번호가 하나씩 당겨짐 (라인마다 단어를 들고 있으므로 번호만 고침)
+        for (int j = i; j < entries.size(); j++) {
+            Entry entry = entries.get(j);
+            if (entry.first == j + 1) {
+                entry.first = j;
+                continue;
+            }
+            int at = Collections.binarySearch(entry.duplicates, j + 1);
+            entry.duplicates.set(at, j);
+            // first가 아니면 반드시 중복 라인
+        }
+
+        reindexSearch(oldEntry);
+        // 검색 색인은 라인 번호가 아닌 단어 키 기준이므로 삭제된 단어만 갱신
+        return old;
+    }
+
+    // 전체 내용을 교체합니다. (다른 곳에서 파일 전체를 다시 만든 경우)
+    public void replaceAll(List<String> newLines) {
+        lines.clear();
+        index.clear();
+        entries.clear();
+        searchIndex = null;
+        for (String line : newLines)
+            add(line);
+    }
+
+    // 영단어 또는 뜻에 검색어가 포함된 라인 번호를 순위순으로 반환합니다.
+    // 영단어 일치 > 영단어 접두 > 영단어 포함 > 뜻 일치 > 뜻 접두 > 뜻 포함, 같은 순위는 파일 순서
+    // 같은 단어가 여러 라인에 있으면 검색어와 일치하는 라인을 모두 반환
+    public List<Integer> search(String query) {
+        prepareSearch();
+        // 첫 검색 때 한 번만 전체 색인
+
+        List<WordSearchIndex.Hit> hits = searchIndex.search(query);
+        ArrayList<long[]> ranked = new ArrayList<>(hits.size());
+        for (WordSearchIndex.Hit hit : hits) {
+            Entry entry = index.get(hit.key);
+            if (entry == null)
+                continue;
+            if (entry.duplicates == null) {
+                ranked.add(new long[] { hit.rank, entry.first });
+                continue;
+            }
+            // 색인에는 중복 라인의 뜻이 합쳐져 있으므로 라인마다 다시 순위를 매김
+            addRanked(ranked, query, entry.first);
+            for (int dup : entry.duplicates)
+                addRanked(ranked, query, dup);
+        }
+        ranked.sort((a, b) -> a[0] != b[0] ? Long.compare(a[0], b[0]) : Long.compare(a[1], b[1]));
+
+        ArrayList<Integer> result = new ArrayList<>(ranked.size());
+        for (long[] r : ranked)
+            result.add((int) r[1]);
+        return result;
+    }
+
+    // 검색 색인을 미리 만들어 둡니다. (여러 단어장을 병렬로 불러올 때 색인 작업도 함께 나누기 위해 사용)
+    public void prepareSearch() {
+        if (searchIndex != null)
+            return;
+        WordSearchIndex built = new WordSearchIndex();
+        for (Entry entry : index.values())
+            built.add(entry.key, searchLine(entry));
+        searchIndex = built;
+    }
+
+    private void addRanked(ArrayList<long[]> ranked, String query, int pos) {
+        int rank = WordSearchIndex.rankOf(query, lines.get(pos));
+        if (rank >= 0)
+            ranked.add(new long[] { rank, pos });
+    }
+
+    // 단어 키에 라인 번호 i를 추가하고 그 단어를 반환합니다. (처음 위치보다 앞이면 처음 위치가 됨)
+    private Entry link(String key, int i) {
+        Entry entry = index.computeIfAbsent(key, Entry::new);
+        if (entry.first < 0) {
+            entry.first = i;
+            return entry;
+        }
+        if (i < entry.first) {
+            int first = entry.first;
+            entry.first = i;
+            i = first;
+        }
+        if (entry.duplicates == null)
+            entry.duplicates = new ArrayList<>(2);
+        int at = Collections.binarySearch(entry.duplicates, i);
+        if (at < 0)
+            entry.duplicates.add(-at - 1, i);
+        return entry;
+    }
+
+    // 단어에서 라인 번호 i를 뺍니다. (처음 위치였다면 다음 중복 라인이 처음 위치가 되고, 남은 라인이 없으면 인덱스에서 제거)
+    private void unlink(Entry entry, int i) {
+        if (entry.first == i) {
+            if (entry.duplicates == null) {
+                entry.first = -1;
+                index.remove(entry.key);
+                return;
+            }
+            entry.first = entry.duplicates.remove(0);
+        } else if (entry.duplicates != null) {
+            entry.duplicates.remove(Integer.valueOf(i));
+        }
+        if (entry.duplicates != null && entry.duplicates.isEmpty())
+            entry.duplicates = null;
+    }
+
+    // 검색 색인에 넣을 라인 (같은 단어가 여러 라인에 있으면 뜻을 모두 합쳐 어느 라인의 뜻으로도 찾을 수 있게 함)
+    private String searchLine(Entry entry) {
+        String line = lines.get(entry.first);
+        if (entry.duplicates == null)
+            return line;
+        StringBuilder kor = new StringBuilder(meaningsOf(line));
+        for (int dup : entry.duplicates)
+            kor.append('/').append(meaningsOf(lines.get(dup)));
+        return withKorean(line, kor.toString());
+    }
+
+    // 단어의 라인들로 검색 색인을 갱신합니다. (색인이 아직 없으면 아무것도 안 함)
+    private void reindexSearch(Entry entry) {
+        if (searchIndex == null)
+            return;
+        if (entry.first < 0)
+            searchIndex.remove(entry.key);
+        else
+            searchIndex.add(entry.key, searchLine(entry));
+    }
+}
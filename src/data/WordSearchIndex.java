@@ -0,0 +1,238 @@
+package data;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+
+import util.Hangul;
+
+// 단어장 하나에 대한 n-gram 역색인
+// 영단어와 뜻(자모 단위로 분해)을 2글자, 3글자 조각(gram)으로 잘라 "조각 -> 단어 키" 목록을 만들어 둡니다.
+// 검색어의 조각들 중 가장 적게 등장하는 조각의 후보만 확인하므로 단어 수가 많아도 전체를 훑지 않습니다.
+// 뜻은 자모 단위로 색인하므로 "삭", "사고" 처럼 입력 중인 글자로도 "사과"를 찾을 수 있습니다.
+// 단어마다 정수 번호를 붙이고 조각별 목록은 번호를 오름차순으로 담은 int 배열로 두어, 100만 단어도 기본 힙에 들어가게 합니다.
+// 지운 단어의 번호는 목록에 남겨 두었다가(검색할 때 건너뜀) 지운 수가 살아 있는 수보다 많아지면 한 번에 다시 만듭니다.
+
+public class WordSearchIndex {
+    private static final int MIN_GRAM = 2;
+    private static final int MAX_GRAM = 3;
+
+    // 검색 결과 순위 (값이 작을수록 위에 표시)
+    public static final int RANK_ENG_EXACT = 0;
+    public static final int RANK_ENG_PREFIX = 1;
+    public static final int RANK_ENG_CONTAINS = 2;
+    public static final int RANK_KOR_EXACT = 3;
+    public static final int RANK_KOR_PREFIX = 4;
+    public static final int RANK_KOR_CONTAINS = 5;
+
+    private static final int MIN_REBUILD = 1024;
+    // 지운 단어가 이만큼은 쌓여야 다시 만듦 (작은 단어장에서 자주 다시 만들지 않도록)
+
+    private HashMap<String, Postings> engGrams = new HashMap<>();
+    // 영단어 조각 -> 단어 번호 목록
+
+    private HashMap<String, Postings> korGrams = new HashMap<>();
+    // 뜻(자모 분해) 조각 -> 단어 번호 목록
+
+    private ArrayList<Entry> entries = new ArrayList<>();
+    // 단어 번호 -> 정규화된 영단어/뜻 (지운 단어는 null)
+
+    private final HashMap<String, Integer> ids = new HashMap<>();
+    // 단어 키 -> 단어 번호
+
+    private int removed;
+    // 목록에 남아 있는 지운 단어 수
+
+    private static class Entry {
+        String key;
+        String eng;
+        final String kor;
+        // 뜻들을 '/'로 이은 것
+
+        Entry(String eng, String kor) {
+            this.eng = eng;
+            this.kor = kor;
+        }
+    }
+
+    // 단어 번호 목록 (번호는 늘어나는 순서로만 붙으므로 뒤에 덧붙이기만 해도 오름차순)
+    private static final class Postings {
+        int[] ids = new int[2];
+        int size;
+
+        void add(int id) {
+            if (size > 0 && ids[size - 1] == id)
+                return;
+            // 한 단어 안에 같은 조각이 여러 번 나오는 경우
+            if (size == ids.length)
+                ids = Arrays.copyOf(ids, size * 2);
+            ids[size++] = id;
+        }
+    }
+
+    // 검색 결과 한 건 (단어 키와 순위)
+    public static class Hit {
+        public final String key;
+        public final int rank;
+
+        Hit(String key, int rank) {
+            this.key = key;
+            this.rank = rank;
+        }
+    }
+
+    public int size() {
+        return ids.size();
+    }
+
+    // 단어 라인을 색인에 추가합니다. 같은 키가 이미 있으면 교체
+    public void add(String key, String line) {
+        remove(key);
+
+        Entry entry = entryOf(line);
+        entry.key = key;
+        if (entry.eng.equals(key))
+            entry.eng = key;
+        // 영단어는 대부분 키와 같은 문자열이므로 하나만 둠
+        ids.put(key, entries.size());
+        entries.add(entry);
+        post(entry, entries.size() - 1);
+    }
+
+    private void post(Entry entry, int id) {
+        forEachGram(entry.eng, gram -> engGrams.computeIfAbsent(gram, g -> new Postings()).add(id));
+        forEachGram(entry.kor, gram -> korGrams.computeIfAbsent(gram, g -> new Postings()).add(id));
+    }
+
+    // 색인 없이 라인 하나가 검색어와 일치하는지 확인합니다. 일치하면 순위, 아니면 -1
+    // (색인을 만들기엔 너무 큰 단어장을 한 줄씩 훑으며 검색할 때 사용)
+    public static int rankOf(String query, String line) {
+        String q = normalize(query.trim());
+        return q.isEmpty() ? -1 : rank(entryOf(line), q);
+    }
+
+    private static Entry entryOf(String line) {
+        String eng = normalize(WordBook.englishOf(line));
+        String[] raw = WordBook.meaningsOf(line).split("/");
+        // 공용 단어장의 통계 칸(출제 수, 정답 수)은 검색 대상에서 제외
+        for (int i = 0; i < raw.length; i++)
+            raw[i] = normalize(raw[i].trim());
+        return new Entry(eng, String.join("/", raw));
+    }
+
+    public void remove(String key) {
+        Integer id = ids.remove(key);
+        if (id == null)
+            return;
+        entries.set(id, null);
+        removed++;
+        if (removed >= MIN_REBUILD && removed > ids.size())
+            rebuild();
+        // 조각 목록에서 바로 빼지 않고 검색할 때 건너뜀
+    }
+
+    // 지운 단어를 빼고 번호를 다시 붙여 조각 목록을 새로 만듭니다.
+    private void rebuild() {
+        ArrayList<Entry> live = new ArrayList<>(ids.size());
+        for (Entry e : entries)
+            if (e != null)
+                live.add(e);
+        entries = live;
+        engGrams = new HashMap<>();
+        korGrams = new HashMap<>();
+        removed = 0;
+        for (int id = 0; id < live.size(); id++) {
+            Entry e = live.get(id);
+            ids.put(e.key, id);
+            post(e, id);
+        }
+    }
+
+    // 검색어를 포함하는 단어 키와 순위를 반환합니다.
+    public List<Hit> search(String query) {
+        String q = normalize(query.trim());
+        ArrayList<Hit> hits = new ArrayList<>();
+        if (q.isEmpty())
+            return hits;
+
+        Postings eng = candidates(engGrams, q);
+        for (int i = 0, n = eng == null ? entries.size() : eng.size; i < n; i++) {
+            Entry e = entries.get(eng == null ? i : eng.ids[i]);
+            if (e == null || !e.eng.contains(q))
+                continue;
+            hits.add(new Hit(e.key, rank(e, q)));
+        }
+
+        Postings kor = candidates(korGrams, q);
+        for (int i = 0, n = kor == null ? entries.size() : kor.size; i < n; i++) {
+            Entry e = entries.get(kor == null ? i : kor.ids[i]);
+            if (e == null || e.eng.contains(q) || !e.kor.contains(q))
+                continue;
+            // 영단어에서 이미 찾은 단어는 더 높은 순위로 들어가 있음
+            hits.add(new Hit(e.key, rank(e, q)));
+        }
+        return hits;
+    }
+
+    // 정규화된 검색어 q에 대한 단어의 순위 (영단어 일치가 뜻 일치보다 우선), 일치하지 않으면 -1
+    private static int rank(Entry e, String q) {
+        if (e.eng.contains(q)) {
+            if (e.eng.equals(q))
+                return RANK_ENG_EXACT;
+            return e.eng.startsWith(q) ? RANK_ENG_PREFIX : RANK_ENG_CONTAINS;
+        }
+        if (!e.kor.contains(q))
+            return -1;
+        int rank = RANK_KOR_CONTAINS;
+        for (int start = 0; start <= e.kor.length();) {
+            int end = e.kor.indexOf('/', start);
+            if (end < 0)
+                end = e.kor.length();
+            // 뜻 하나 [start, end)
+            if (end - start >= q.length() && e.kor.startsWith(q, start)) {
+                if (end - start == q.length())
+                    return RANK_KOR_EXACT;
+                rank = RANK_KOR_PREFIX;
+            }
+            start = end + 1;
+        }
+        return rank;
+    }
+
+    private static final Postings NONE = new Postings();
+
+    // 검색어의 조각들 중 후보가 가장 적은 조각의 단어 번호 목록을 반환합니다.
+    // 검색어가 한 글자(자모)뿐이면 조각을 만들 수 없으므로 null (전체 단어를 후보로 사용)
+    private static Postings candidates(HashMap<String, Postings> grams, String q) {
+        if (q.length() < MIN_GRAM)
+            return null;
+
+        int n = Math.min(q.length(), MAX_GRAM);
+        Postings smallest = null;
+        for (int i = 0; i + n <= q.length(); i++) {
+            Postings posting = grams.get(q.substring(i, i + n));
+            if (posting == null)
+                return NONE;
+            // 한 조각이라도 없으면 일치하는 단어가 없음
+            if (smallest == null || posting.size < smallest.size)
+                smallest = posting;
+        }
+        return smallest;
+    }
+
+    private interface GramConsumer {
+        void accept(String gram);
+    }
+
+    private static void forEachGram(String s, GramConsumer consumer) {
+        for (int n = MIN_GRAM; n <= MAX_GRAM; n++)
+            for (int i = 0; i + n <= s.length(); i++)
+                consumer.accept(s.substring(i, i + n));
+    }
+
+    // 대소문자를 통일하고 한글은 자모 단위로 분해
+    private static String normalize(String s) {
+        return Hangul.decompose(s);
+    }
+}
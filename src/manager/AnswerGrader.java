@@ -0,0 +1,127 @@
+package manager;
+
+import data.Word;
+import util.EditDistance;
+import util.Hangul;
+
+// 주관식 답안 채점기 - 오타를 허용 범위 안에서 정답으로 인정합니다.
+//   영어 : 철자 단위 편집 거리 (recieve -> receive 같은 인접 글자 바뀜도 1번으로 셈)
+//   한국어 : 자모 단위 편집 거리 ("사가" -> "사과"는 ㅘ/ㅏ 차이 하나이므로 1)
+// 허용 오타 수는 정답 길이에 비례하며, 짧은 단어는 오타를 허용하지 않음 (cat / car 처럼 다른 단어가 되기 쉬움)
+// 분해/비교에 쓰는 버퍼는 채점기 안에서 재사용하므로, 뜻이 많은 단어를 채점해도 문제마다 할당이 거의 없음 (한 스레드에서만 사용)
+
+public class AnswerGrader {
+
+    public enum Verdict {
+        EXACT, NEAR, WRONG
+    }
+
+    public enum Leniency {
+        OFF("허용 안 함", 0),
+        NORMAL("보통", 1),
+        LENIENT("너그럽게", 2);
+
+        public final String label;
+        final int level;
+
+        Leniency(String label, int level) {
+            this.label = label;
+            this.level = level;
+        }
+    }
+
+    private final Leniency leniency;
+    private final EditDistance distance = new EditDistance();
+    private final StringBuilder segment = new StringBuilder();
+    private final StringBuilder answerJamo = new StringBuilder();
+    private final StringBuilder meaningJamo = new StringBuilder();
+
+    public AnswerGrader(Leniency leniency) {
+        this.leniency = leniency;
+    }
+
+    public Leniency getLeniency() {
+        return leniency;
+    }
+
+    // 영단어 답안 채점 (대소문자 무시)
+    public Verdict gradeEnglish(String answer, String english) {
+        if (answer.trim().equalsIgnoreCase(english.trim()))
+            return Verdict.EXACT;
+        segment.setLength(0);
+        appendLower(answer.trim(), segment);
+        meaningJamo.setLength(0);
+        appendLower(english.trim(), meaningJamo);
+        int max = allowedTypos(meaningJamo.length(), 4);
+        if (max > 0 && segment.length() > 0 && distance.bounded(segment, meaningJamo, max) <= max)
+            return Verdict.NEAR;
+        return Verdict.WRONG;
+    }
+
+    // 뜻 답안 채점. "/"로 여러 개를 입력하면 모두 이 단어의 뜻(또는 오타 범위 안)이어야 함
+    public Verdict gradeMeaning(String answer, Word word) {
+        if (word.acceptsMeaning(answer))
+            return Verdict.EXACT;
+        if (leniency == Leniency.OFF)
+            return Verdict.WRONG;
+
+        int length = answer.length();
+        int start = 0;
+        boolean any = false;
+        while (start <= length) {
+            int end = answer.indexOf('/', start);
+            if (end < 0)
+                end = length;
+
+            segment.setLength(0);
+            for (int i = start; i < end; i++)
+                segment.append(answer.charAt(i));
+            trim(segment);
+            if (segment.length() > 0) {
+                if (!nearMeaning(word))
+                    return Verdict.WRONG;
+                any = true;
+            }
+            start = end + 1;
+        }
+        return any ? Verdict.NEAR : Verdict.WRONG;
+    }
+
+    // segment에 든 답이 단어의 뜻 중 하나와 같거나 오타 범위 안인지 확인
+    private boolean nearMeaning(Word word) {
+        answerJamo.setLength(0);
+        Hangul.decompose(segment, answerJamo);
+        for (int i = 0; i < word.meaningCount(); i++) {
+            meaningJamo.setLength(0);
+            Hangul.decompose(word.meaning(i), meaningJamo);
+            int max = allowedTypos(meaningJamo.length(), 4);
+            // 자모 4개(두 글자 정도) 미만이면 오타를 허용하지 않음
+            if (distance.bounded(answerJamo, meaningJamo, max) <= max)
+                return true;
+        }
+        return false;
+    }
+
+    // 정답 길이(글자/자모 수)에 따른 허용 오타 수: minLength 미만 0, 그 뒤로 8자마다 1씩 (단계에 따라 최대 2배)
+    private int allowedTypos(int length, int minLength) {
+        if (leniency == Leniency.OFF || length < minLength)
+            return 0;
+        return (1 + (length - minLength) / 8) * leniency.level;
+    }
+
+    private static void appendLower(String s, StringBuilder out) {
+        for (int i = 0; i < s.length(); i++)
+            out.append(Character.toLowerCase(s.charAt(i)));
+    }
+
+    private static void trim(StringBuilder sb) {
+        int end = sb.length();
+        while (end > 0 && Character.isWhitespace(sb.charAt(end - 1)))
+            end--;
+        sb.setLength(end);
+        int start = 0;
+        while (start < sb.length() && Character.isWhitespace(sb.charAt(start)))
+            start++;
+        sb.delete(0, start);
+    }
+}
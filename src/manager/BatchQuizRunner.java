@@ -0,0 +1,170 @@
+package manager;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import data.BinaryWordBook;
+import data.Word;
+
+// 퀴즈 엔진을 콘솔 입력 없이 여러 번 실행하여 처리량과 문제당 지연 시간을 재는 일괄 실행기
+// 답은 기록된 답 파일(한 줄에 답 하나, 끝까지 쓰면 처음부터 다시)을 재생하거나, 정해진 정답률로 답하는 모의 응답을 사용합니다.
+// 통계/오답노트 파일은 건드리지 않음
+//
+// 사용법: java -cp <classes> manager.BatchQuizRunner <단어장 파일(.txt/.vocb)> [세션 수] [세션당 문제 수] [short|choice] [답 파일]
+
+public class BatchQuizRunner {
+
+    // 실행 결과
+    public static class Report {
+        public final int sessions;
+        public final int questions;
+        public final int correct;
+        public final long elapsedNanos;
+        private final long[] latencies;
+        // 문제별 출제+채점 시간 (정렬됨)
+
+        Report(int sessions, int correct, long elapsedNanos, long[] latencies) {
+            this.sessions = sessions;
+            this.questions = latencies.length;
+            this.correct = correct;
+            this.elapsedNanos = elapsedNanos;
+            this.latencies = latencies;
+            Arrays.sort(this.latencies);
+        }
+
+        // 초당 처리한 문제 수 (답 준비 시간 포함 전체 시간 기준)
+        public double questionsPerSecond() {
+            return elapsedNanos == 0 ? 0 : questions * 1e9 / elapsedNanos;
+        }
+
+        // 문제당 지연 시간의 백분위수 (나노초, p: 0~100)
+        public long percentile(double p) {
+            if (latencies.length == 0)
+                return 0;
+            int rank = (int) Math.ceil(p / 100 * latencies.length) - 1;
+            return latencies[Math.max(0, Math.min(latencies.length - 1, rank))];
+        }
+
+        @Override
+        public String toString() {
+            return String.format("세션 %d개, 문제 %d개, 정답 %d개 (%.1f%%)%n", sessions, questions, correct,
+                    questions == 0 ? 0.0 : 100.0 * correct / questions)
+                    + String.format("전체 %.1f ms, 초당 %.0f문제%n", elapsedNanos / 1e6, questionsPerSecond())
+                    + String.format("문제당 지연(출제+채점) p50 %.1f us, p90 %.1f us, p99 %.1f us, 최대 %.1f us",
+                            percentile(50) / 1e3, percentile(90) / 1e3, percentile(99) / 1e3, percentile(100) / 1e3);
+        }
+    }
+
+    private final List<Word> words;
+    private final QuizEngine.Mode mode;
+    private final int questionsPerSession;
+    private final Random random;
+    private final AnswerGrader grader;
+    private final DistractorEngine.Strategy strategy;
+
+    public BatchQuizRunner(List<Word> words, QuizEngine.Mode mode, int questionsPerSession, long seed,
+            AnswerGrader.Leniency leniency, DistractorEngine.Strategy strategy) {
+        this.words = words;
+        this.mode = mode;
+        this.questionsPerSession = questionsPerSession;
+        this.random = new Random(seed);
+        this.grader = new AnswerGrader(leniency);
+        this.strategy = strategy;
+    }
+
+    // sessions번 퀴즈를 실행합니다. 엔진(보기 이웃 표 포함)은 한 번만 만들어 콘솔에서 같은 단어장을 반복할 때와 같게 재사용
+    public Report run(int sessions, QuizEngine.AnswerSource source) {
+        QuizEngine engine = new QuizEngine(words, random, grader, strategy);
+        int perSession = Math.min(questionsPerSession, words.size());
+        long[] latencies = new long[sessions * perSession];
+        int[] count = new int[1];
+
+        QuizEngine.ResultSink sink = new QuizEngine.ResultSink() {
+            @Override
+            public void question(QuizEngine.Question question) {
+            }
+
+            @Override
+            public void result(QuizEngine.Result result) {
+                latencies[count[0]++] = result.nanos;
+            }
+        };
+
+        int correct = 0;
+        long start = System.nanoTime();
+        for (int s = 0; s < sessions; s++)
+            correct += engine.run(mode, perSession, null, source, sink);
+        long elapsed = System.nanoTime() - start;
+        return new Report(sessions, correct, elapsed, Arrays.copyOf(latencies, count[0]));
+    }
+
+    // 기록된 답을 순서대로 재생 (끝까지 쓰면 처음부터 다시)
+    public static QuizEngine.AnswerSource replay(List<String> answers) {
+        if (answers.isEmpty())
+            throw new IllegalArgumentException("답 파일이 비어 있습니다.");
+        int[] next = new int[1];
+        return q -> {
+            String answer = answers.get(next[0]);
+            next[0] = (next[0] + 1) % answers.size();
+            return answer;
+        };
+    }
+
+    // accuracy 확률로 정답을 말하고, 나머지는 다른 단어의 답을 말하는 모의 응답
+    public static QuizEngine.AnswerSource simulated(List<Word> words, Random random, double accuracy) {
+        return q -> {
+            boolean right = random.nextDouble() < accuracy;
+            switch (q.direction) {
+                case CHOICE -> {
+                    return String.valueOf(right ? q.answerChoice() : 1 + random.nextInt(q.choices.size()));
+                }
+                case KOR_TO_ENG -> {
+                    return right ? q.word.getEnglish() : words.get(random.nextInt(words.size())).getEnglish();
+                }
+                default -> {
+                    return right ? q.word.firstMeaning() : words.get(random.nextInt(words.size())).firstMeaning();
+                }
+            }
+        };
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 1) {
+            System.out.println("사용법: BatchQuizRunner <단어장 파일> [세션 수] [세션당 문제 수] [short|choice] [답 파일]");
+            return;
+        }
+        File file = new File(args[0]);
+        int sessions = args.length > 1 ? Integer.parseInt(args[1]) : 1000;
+        int perSession = args.length > 2 ? Integer.parseInt(args[2]) : 20;
+        QuizEngine.Mode mode = args.length > 3 && args[3].equalsIgnoreCase("choice") ? QuizEngine.Mode.MULTIPLE_CHOICE
+                : QuizEngine.Mode.SHORT_ANSWER;
+
+        List<Word> words;
+        if (file.getName().endsWith(BinaryWordBook.EXTENSION))
+            words = BinaryWordBook.open(file).asWords();
+        else
+            try (WordBookReader reader = WordBookReader.open(file, WordBookReader.PERSONAL)) {
+                words = reader.stream().toList();
+                // 줄 목록을 거치지 않고 바로 단어로 읽음
+            }
+        if (words.isEmpty()) {
+            System.out.println("단어가 등록되어 있지 않습니다.");
+            return;
+        }
+
+        BatchQuizRunner runner = new BatchQuizRunner(words, mode, perSession, 42, AnswerGrader.Leniency.NORMAL,
+                DistractorEngine.Strategy.RANDOM);
+        QuizEngine.AnswerSource source = args.length > 4
+                ? replay(Files.readAllLines(new File(args[4]).toPath(), StandardCharsets.UTF_8))
+                : simulated(words, new Random(7), 0.7);
+
+        runner.run(Math.min(sessions, 100), source);
+        // JIT 예열 (결과는 버림)
+        System.out.println(runner.run(sessions, source));
+    }
+}
@@ -0,0 +1,51 @@
+package manager;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+
+import data.BinaryWordBook;
+import util.DurableFiles;
+
+// 텍스트 단어장(.txt)과 바이너리 단어장(.vocb)을 서로 변환하는 클래스
+// 텍스트는 저널까지 반영하여 읽고, 결과 파일은 임시 파일에 다 쓴 뒤 교체하므로 변환 도중 실패해도 기존 파일이 깨지지 않습니다.
+
+public class BinaryBookConverter {
+
+    // 텍스트 단어장을 바이너리로 변환합니다. 변환한 단어 수를 반환
+    public static int importText(File txt, File bin) throws IOException {
+        ArrayList<String> lines = new ArrayList<>();
+        for (String line : VocaJournal.readLines(txt))
+            if (!line.trim().isEmpty())
+                lines.add(line);
+        // 빈 줄은 단어가 아니므로 제외
+
+        DurableFiles.replace(bin, out -> BinaryWordBook.write(lines, out));
+        return lines.size();
+    }
+
+    // 바이너리 단어장을 텍스트로 되돌립니다. 변환한 단어 수를 반환
+    public static int exportText(File bin, File txt) throws IOException {
+        BinaryWordBook book = BinaryWordBook.open(bin);
+        ArrayList<String> lines = new ArrayList<>(book.size());
+        for (int i = 0; i < book.size(); i++)
+            lines.add(book.line(i));
+        VocaJournal.writeSnapshot(txt, lines);
+        return lines.size();
+    }
+
+    // a.txt <-> a.vocb 처럼 확장자만 바꾼 짝 파일
+    public static File binaryFileOf(File txt) {
+        return new File(txt.getParentFile(), baseName(txt) + BinaryWordBook.EXTENSION);
+    }
+
+    public static File textFileOf(File bin) {
+        return new File(bin.getParentFile(), baseName(bin) + ".txt");
+    }
+
+    private static String baseName(File file) {
+        String name = file.getName();
+        int dot = name.lastIndexOf('.');
+        return dot > 0 ? name.substring(0, dot) : name;
+    }
+}
@@ -0,0 +1,390 @@
+package manager;
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+import data.WordBook;
+import util.Metrics;
+import util.Path;
+
+// CSV/TSV 사전 파일을 단어장에 한 번에 가져오는 클래스
+// addVoca를 단어마다 부르면 매번 읽기/병합/다시 쓰기를 하므로, 수백만 줄짜리 파일을 다음 순서로 처리합니다.
+//   1. 원본 파일을 WordBookReader로 흘려 읽으며 BATCH_SIZE줄씩 묶어 여러 스레드에서 검사/정리 (순서는 유지)
+//   2. 대상 단어장(WordBook의 해시 인덱스)과 해시 조인 - 이미 있는 단어는 addVoca와 같은 "/" 규칙으로 뜻만 추가,
+//      같은 파일 안의 중복도 같은 방식으로 한 번에 합침
+//   3. 결과를 스냅샷으로 한 번만 씀 (임시 파일 -> 이름 바꾸기)
+// 형식: .csv는 쉼표 구분(큰따옴표 지원), 그 외는 탭 구분. 앞의 두 칸(영단어, 뜻)만 사용하고 나머지 칸은 무시
+// 검사 규칙은 addVoca와 같음 (영단어: 영어/하이픈만, 띄어쓰기 불가 / 뜻: 비어 있으면 안 됨, 탭 불가)
+// 거부된 줄은 원본 옆 파일(원본.rejected)에 "줄 번호\t이유\t원래 줄"로 모두 기록
+//
+// 사용법: java -cp <classes> manager.BulkImporter <대상 단어장 .txt> <가져올 .csv/.tsv>
+
+public class BulkImporter {
+    private static final int BATCH_SIZE = 4096;
+    private static final Pattern ENGLISH = Pattern.compile("^[a-zA-Z][a-zA-Z-]*$");
+    private static final String[] HEADER_MEANINGS = { "korean", "kor", "meaning", "meanings", "뜻" };
+    // 첫 줄의 뜻 칸이 이 중 하나면 머리글로 보고 건너뜀
+
+    private static final Metrics.Counter ROWS = Metrics.counter("voca_import_rows_total", "대량 가져오기에서 읽은 줄 수");
+    private static final Metrics.Counter REJECTED = Metrics.counter("voca_import_rejected_total", "대량 가져오기에서 거부된 줄 수");
+
+    // 가져오기 결과
+    public static class Report {
+        public final long rows;
+        public final long added;
+        // 새로 추가된 단어 수
+        public final long merged;
+        // 기존 단어에 뜻이 추가된 줄 수
+        public final long duplicates;
+        // 이미 있는 단어/뜻이라 바뀐 것이 없는 줄 수
+        public final long rejected;
+        public final File rejectFile;
+        // 거부된 줄이 없으면 null
+        public final long elapsedNanos;
+        public final long writeNanos;
+
+        Report(long rows, long added, long merged, long duplicates, long rejected, File rejectFile, long elapsedNanos,
+                long writeNanos) {
+            this.rows = rows;
+            this.added = added;
+            this.merged = merged;
+            this.duplicates = duplicates;
+            this.rejected = rejected;
+            this.rejectFile = rejectFile;
+            this.elapsedNanos = elapsedNanos;
+            this.writeNanos = writeNanos;
+        }
+
+        public double rowsPerSecond() {
+            return elapsedNanos == 0 ? 0 : rows * 1e9 / elapsedNanos;
+        }
+
+        @Override
+        public String toString() {
+            String s = String.format("%d줄 처리: 새 단어 %d개, 뜻 추가 %d줄, 중복 %d줄, 거부 %d줄%n", rows, added, merged,
+                    duplicates, rejected)
+                    + String.format("전체 %.1f ms (저장 %.1f ms), 초당 %.0f줄", elapsedNanos / 1e6, writeNanos / 1e6,
+                            rowsPerSecond());
+            if (rejectFile != null)
+                s += System.lineSeparator() + "거부된 줄은 " + rejectFile.getPath() + " 에 기록했습니다.";
+            return s;
+        }
+    }
+
+    // 검사를 통과한 한 줄 (영단어와 정리된 뜻들)
+    private static class Row {
+        final String english;
+        final String key;
+        // 소문자 영단어 (검사 단계에서 미리 만들어 조인할 때 다시 만들지 않음)
+        final List<String> meanings;
+
+        Row(String english, List<String> meanings) {
+            this.english = english;
+            this.key = english.toLowerCase();
+            this.meanings = meanings;
+        }
+    }
+
+    // 한 묶음의 검사 결과 (rows와 rejects는 원래 줄 순서)
+    private static class Batch {
+        final ArrayList<Row> rows = new ArrayList<>();
+        final ArrayList<String> rejects = new ArrayList<>();
+        int count;
+        // 주석/빈 줄을 뺀 데이터 줄 수
+    }
+
+    private final File target;
+
+    public BulkImporter(File target) {
+        this.target = target;
+    }
+
+    // source의 단어들을 대상 단어장에 합칩니다.
+    public Report importFrom(File source) throws IOException {
+        long start = System.nanoTime();
+        boolean csv = source.getName().toLowerCase().endsWith(".csv");
+        File rejectFile = new File(source.getPath() + ".rejected");
+        Files.deleteIfExists(rejectFile.toPath());
+
+        long[] counts = new long[5];
+        // 줄, 추가, 병합, 중복, 거부
+        long[] writeNanos = new long[1];
+
+        PublicStatsStore.LineEditor join = lines -> {
+            WordBook book = new WordBook(lines);
+            // 기존 단어장을 해시 조인의 한쪽으로 사용 (소문자 영단어 -> 라인 번호)
+            try (BufferedWriter rejects = Files.newBufferedWriter(rejectFile.toPath(), StandardCharsets.UTF_8)) {
+                validateInParallel(source, csv, batch -> {
+                    counts[0] += batch.count;
+                    counts[4] += batch.rejects.size();
+                    for (String reject : batch.rejects) {
+                        rejects.write(reject);
+                        rejects.newLine();
+                    }
+                    for (Row row : batch.rows)
+                        counts[merge(book, row)]++;
+                });
+            }
+            writeNanos[0] = System.nanoTime();
+            return book.lines();
+        };
+
+        if (isPublicStatsFile(target)) {
+            PublicStatsStore.get().replaceLines(join);
+            // 공용 단어장은 통계 합치기와 겹치지 않도록 통계 잠금을 잡고 교체
+        } else {
+            VocaJournal.writeSnapshot(target, join.edit(VocaJournal.readLines(target)));
+            // 편집 중 남은 저널까지 반영한 내용에 합친 뒤 한 번에 저장 (저널은 함께 비워짐)
+        }
+
+        long end = System.nanoTime();
+        if (counts[4] == 0)
+            Files.deleteIfExists(rejectFile.toPath());
+        ROWS.add(counts[0]);
+        REJECTED.add(counts[4]);
+        return new Report(counts[0], counts[1], counts[2], counts[3], counts[4], counts[4] == 0 ? null : rejectFile,
+                end - start, end - writeNanos[0]);
+    }
+
+    private interface BatchConsumer {
+        void accept(Batch batch) throws IOException;
+    }
+
+    // 원본을 BATCH_SIZE줄씩 읽어 여러 스레드에서 검사하고, 결과는 읽은 순서대로 consumer에 넘깁니다.
+    // 검사가 끝나지 않은 묶음은 스레드 수의 4배까지만 쌓아 두므로 원본 크기와 관계없이 메모리가 일정함
+    private static void validateInParallel(File source, boolean csv, BatchConsumer consumer) throws IOException {
+        int threads = Runtime.getRuntime().availableProcessors();
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        ArrayDeque<Future<Batch>> inFlight = new ArrayDeque<>();
+        try (Stream<String> lines = WordBookReader.lines(source)) {
+            Iterator<String> it = lines.iterator();
+            long lineNo = 0;
+            while (it.hasNext()) {
+                ArrayList<String> chunk = new ArrayList<>(BATCH_SIZE);
+                while (chunk.size() < BATCH_SIZE && it.hasNext())
+                    chunk.add(it.next());
+                long first = lineNo + 1;
+                lineNo += chunk.size();
+                inFlight.add(pool.submit(() -> validate(chunk, first, csv)));
+                if (inFlight.size() >= threads * 4)
+                    consumer.accept(take(inFlight));
+            }
+            while (!inFlight.isEmpty())
+                consumer.accept(take(inFlight));
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    private static Batch take(ArrayDeque<Future<Batch>> inFlight) throws IOException {
+        try {
+            return inFlight.poll().get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("가져오기가 중단되었습니다.", e);
+        } catch (ExecutionException e) {
+            throw new IOException("줄 검사 중 오류: " + e.getCause(), e.getCause());
+        }
+    }
+
+    // 줄 묶음 하나를 검사/정리합니다. (여러 스레드에서 동시에 실행되므로 공유 상태를 건드리지 않음)
+    private static Batch validate(List<String> chunk, long firstLineNo, boolean csv) {
+        Batch batch = new Batch();
+        for (int i = 0; i < chunk.size(); i++) {
+            long lineNo = firstLineNo + i;
+            String line = chunk.get(i);
+            if (lineNo == 1 && line.startsWith("\uFEFF"))
+                line = line.substring(1);
+            // 엑셀 등에서 저장한 UTF-8 BOM 제거
+            String t = line.trim();
+            if (t.isEmpty() || t.startsWith("#"))
+                continue;
+
+            List<String> fields = csv ? splitCsv(line) : List.of(line.split("\t", -1));
+            if (lineNo == 1 && fields != null && fields.size() >= 2 && isHeader(fields.get(1)))
+                continue;
+            batch.count++;
+
+            String reason = null;
+            Row row = null;
+            if (fields == null)
+                reason = "닫히지 않은 따옴표";
+            else if (fields.size() < 2)
+                reason = "영단어와 뜻 두 칸이 필요합니다";
+            else {
+                String eng = stripToggle(fields.get(0).trim());
+                if (eng.isEmpty())
+                    reason = "영단어가 비어 있습니다";
+                else if (eng.contains(" ") || eng.contains("\t"))
+                    reason = "영단어에 탭이나 띄어쓰기를 사용할 수 없습니다";
+                else if (!ENGLISH.matcher(eng).matches())
+                    reason = "영단어에는 영어/하이픈만 사용할 수 있습니다";
+                else if (fields.get(1).contains("\t"))
+                    reason = "뜻에 탭 문자를 사용할 수 없습니다";
+                else {
+                    List<String> meanings = meaningsOf(fields.get(1));
+                    if (meanings.isEmpty())
+                        reason = "뜻이 비어 있습니다";
+                    else
+                        row = new Row(eng, meanings);
+                }
+            }
+            if (row != null)
+                batch.rows.add(row);
+            else
+                batch.rejects.add(lineNo + "\t" + reason + "\t" + line);
+        }
+        return batch;
+    }
+
+    // 한 줄을 단어장에 합칩니다. 반환값은 결과 종류 (1: 추가, 2: 뜻 추가, 3: 변경 없음)
+    // addVoca와 같이 기존 뜻들("/"로 구분)에 없는 뜻만 뒤에 붙이고, 영단어 칸(즐겨찾기 토글)과 공용 단어장의 통계 칸은 유지
+    private static int merge(WordBook book, Row row) {
+        int existing = book.indexOf(row.key);
+        if (existing < 0) {
+            book.add(row.english + "\t" + String.join("/", row.meanings));
+            return 1;
+        }
+
+        String line = book.get(existing);
+        int tab = line.indexOf('\t');
+        int korStart = tab < 0 ? line.length() : tab + 1;
+        int statsTab = line.indexOf('\t', korStart);
+        int korEnd = statsTab < 0 ? line.length() : statsTab;
+
+        StringBuilder merged = null;
+        boolean empty = tab < 0 || line.substring(korStart, korEnd).isBlank();
+        for (String m : row.meanings) {
+            if (!empty && hasMeaning(line, korStart, korEnd, m))
+                continue;
+            if (merged == null) {
+                merged = new StringBuilder(line.length() + 16).append(line, 0, korEnd);
+                if (tab < 0)
+                    merged.append('\t');
+            }
+            if (!empty)
+                merged.append('/');
+            merged.append(m);
+            empty = false;
+        }
+        if (merged == null)
+            return 3;
+        // 대부분의 중복 줄은 뜻 목록을 만들지 않고 여기서 끝남
+
+        book.set(existing, merged.append(line, korEnd, line.length()).toString());
+        return 2;
+    }
+
+    // line의 [from, to) 구간("뜻1/뜻2/...")에 meaning과 같은 뜻이 있는지 확인합니다. (앞뒤 공백 무시)
+    private static boolean hasMeaning(String line, int from, int to, String meaning) {
+        int start = from;
+        while (start <= to) {
+            int end = line.indexOf('/', start);
+            if (end < 0 || end > to)
+                end = to;
+            int s = start, e = end;
+            while (s < e && Character.isWhitespace(line.charAt(s)))
+                s++;
+            while (e > s && Character.isWhitespace(line.charAt(e - 1)))
+                e--;
+            if (e - s == meaning.length() && line.regionMatches(s, meaning, 0, e - s))
+                return true;
+            start = end + 1;
+        }
+        return false;
+    }
+
+    // "뜻1/뜻2/..."를 앞뒤 공백을 뺀 뜻 목록으로 (빈 뜻과 같은 뜻의 반복은 제거)
+    private static List<String> meaningsOf(String kor) {
+        LinkedHashSet<String> out = new LinkedHashSet<>();
+        for (String m : kor.split("/")) {
+            String t = m.trim();
+            if (!t.isEmpty())
+                out.add(t);
+        }
+        return new ArrayList<>(out);
+    }
+
+    // 다른 단어장 파일을 가져올 때 붙어 있는 즐겨찾기 토글(*apple, apple*)은 뺌
+    private static String stripToggle(String eng) {
+        if (eng.startsWith("*"))
+            eng = eng.substring(1).trim();
+        if (eng.endsWith("*"))
+            eng = eng.substring(0, eng.length() - 1).trim();
+        return eng;
+    }
+
+    private static boolean isHeader(String meaningField) {
+        String m = meaningField.trim().toLowerCase();
+        for (String h : HEADER_MEANINGS)
+            if (m.equals(h))
+                return true;
+        return false;
+    }
+
+    // CSV 한 줄을 칸으로 나눕니다. 큰따옴표로 감싼 칸 안의 쉼표와 "" (따옴표 하나)를 지원. 따옴표가 닫히지 않으면 null
+    static List<String> splitCsv(String line) {
+        ArrayList<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c == '"') {
+                    if (i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                        field.append('"');
+                        i++;
+                    } else
+                        quoted = false;
+                } else
+                    field.append(c);
+            } else if (c == '"')
+                quoted = true;
+            else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else
+                field.append(c);
+        }
+        if (quoted)
+            return null;
+        fields.add(field.toString());
+        return fields;
+    }
+
+    private static boolean isPublicStatsFile(File file) {
+        return file.getAbsoluteFile().toPath().normalize()
+                .equals(new File(Path.getPublicFilePath()).getAbsoluteFile().toPath().normalize());
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 2) {
+            System.out.println("사용법: BulkImporter <대상 단어장 .txt> <가져올 .csv/.tsv>");
+            return;
+        }
+        File target = new File(args[0]);
+        File source = new File(args[1]);
+        if (!source.exists()) {
+            System.out.println("'" + source.getPath() + "' 파일이 없습니다.");
+            return;
+        }
+        System.out.println(new BulkImporter(target).importFrom(source));
+    }
+}
@@ -0,0 +1,218 @@
+package manager;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NavigableSet;
+import java.util.PriorityQueue;
+import java.util.TreeSet;
+
+import data.PublicWord;
+
+// 공용 단어를 정답률(난이도) 순으로 정렬해 두는 색인
+// 퀴즈를 시작할 때마다 publics.txt 전체를 읽고 걸러내지 않도록, 정답률 순 TreeSet을 유지하고
+// 문제를 풀 때마다 해당 단어 하나만 빼고 다시 넣습니다. (O(log n))
+// "가장 어려운 N개", "정답률 a~b% 사이" 같은 질의는 O(log n + k)로 처리합니다.
+// 출제된 적 없는 단어는 난이도를 알 수 없으므로 정렬 대상에서 제외
+//
+// 점수 방식
+//   RAW    : 정답률 그대로 (정답 / 출제 * 100)
+//   WILSON : 윌슨 점수 구간의 상한 - 출제 수가 적은 단어는 정답률을 높게(쉽게) 잡아, 1번 틀린 단어보다 20번 중 19번 틀린 단어를 더 어렵게 봄
+//   BAYES  : 전체 평균 정답률을 PRIOR_WEIGHT번 푼 것으로 더한 평활화 정답률
+public class DifficultyIndex {
+
+    public enum Scoring {
+        RAW("정답률"),
+        WILSON("윌슨 상한"),
+        BAYES("베이즈 평활화");
+
+        public final String label;
+
+        Scoring(String label) {
+            this.label = label;
+        }
+    }
+
+    private static final double Z = 1.96;
+    // 95% 신뢰 수준
+    private static final double PRIOR_WEIGHT = 5;
+
+    private static final String LOWEST_KEY = "";
+    private static final String HIGHEST_KEY = String.valueOf(Character.MAX_VALUE);
+    // 점수 구간 질의에 쓰는 경계용 키 (영단어 키는 항상 이 사이)
+
+    private static final class Entry {
+        final String key;
+        final String english;
+        final String korean;
+        long questions;
+        long correct;
+        double score;
+
+        Entry(String key, String english, String korean, long questions, long correct) {
+            this.key = key;
+            this.english = english;
+            this.korean = korean;
+            this.questions = questions;
+            this.correct = correct;
+        }
+    }
+
+    private static final Comparator<Entry> ORDER = (a, b) -> {
+        int c = Double.compare(a.score, b.score);
+        return c != 0 ? c : a.key.compareTo(b.key);
+    };
+    // 점수가 낮은(어려운) 단어부터, 점수가 같으면 영단어 순
+
+    private final Scoring scoring;
+    private final double priorRate;
+    // BAYES 방식의 사전 정답률 (색인을 만들 때의 전체 평균, 다시 만들 때까지 고정)
+
+    private final HashMap<String, Entry> byKey = new HashMap<>();
+    private final TreeSet<Entry> ranking = new TreeSet<>(ORDER);
+    // 출제된 적 있는 단어만 포함
+
+    private DifficultyIndex(Scoring scoring, double priorRate) {
+        this.scoring = scoring;
+        this.priorRate = priorRate;
+    }
+
+    // 공용 단어들(통계 포함)로 색인을 만듭니다. 단어를 하나씩 받으므로 WordBookReader로 흘려 읽으며 만들 수 있음
+    public static DifficultyIndex build(Iterator<? extends PublicWord> words, Scoring scoring) {
+        ArrayList<Entry> entries = new ArrayList<>();
+        long totalQuestions = 0, totalCorrect = 0;
+        while (words.hasNext()) {
+            PublicWord w = words.next();
+            entries.add(new Entry(w.getEnglish().toLowerCase(), w.getEnglish(), w.getKorean(), w.questions, w.correct));
+            totalQuestions += w.questions;
+            totalCorrect += w.correct;
+        }
+
+        DifficultyIndex index = new DifficultyIndex(scoring,
+                totalQuestions == 0 ? 0.5 : (double) totalCorrect / totalQuestions);
+        for (Entry e : entries) {
+            index.byKey.put(e.key, e);
+            if (e.questions > 0) {
+                e.score = index.score(e.questions, e.correct);
+                index.ranking.add(e);
+            }
+        }
+        return index;
+    }
+
+    // 색인을 만들지 않고 한 번 훑으면서 가장 어려운 n개만 골라냅니다. (아주 큰 공용 단어장용 - 메모리는 n개만 사용)
+    // BAYES 방식은 전체 평균을 먼저 알아야 하므로 0.5를 사전 정답률로 사용
+    public static List<PublicWord> hardest(Iterator<? extends PublicWord> words, Scoring scoring, int n) {
+        if (n <= 0)
+            return new ArrayList<>();
+        DifficultyIndex scorer = new DifficultyIndex(scoring, 0.5);
+        PriorityQueue<Entry> heap = new PriorityQueue<>(n, ORDER.reversed());
+        // 지금까지 고른 것 중 가장 쉬운 단어가 맨 위
+        while (words.hasNext()) {
+            PublicWord w = words.next();
+            if (w.questions <= 0)
+                continue;
+            Entry e = new Entry(w.getEnglish().toLowerCase(), w.getEnglish(), w.getKorean(), w.questions, w.correct);
+            e.score = scorer.score(e.questions, e.correct);
+            if (heap.size() < n)
+                heap.add(e);
+            else if (ORDER.compare(e, heap.peek()) < 0) {
+                heap.poll();
+                heap.add(e);
+            }
+        }
+        ArrayList<Entry> sorted = new ArrayList<>(heap);
+        sorted.sort(ORDER);
+        ArrayList<PublicWord> out = new ArrayList<>(sorted.size());
+        for (Entry e : sorted)
+            out.add(toWord(e));
+        return out;
+    }
+
+    public Scoring getScoring() {
+        return scoring;
+    }
+
+    // 풀이 결과 하나를 반영합니다. 공용 단어장에 없는 단어면 무시
+    public synchronized void record(String key, boolean correct) {
+        Entry e = byKey.get(key);
+        if (e == null)
+            return;
+        if (e.questions > 0)
+            ranking.remove(e);
+        // 점수가 바뀌면 TreeSet 안의 위치도 바뀌므로 빼고 다시 넣음
+        e.questions++;
+        if (correct)
+            e.correct++;
+        e.score = score(e.questions, e.correct);
+        ranking.add(e);
+    }
+
+    // 정렬 대상(출제된 적 있는) 단어 수
+    public synchronized int size() {
+        return ranking.size();
+    }
+
+    // 가장 어려운 단어 n개 (어려운 순)
+    public synchronized List<PublicWord> hardest(int n) {
+        ArrayList<PublicWord> out = new ArrayList<>(Math.min(Math.max(n, 0), ranking.size()));
+        for (Entry e : ranking) {
+            if (out.size() >= n)
+                break;
+            out.add(toWord(e));
+        }
+        return out;
+    }
+
+    // 점수가 percent 미만인 단어들 (어려운 순)
+    public synchronized List<PublicWord> below(double percent) {
+        return toWords(ranking.headSet(probe(percent, LOWEST_KEY), false));
+    }
+
+    // 점수가 minPercent 이상 maxPercent 이하인 단어들 (어려운 순)
+    public synchronized List<PublicWord> between(double minPercent, double maxPercent) {
+        if (minPercent > maxPercent)
+            return new ArrayList<>();
+        return toWords(ranking.subSet(probe(minPercent, LOWEST_KEY), true, probe(maxPercent, HIGHEST_KEY), true));
+    }
+
+    // 점수 (0~100, 낮을수록 어려움)
+    private double score(long questions, long correct) {
+        double n = questions;
+        double rate = correct / n;
+        switch (scoring) {
+            case WILSON -> {
+                double z2 = Z * Z;
+                double center = rate + z2 / (2 * n);
+                double margin = Z * Math.sqrt(rate * (1 - rate) / n + z2 / (4 * n * n));
+                return Math.min(1, (center + margin) / (1 + z2 / n)) * 100;
+            }
+            case BAYES -> {
+                return (correct + PRIOR_WEIGHT * priorRate) / (n + PRIOR_WEIGHT) * 100;
+            }
+            default -> {
+                return rate * 100;
+            }
+        }
+    }
+
+    private static Entry probe(double score, String key) {
+        Entry e = new Entry(key, null, null, 0, 0);
+        e.score = score;
+        return e;
+    }
+
+    private static List<PublicWord> toWords(NavigableSet<Entry> entries) {
+        ArrayList<PublicWord> out = new ArrayList<>(entries.size());
+        for (Entry e : entries)
+            out.add(toWord(e));
+        return out;
+    }
+
+    // 퀴즈에서 카운터를 올려도 색인에 영향이 없도록 새 객체로 반환
+    private static PublicWord toWord(Entry e) {
+        return new PublicWord(e.english, e.korean, (int) e.questions, (int) e.correct);
+    }
+}
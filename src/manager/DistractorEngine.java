@@ -0,0 +1,221 @@
+package manager;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.function.IntFunction;
+
+import data.Word;
+
+// 객관식 문제의 오답 보기를 고르는 클래스
+// 문제마다 단어 목록을 복사하고 섞지 않고, 목록에서 번호만 무작위로 뽑아(중복/정답과 같은 뜻은 다시 뽑음) 호출자가 준 배열에 채웁니다.
+// 보기 유형에 따라 미리 만들어 둔 이웃 표에서 먼저 고르고, 부족하면 다음 유형 -> 무작위 순으로 채웁니다.
+//   SPELLING : 앞 두 글자 또는 뒤 세 글자가 같은 영단어 (예: reception / receive, nation / station)
+//   LENGTH   : 영단어 길이가 비슷한 단어 (길이순으로 정렬한 표에서 가까운 위치)
+//   MEANING  : 첫 번째 뜻의 끝 글자가 같은 단어 (예: ~하다, ~적인 처럼 품사/분류가 비슷한 뜻)
+// 이웃 표는 해당 유형을 처음 사용할 때 한 번만 만듭니다.
+
+public class DistractorEngine {
+
+    public enum Strategy {
+        RANDOM("무작위"),
+        SPELLING("철자가 비슷한 단어"),
+        LENGTH("길이가 비슷한 단어"),
+        MEANING("뜻의 형태가 비슷한 단어");
+
+        public final String label;
+
+        Strategy(String label) {
+            this.label = label;
+        }
+    }
+
+    private static final int LENGTH_WINDOW = 16;
+    // 길이순 표에서 정답 위치 앞뒤로 살펴볼 범위
+
+    private final List<Word> words;
+    private final Random random;
+
+    private HashMap<String, int[]> prefixTable, suffixTable, meaningTable;
+    // 앞 두 글자 / 뒤 세 글자 / 뜻의 끝 글자 -> 단어 번호 목록
+    private int[] byLength, lengthRank;
+    // 길이순으로 정렬한 단어 번호, 단어 번호 -> 정렬된 위치
+
+    private String[] chosenMeanings = new String[4];
+    // 이번 문제에서 이미 고른 보기의 뜻 (같은 뜻 보기가 두 개 나오지 않도록, 문제마다 재사용)
+
+    public DistractorEngine(List<Word> words, Random random) {
+        this.words = words;
+        this.random = random;
+    }
+
+    // 정답(answer번 단어)을 제외한 오답 보기 번호를 out에 채웁니다. 채운 개수를 반환
+    // 보기로 보이는 뜻(첫 번째 뜻)이 정답이나 다른 보기와 같은 단어는 고르지 않음
+    public int pick(int answer, Strategy strategy, int[] out) {
+        if (chosenMeanings.length < out.length + 1)
+            chosenMeanings = new String[out.length + 1];
+        chosenMeanings[0] = shownMeaning(answer);
+        int count = 0;
+
+        switch (strategy) {
+            case SPELLING -> {
+                String eng = englishKey(answer);
+                count = fillFromBucket(prefixTable().get(prefixOf(eng)), answer, out, count);
+                count = fillFromBucket(suffixTable().get(suffixOf(eng)), answer, out, count);
+                count = fillByLength(answer, out, count);
+            }
+            case LENGTH -> count = fillByLength(answer, out, count);
+            case MEANING -> count = fillFromBucket(meaningTable().get(meaningKeyOf(chosenMeanings[0])), answer, out,
+                    count);
+            default -> {
+            }
+        }
+        return fillRandom(answer, out, count);
+    }
+
+    // 목록 전체에서 무작위로 채웁니다. (복사/셔플 없이 번호만 뽑고, 맞지 않으면 다시 뽑음)
+    private int fillRandom(int answer, int[] out, int count) {
+        int n = words.size();
+        int attempts = 32 * out.length;
+        while (count < out.length && attempts-- > 0)
+            count = tryAdd(random.nextInt(n), answer, out, count);
+
+        if (count < out.length) {
+            int start = random.nextInt(n);
+            for (int step = 0; step < n && count < out.length; step++)
+                count = tryAdd((start + step) % n, answer, out, count);
+            // 같은 뜻의 단어가 많아 무작위로 잘 뽑히지 않는 경우에만 한 바퀴 확인
+        }
+        return count;
+    }
+
+    private int fillFromBucket(int[] bucket, int answer, int[] out, int count) {
+        if (bucket == null)
+            return count;
+        int attempts = Math.min(bucket.length, 8 * out.length);
+        while (count < out.length && attempts-- > 0)
+            count = tryAdd(bucket[random.nextInt(bucket.length)], answer, out, count);
+        return count;
+    }
+
+    private int fillByLength(int answer, int[] out, int count) {
+        lengthTable();
+        int rank = lengthRank[answer];
+        int attempts = 8 * out.length;
+        while (count < out.length && attempts-- > 0) {
+            int offset = random.nextInt(2 * LENGTH_WINDOW + 1) - LENGTH_WINDOW;
+            int pos = rank + offset;
+            if (offset != 0 && pos >= 0 && pos < byLength.length)
+                count = tryAdd(byLength[pos], answer, out, count);
+        }
+        return count;
+    }
+
+    // 후보가 조건에 맞으면 out에 추가합니다.
+    private int tryAdd(int candidate, int answer, int[] out, int count) {
+        if (candidate == answer)
+            return count;
+        for (int i = 0; i < count; i++)
+            if (out[i] == candidate)
+                return count;
+
+        String meaning = shownMeaning(candidate);
+        for (int i = 0; i <= count; i++)
+            if (meaning.equals(chosenMeanings[i]))
+                return count;
+        // 정답이나 이미 고른 보기와 같은 뜻이면 구분할 수 없으므로 제외
+
+        out[count] = candidate;
+        chosenMeanings[count + 1] = meaning;
+        return count + 1;
+    }
+
+    // 보기에 표시되는 뜻 (여러 뜻 중 첫 번째)
+    private String shownMeaning(int i) {
+        return words.get(i).firstMeaning();
+    }
+
+    private String englishKey(int i) {
+        return words.get(i).getEnglish().toLowerCase();
+    }
+
+    private static String prefixOf(String eng) {
+        return eng.length() <= 2 ? eng : eng.substring(0, 2);
+    }
+
+    private static String suffixOf(String eng) {
+        return eng.length() <= 3 ? eng : eng.substring(eng.length() - 3);
+    }
+
+    private static String meaningKeyOf(String meaning) {
+        return meaning.isEmpty() ? "" : meaning.substring(meaning.length() - 1);
+    }
+
+    private HashMap<String, int[]> prefixTable() {
+        if (prefixTable == null)
+            prefixTable = buildTable(i -> prefixOf(englishKey(i)));
+        return prefixTable;
+    }
+
+    private HashMap<String, int[]> suffixTable() {
+        if (suffixTable == null)
+            suffixTable = buildTable(i -> suffixOf(englishKey(i)));
+        return suffixTable;
+    }
+
+    private HashMap<String, int[]> meaningTable() {
+        if (meaningTable == null)
+            meaningTable = buildTable(i -> meaningKeyOf(shownMeaning(i)));
+        return meaningTable;
+    }
+
+    // 키가 같은 단어끼리 묶은 표를 만듭니다.
+    private HashMap<String, int[]> buildTable(IntFunction<String> keyOf) {
+        HashMap<String, ArrayList<Integer>> groups = new HashMap<>();
+        for (int i = 0; i < words.size(); i++)
+            groups.computeIfAbsent(keyOf.apply(i), k -> new ArrayList<>()).add(i);
+
+        HashMap<String, int[]> table = new HashMap<>();
+        for (Map.Entry<String, ArrayList<Integer>> e : groups.entrySet()) {
+            if (e.getValue().size() < 2)
+                continue;
+            // 자기 자신뿐인 묶음은 보기로 쓸 수 없음
+            int[] members = new int[e.getValue().size()];
+            for (int j = 0; j < members.length; j++)
+                members[j] = e.getValue().get(j);
+            table.put(e.getKey(), members);
+        }
+        return table;
+    }
+
+    private void lengthTable() {
+        if (byLength != null)
+            return;
+        int n = words.size();
+        int maxLength = 0;
+        int[] lengths = new int[n];
+        for (int i = 0; i < n; i++) {
+            lengths[i] = words.get(i).getEnglish().length();
+            maxLength = Math.max(maxLength, lengths[i]);
+        }
+
+        int[] start = new int[maxLength + 2];
+        for (int length : lengths)
+            start[length + 1]++;
+        for (int l = 1; l < start.length; l++)
+            start[l] += start[l - 1];
+        // 길이별 개수 세기 정렬 (O(n))
+
+        int[] sorted = new int[n];
+        int[] rank = new int[n];
+        for (int i = 0; i < n; i++) {
+            int pos = start[lengths[i]]++;
+            sorted[pos] = i;
+            rank[i] = pos;
+        }
+        byLength = sorted;
+        lengthRank = rank;
+    }
+}
@@ -0,0 +1,257 @@
+package manager;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import data.WordBook;
+import util.Path;
+
+// 즐겨찾기 토글(*)의 역색인 - "영단어 -> 토글이 붙어 있는 (파일, 줄 번호)" 목록
+// 즐겨찾기를 해제할 때 사용자의 모든 단어장/오답노트를 훑지 않고, 실제로 토글이 있는 파일만 고치기 위해 사용합니다.
+// res/<사용자>/favorites/_stars.idx 에 "영단어\t파일 경로\t줄 번호" 형식으로 저장하며,
+// 파일이 없으면(처음 실행 등) 단어장/오답노트 폴더를 한 번 훑어서 다시 만듭니다.
+// 토글할 때마다 색인 전체를 다시 쓰지 않고 단어장과 같은 저널(_stars.idx.journal)에 바뀐 줄만 덧붙이며,
+// 지운 위치는 빈 줄로 바꿔 두었다가 저널이 충분히 쌓이면 한 번에 정리합니다(컴팩션).
+// 줄 번호는 단어 삭제 등으로 밀릴 수 있으므로 참고용(hint)이고, 실제 토글 여부는 파일을 열어 다시 확인합니다.
+
+public class FavoriteIndex {
+    private static final HashMap<String, FavoriteIndex> cache = new HashMap<>();
+    // 사용자 이름 -> 읽어 둔 역색인 (단어장 매니저가 여러 번 만들어져도 한 번만 읽음)
+
+    private final String username;
+    private final File indexFile;
+    private final VocaJournal journal;
+
+    private final HashMap<String, LinkedHashMap<String, Star>> stars = new HashMap<>();
+    // 소문자 영단어 -> (파일 경로 -> 토글 위치)
+
+    private int slots;
+    // 색인 파일(스냅샷 + 저널)의 줄 수 (다음에 추가될 줄의 번호)
+
+    private long[] stamp;
+    // 마지막으로 읽거나 쓴 시점의 색인/저널 파일 상태 (다른 곳에서 바뀌었는지 확인용)
+
+    // 색인의 한 줄
+    private static class Star {
+        int line;
+        // 토글이 붙은 줄 번호 (1부터, 참고용)
+        int slot;
+        // 색인 파일에서 이 위치가 기록된 줄 번호 (0부터, 저널로 바꾸거나 지울 때 사용)
+
+        Star(int line, int slot) {
+            this.line = line;
+            this.slot = slot;
+        }
+    }
+
+    // 토글 위치 한 건
+    public static class Location {
+        public final File file;
+        public final int line;
+        // 1부터 시작하는 줄 번호 (참고용)
+
+        Location(File file, int line) {
+            this.file = file;
+            this.line = line;
+        }
+    }
+
+    private FavoriteIndex(String username) {
+        this.username = username;
+        this.indexFile = new File(Path.getFavoriteIndexFilePath(username));
+        this.journal = new VocaJournal(indexFile);
+    }
+
+    // 사용자의 역색인을 반환합니다. 읽기/재구성에 실패하면 null
+    public static synchronized FavoriteIndex of(String username) {
+        FavoriteIndex index = cache.get(username);
+        if (index != null && !index.isChangedOnDisk())
+            return index;
+
+        index = new FavoriteIndex(username);
+        try {
+            index.load();
+        } catch (IOException e) {
+            System.out.println("즐겨찾기 색인을 읽을 수 없습니다: " + e.getMessage());
+            return null;
+        }
+        cache.put(username, index);
+        return index;
+    }
+
+    public synchronized List<Location> locations(String eng) {
+        ArrayList<Location> out = new ArrayList<>();
+        Map<String, Star> files = stars.get(eng.toLowerCase());
+        if (files != null)
+            for (Map.Entry<String, Star> e : files.entrySet())
+                out.add(new Location(new File(e.getKey()), e.getValue().line));
+        return out;
+    }
+
+    // 파일에 토글을 붙이기 "전에" 호출합니다.
+    // 색인에만 있고 파일에 없는 경우는 해제할 때 확인 후 건너뛰면 되지만, 반대의 경우는 토글이 남게 되기 때문
+    public synchronized void addStar(String eng, File file, int line) {
+        addStars(file, Map.of(eng, line));
+    }
+
+    // 한 파일에 여러 토글을 붙일 때 사용합니다. (영단어 -> 1부터 시작하는 줄 번호, 저널에는 한 번에 기록)
+    public synchronized void addStars(File file, Map<String, Integer> lines) {
+        if (lines.isEmpty())
+            return;
+        TreeMap<Integer, String> sets = new TreeMap<>();
+        ArrayList<String> adds = new ArrayList<>();
+        for (Map.Entry<String, Integer> e : lines.entrySet()) {
+            String eng = e.getKey().toLowerCase();
+            LinkedHashMap<String, Star> files = stars.computeIfAbsent(eng, k -> new LinkedHashMap<>());
+            Star star = files.get(file.getPath());
+            if (star == null) {
+                files.put(file.getPath(), new Star(e.getValue(), slots++));
+                adds.add(lineOf(eng, file.getPath(), e.getValue()));
+            } else if (star.line != e.getValue()) {
+                star.line = e.getValue();
+                sets.put(star.slot, lineOf(eng, file.getPath(), star.line));
+                // 이미 있는 위치는 같은 줄을 바꿔서 기록 (중복 줄이 남으면 지운 뒤에도 다시 읽혀 되살아남)
+            }
+        }
+        write(sets, adds);
+    }
+
+    // 단어들의 토글 위치를 색인에서 제거합니다. (파일에서 토글을 지운 "후에" 호출)
+    // failedFiles(동기화에 실패한 파일)의 위치는 토글이 남아 있을 수 있으므로 그대로 둠
+    public synchronized void removeWords(Collection<String> words, Collection<File> failedFiles) {
+        HashSet<String> failed = new HashSet<>();
+        for (File file : failedFiles)
+            failed.add(normalize(file));
+
+        TreeMap<Integer, String> sets = new TreeMap<>();
+        for (String eng : words) {
+            String key = eng.toLowerCase();
+            LinkedHashMap<String, Star> files = stars.get(key);
+            if (files == null)
+                continue;
+            files.entrySet().removeIf(e -> {
+                if (failed.contains(normalize(new File(e.getKey()))))
+                    return false;
+                sets.put(e.getValue().slot, "");
+                return true;
+            });
+            if (files.isEmpty())
+                stars.remove(key);
+        }
+        write(sets, List.of());
+        // 지운 위치는 빈 줄로 바꿔 둠 (읽을 때 건너뜀), 여러 단어를 지워도 저널에는 한 번만 기록
+    }
+
+    private static String normalize(File file) {
+        return file.toPath().toAbsolutePath().normalize().toString();
+        // StarSync와 같은 기준으로 같은 파일인지 비교
+    }
+
+    private boolean isChangedOnDisk() {
+        return !Arrays.equals(stamp, WordBookCache.stampOf(indexFile));
+    }
+
+    private void load() throws IOException {
+        if (!indexFile.exists()) {
+            rebuild();
+            return;
+        }
+
+        ArrayList<String> lines = journal.load();
+        boolean duplicate = false;
+        for (int i = 0; i < lines.size(); i++) {
+            String[] p = lines.get(i).split("\t");
+            if (p.length < 3)
+                continue;
+            // 지운 위치(빈 줄)
+            try {
+                duplicate |= stars.computeIfAbsent(p[0], k -> new LinkedHashMap<>())
+                        .put(p[1], new Star(Integer.parseInt(p[2]), i)) != null;
+            } catch (NumberFormatException ignored) {
+                // 손상된 줄은 건너뜀 (해당 단어는 해제 시 파일 확인으로 보완됨)
+            }
+        }
+        slots = lines.size();
+        if (duplicate)
+            compact();
+        // 같은 위치가 두 줄에 있으면 앞의 줄은 지워지지 않고 남으므로 정리
+        stamp = WordBookCache.stampOf(indexFile);
+    }
+
+    // 단어장/오답노트 폴더를 한 번 훑어서 색인을 새로 만듭니다.
+    private void rebuild() throws IOException {
+        stars.clear();
+        scan(new File(Path.getVocaDirPath(username)), false);
+        scan(new File(Path.getNoteDirPath(username)), true);
+        compact();
+        stamp = WordBookCache.stampOf(indexFile);
+    }
+
+    private void scan(File directory, boolean isNoteFile) throws IOException {
+        File[] files = directory.listFiles((dir, name) -> name.endsWith(".txt"));
+        if (files == null)
+            return;
+        for (File file : files) {
+            ArrayList<String> lines = VocaJournal.readLines(file);
+            for (int i = 0; i < lines.size(); i++) {
+                if (isStarred(lines.get(i), isNoteFile))
+                    stars.computeIfAbsent(WordBook.keyOf(lines.get(i)), k -> new LinkedHashMap<>())
+                            .put(file.getPath(), new Star(i + 1, 0));
+                // slot은 compact에서 정해짐
+            }
+        }
+    }
+
+    // 라인에 즐겨찾기 토글이 붙어 있는지 확인합니다. (개인 단어장: *apple, 오답노트: apple*)
+    static boolean isStarred(String line, boolean isNoteFile) {
+        if (!isNoteFile)
+            return line.startsWith("*");
+        int tab = line.indexOf('\t');
+        return (tab < 0 ? line : line.substring(0, tab)).trim().endsWith("*");
+    }
+
+    private static String lineOf(String eng, String path, int line) {
+        return eng + "\t" + path + "\t" + line;
+    }
+
+    // 바뀐 줄(sets)과 새 줄(adds)을 저널에 덧붙이고, 저널이 충분히 쌓였으면 색인 파일을 새로 만듭니다.
+    private void write(Map<Integer, String> sets, List<String> adds) {
+        if (sets.isEmpty() && adds.isEmpty())
+            return;
+        try {
+            try {
+                journal.logSets(sets);
+                journal.logAdds(adds);
+                if (journal.needsCompaction())
+                    compact();
+            } catch (IOException e) {
+                compact();
+                // 저널에 쓰지 못했으면 현재 내용으로 색인 파일 전체를 다시 씀
+            }
+            stamp = WordBookCache.stampOf(indexFile);
+        } catch (IOException e) {
+            System.out.println("즐겨찾기 색인 저장 중 오류: " + e.getMessage());
+        }
+    }
+
+    // 현재 색인으로 색인 파일을 새로 쓰고 저널과 빈 줄을 정리합니다.
+    private void compact() throws IOException {
+        ArrayList<String> lines = new ArrayList<>();
+        for (Map.Entry<String, LinkedHashMap<String, Star>> word : stars.entrySet())
+            for (Map.Entry<String, Star> loc : word.getValue().entrySet()) {
+                loc.getValue().slot = lines.size();
+                lines.add(lineOf(word.getKey(), loc.getKey(), loc.getValue().line));
+            }
+        journal.compact(lines);
+        slots = lines.size();
+    }
+}
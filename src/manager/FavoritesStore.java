@@ -0,0 +1,182 @@
+package manager;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import data.WordBook;
+import util.DurableFiles;
+import util.Path;
+
+// 사용자의 즐겨찾기 파일(_favorites.txt)을 메모리에 올려 두는 저장소
+// 즐겨찾기 여부 확인, 추가, 제거를 할 때마다 파일을 열어 한 줄씩 훑지 않도록
+// 세션 동안 한 번만 읽어 대소문자 구분 없는 해시 인덱스(WordBook)로 들고 있고, 바뀐 내용은 바로 파일에 씁니다.
+// 다른 곳(즐겨찾기 관리 메뉴 등)에서 파일을 고친 경우에는 수정 시각과 크기로 알아채고 다시 읽습니다.
+
+public class FavoritesStore {
+    private static final HashMap<String, FavoritesStore> cache = new HashMap<>();
+    // 사용자 이름 -> 읽어 둔 즐겨찾기
+
+    private final File file;
+
+    private WordBook book = new WordBook();
+    // 즐겨찾기 라인 ("eng\tkor"), 소문자 영단어로 O(1) 조회
+
+    private long loadedModified, loadedLength, journalModified, journalLength;
+    // 마지막으로 읽거나 쓴 시점의 파일 상태
+
+    private FavoritesStore(String username) {
+        this.file = new File(Path.getFavoriteFilePath(username));
+    }
+
+    // 사용자의 즐겨찾기 저장소를 반환합니다. 파일이 바뀌었으면 다시 읽고, 읽기에 실패하면 null
+    public static synchronized FavoritesStore of(String username) {
+        FavoritesStore store = cache.get(username);
+        if (store == null)
+            store = new FavoritesStore(username);
+
+        if (store.isChangedOnDisk()) {
+            try {
+                store.load();
+            } catch (IOException e) {
+                System.out.println("즐겨찾기 파일을 읽을 수 없습니다: " + e.getMessage());
+                cache.remove(username);
+                return null;
+            }
+        }
+        cache.put(username, store);
+        return store;
+    }
+
+    public synchronized boolean contains(String eng) {
+        return book.contains(eng);
+    }
+
+    public synchronized int size() {
+        return book.size();
+    }
+
+    // 즐겨찾기 라인 목록 (복사본)
+    public synchronized List<String> lines() {
+        return book.copyLines();
+    }
+
+    // 여러 단어를 한 번에 추가/제거하고 파일에 반영합니다. (파일은 한 번만 씀)
+    // added: 영단어 -> 뜻, 이미 있는 단어면 뜻을 병합 / removed: 제거할 소문자 영단어
+    public synchronized void update(Map<String, String> added, Set<String> removed) {
+        if (added.isEmpty() && removed.isEmpty())
+            return;
+
+        boolean rewrite = false;
+        // 기존 줄이 바뀌거나 지워졌으면 파일 전체를 다시 써야 함
+        ArrayList<String> appended = new ArrayList<>();
+
+        if (!removed.isEmpty()) {
+            ArrayList<String> lines = book.copyLines();
+            if (lines.removeIf(line -> removed.contains(WordBook.keyOf(line)))) {
+                book.replaceAll(lines);
+                rewrite = true;
+            }
+            // 일치하는 단어 삭제
+        }
+
+        for (Map.Entry<String, String> entry : added.entrySet()) {
+            String eng = entry.getKey();
+            String kor = entry.getValue();
+            int pos = book.indexOf(eng);
+            if (pos < 0) {
+                book.add(eng + "\t" + kor);
+                appended.add(eng + "\t" + kor);
+                continue;
+                // 없으면 새 줄 추가
+            }
+
+            // 중복 단어 발견 시 뜻 병합
+            String line = book.get(pos);
+            ArrayList<String> meanings = new ArrayList<>(Arrays.asList(WordBook.koreanOf(line).split("/")));
+            for (int j = 0; j < meanings.size(); j++)
+                meanings.set(j, meanings.get(j).trim());
+            if (meanings.contains(kor))
+                continue;
+            // 뜻까지 똑같으면 중복이므로 추가 안 함
+
+            meanings.add(kor);
+            book.set(pos, WordBook.englishOf(line) + "\t" + String.join("/", meanings));
+            rewrite = true;
+        }
+
+        if (rewrite || VocaJournal.journalFileOf(file).exists())
+            writeAll();
+        else if (!appended.isEmpty())
+            append(appended);
+    }
+
+    private boolean isChangedOnDisk() {
+        File journal = VocaJournal.journalFileOf(file);
+        return file.lastModified() != loadedModified || file.length() != loadedLength
+                || journal.lastModified() != journalModified || journal.length() != journalLength;
+    }
+
+    private void load() throws IOException {
+        book = new WordBook(file.exists() ? VocaJournal.readLines(file) : new ArrayList<>());
+        // 즐겨찾기 관리 메뉴의 저널이 남아있을 수 있으므로 함께 반영
+        remember();
+    }
+
+    private void writeAll() {
+        try {
+            VocaJournal.writeSnapshot(file, book.lines());
+            // 임시 파일에 쓴 뒤 교체 (남아있던 저널도 함께 정리)
+            remember();
+        } catch (IOException e) {
+            System.out.println(file.getName() + " 파일 저장 중 오류 발생: " + e.getMessage());
+            loadedLength = -1;
+            // 저장하지 못한 내용은 버리고 다음에 파일에서 다시 읽음
+        }
+    }
+
+    private void append(List<String> lines) {
+        StringBuilder sb = new StringBuilder();
+        for (String line : lines)
+            sb.append(line).append(System.lineSeparator());
+        try {
+            if (!endsWithNewLine())
+                sb.insert(0, System.lineSeparator());
+            // 직접 편집해서 마지막 줄에 줄바꿈이 없으면 새 단어가 그 줄에 붙지 않도록 먼저 줄을 바꿈
+            DurableFiles.append(file, sb.toString().getBytes(StandardCharsets.UTF_8));
+            // 새 단어만 추가되는 경우는 한 번에 덧붙이고 디스크에 내림
+        } catch (IOException ex) {
+            System.out.println("즐겨찾기 파일 저장 오류: " + ex.getMessage());
+            loadedLength = -1;
+            return;
+        }
+        remember();
+    }
+
+    // 파일이 비어 있거나 줄바꿈으로 끝나는지
+    private boolean endsWithNewLine() throws IOException {
+        long length = file.length();
+        if (length == 0)
+            return true;
+        try (RandomAccessFile raf = new RandomAccessFile(file, "r")) {
+            raf.seek(length - 1);
+            return raf.read() == '\n';
+        }
+    }
+
+    // 현재 파일 상태를 기록합니다. (직접 쓴 내용 때문에 다시 읽지 않도록)
+    private void remember() {
+        File journal = VocaJournal.journalFileOf(file);
+        loadedModified = file.lastModified();
+        loadedLength = file.length();
+        journalModified = journal.lastModified();
+        journalLength = journal.length();
+    }
+}
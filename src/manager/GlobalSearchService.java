@@ -0,0 +1,216 @@
+package manager;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Stream;
+
+import data.WordBook;
+import data.WordSearchIndex;
+import util.Path;
+
+// 한 사용자의 모든 단어장(개인 단어장, 오답노트, 즐겨찾기)과 공용 단어장을 한 번에 검색하는 서비스
+// 파일마다 WordBook과 검색 색인을 만들어 메모리에 유지하고, 검색할 때마다 파일의 수정 시각과 크기만 확인하여
+// 바뀐 파일만 다시 읽습니다. 처음 검색할 때(또는 여러 파일이 바뀌었을 때)는 여러 파일을 병렬로 읽습니다.
+// 색인을 만들기엔 너무 큰 파일(WordBookReader.STREAM_THRESHOLD 초과)은 메모리에 올리지 않고 검색할 때마다 한 줄씩 훑습니다.
+
+public class GlobalSearchService {
+    private final String username;
+
+    private final ConcurrentHashMap<String, Source> sources = new ConcurrentHashMap<>();
+    // 파일 경로 -> 읽어 둔 단어장
+
+    // 검색 대상 파일 하나
+    private static class Source {
+        final File file;
+        final String label;
+        // 결과에 표시할 이름 (예: vocas/my.txt)
+
+        long modified, length, journalModified, journalLength;
+        // 마지막으로 읽었을 때의 파일 상태
+
+        WordBook book;
+        boolean streaming;
+        // 색인을 만들기엔 너무 큰 파일 - 메모리에 올리지 않고 검색할 때마다 한 줄씩 훑음
+        boolean loaded;
+
+        Source(File file, String label) {
+            this.file = file;
+            this.label = label;
+        }
+
+        boolean isStale() {
+            File journal = VocaJournal.journalFileOf(file);
+            return !loaded || file.lastModified() != modified || file.length() != length
+                    || journal.lastModified() != journalModified || journal.length() != journalLength;
+        }
+
+        void load() throws IOException {
+            File journal = VocaJournal.journalFileOf(file);
+            long m = file.lastModified(), l = file.length();
+            long jm = journal.lastModified(), jl = journal.length();
+            // 읽기 전에 상태를 기록해 두어, 읽는 도중 바뀌면 다음 검색 때 다시 읽도록 함
+
+            streaming = WordBookReader.isLarge(file);
+            if (streaming) {
+                book = null;
+            } else {
+                WordBook read = new WordBook(VocaJournal.readLines(file));
+                read.prepareSearch();
+                book = read;
+            }
+            loaded = true;
+            modified = m;
+            length = l;
+            journalModified = jm;
+            journalLength = jl;
+        }
+    }
+
+    // 검색 결과 한 건 (출처 파일과 줄 번호 포함)
+    public static class Hit {
+        public final String source;
+        public final File file;
+        public final int line;
+        // 1부터 시작하는 줄 번호
+        public final String text;
+
+        Hit(String source, File file, int line, String text) {
+            this.source = source;
+            this.file = file;
+            this.line = line;
+            this.text = text;
+        }
+    }
+
+    public GlobalSearchService(String username) {
+        this.username = username;
+    }
+
+    // 모든 파일에서 검색어를 찾습니다. 파일별로 일치도 순으로 정렬됨
+    public List<Hit> search(String query) {
+        refresh();
+
+        ArrayList<Hit> hits = new ArrayList<>();
+        ArrayList<String> keys = new ArrayList<>(sources.keySet());
+        keys.sort(null);
+        // 출력 순서가 매번 같도록 경로순 정렬
+
+        for (String key : keys) {
+            Source source = sources.get(key);
+            if (source.streaming && source.loaded) {
+                scan(source, query, hits);
+                continue;
+            }
+            WordBook book = source.book;
+            if (book == null)
+                continue;
+            for (int i : book.search(query))
+                hits.add(new Hit(source.label, source.file, i + 1, book.get(i)));
+        }
+        return hits;
+    }
+
+    // 큰 파일을 한 줄씩 훑으며 검색합니다. 순위별로 모은 뒤 (같은 순위는 줄 순서대로) 이어 붙임
+    private void scan(Source source, String query, List<Hit> hits) {
+        ArrayList<ArrayList<Hit>> byRank = new ArrayList<>();
+        for (int r = 0; r <= WordSearchIndex.RANK_KOR_CONTAINS; r++)
+            byRank.add(new ArrayList<>());
+        try (Stream<String> lines = WordBookReader.lines(source.file)) {
+            int[] lineNo = { 0 };
+            lines.forEach(line -> {
+                lineNo[0]++;
+                int rank = WordSearchIndex.rankOf(query, line);
+                if (rank >= 0)
+                    byRank.get(rank).add(new Hit(source.label, source.file, lineNo[0], line));
+            });
+        } catch (IOException | UncheckedIOException e) {
+            System.out.println(source.label + " 파일을 검색하지 못했습니다: " + e.getMessage());
+            return;
+        }
+        for (ArrayList<Hit> r : byRank)
+            hits.addAll(r);
+    }
+
+    // 디렉토리를 다시 확인하여 새로 생긴/바뀐 파일은 읽고, 사라진 파일은 제거합니다.
+    private void refresh() {
+        HashMap<String, Source> current = new HashMap<>();
+        collect(current, new File(Path.getVocaDirPath(username)), "vocas/");
+        collect(current, new File(Path.getNoteDirPath(username)), "notes/");
+        collect(current, new File(Path.getFavoriteDirPath(username)), "favorites/");
+        File publicFile = new File(Path.getPublicFilePath());
+        if (publicFile.exists())
+            current.put(publicFile.getPath(), new Source(publicFile, "public/" + publicFile.getName()));
+
+        sources.keySet().retainAll(current.keySet());
+        // 삭제된 파일은 색인에서 제거
+
+        ArrayList<Source> stale = new ArrayList<>();
+        for (Map.Entry<String, Source> e : current.entrySet()) {
+            Source source = sources.computeIfAbsent(e.getKey(), k -> e.getValue());
+            if (source.isStale())
+                stale.add(source);
+        }
+        loadAll(stale);
+    }
+
+    private void collect(Map<String, Source> out, File dir, String prefix) {
+        File[] files = dir.listFiles((d, name) -> name.endsWith(".txt"));
+        if (files == null)
+            return;
+        for (File f : files)
+            out.put(f.getPath(), new Source(f, prefix + f.getName()));
+    }
+
+    // 바뀐 파일들을 병렬로 다시 읽습니다. (파일이 하나뿐이면 현재 스레드에서 읽음)
+    private void loadAll(List<Source> stale) {
+        if (stale.isEmpty())
+            return;
+        if (stale.size() == 1) {
+            loadQuietly(stale.get(0));
+            return;
+        }
+
+        int threads = Math.min(stale.size(), Runtime.getRuntime().availableProcessors());
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        try {
+            ArrayList<Future<?>> futures = new ArrayList<>();
+            for (Source source : stale)
+                futures.add(pool.submit(() -> loadQuietly(source)));
+            for (Future<?> f : futures) {
+                try {
+                    f.get();
+                } catch (Exception ignored) {
+                    // 읽지 못한 파일은 이번 검색에서 제외하고 다음 검색 때 다시 시도
+                }
+            }
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    private void loadQuietly(Source source) {
+        try {
+            source.load();
+        } catch (IOException e) {
+            System.out.println(source.label + " 파일을 읽을 수 없어 검색에서 제외합니다: " + e.getMessage());
+        }
+    }
+
+    // 현재 색인된 파일 수 (검색 결과 요약 출력용)
+    public int fileCount() {
+        int count = 0;
+        for (Source source : sources.values())
+            if (source.loaded)
+                count++;
+        return count;
+    }
+}
@@ -1,16 +1,15 @@
 package manager;
 
 import java.io.File;
-import java.io.FileNotFoundException;
-import java.io.FileOutputStream;
-import java.io.IOException;
-import java.io.OutputStreamWriter;
-import java.io.PrintWriter;
-import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
-import java.util.Arrays;
-import java.util.Scanner;
-
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import data.WordBook;
+import util.IndexRanges;
 import util.Path;
 
 // 개인, 공용, 오답노트, 즐겨찾기 파일을 통합 관리하는 클래스
@@ -43,15 +42,20 @@ public class PersonalVocaFileManager extends VocaFileManager {
     // 파일 성격에 따라 적절한 전용 메뉴를 호출합니다.
     @Override
     public void menu() {
-        if (this.isFavoritesFile) {
-            specialFavoritesMenu();
-            // 즐겨찾기 관리 모드 (목록 + 제거)
-        } else if (this.isNoteFile) {
-            noteMenu();
-            // 오답노트 관리 모드 (목록 + 즐겨찾기 토글만)
-        } else {
-            regularMenu();
-            // 일반 단어장 관리 모드 (추가/삭제/수정/검색/토글)
+        try {
+            if (this.isFavoritesFile) {
+                specialFavoritesMenu();
+                // 즐겨찾기 관리 모드 (목록 + 제거)
+            } else if (this.isNoteFile) {
+                noteMenu();
+                // 오답노트 관리 모드 (목록 + 즐겨찾기 토글만)
+            } else {
+                regularMenu();
+                // 일반 단어장 관리 모드 (추가/삭제/수정/검색/토글)
+            }
+        } finally {
+            closeWordBook();
+            // 저널은 그대로 두고, 컴팩션이 밀려 있을 때만 스냅샷을 다시 만듦
         }
     }
 
@@ -63,22 +67,22 @@ public class PersonalVocaFileManager extends VocaFileManager {
         while (true) {
             System.out.println("\n==== [오답노트 관리] ====");
 
-            ArrayList<String> lines = loadFileLines();
-            // 파일 내용을 매번 새로 읽어옴 (변경 사항 반영)
+            WordBook book = loadFileBook();
+            // 메모리의 단어장 모델 사용 (변경 사항은 모델에 바로 반영되어 있음)
 
-            if (lines == null)
+            if (book == null)
                 return;
             // 읽기 오류 시 종료
 
-            if (lines.isEmpty()) {
+            if (book.isEmpty()) {
                 System.out.println("오답노트에 단어가 없습니다.");
                 return;
                 // 내용이 없으면 종료
             }
 
             System.out.println("--- 오답노트 목록 ---");
-            for (int i = 0; i < lines.size(); i++)
-                System.out.printf("%d) %s%n", i + 1, lines.get(i));
+            for (int i = 0; i < book.size(); i++)
+                System.out.printf("%d) %s%n", i + 1, book.get(i));
             System.out.println("--------------------");
 
             System.out.println("\n1. 단어 즐겨찾기 (토글)");
@@ -109,7 +113,7 @@ public class PersonalVocaFileManager extends VocaFileManager {
 
     private void regularMenu() {
         int choice = 0;
-        while (choice != 6) {
+        while (choice != 7) {
             String title = isPublicFile ? "[공용 단어장 관리]" : "[개인 단어장 관리]";
             // 제목 동적 표시
 
@@ -119,7 +123,8 @@ public class PersonalVocaFileManager extends VocaFileManager {
             System.out.println("3. 단어 수정");
             System.out.println("4. 단어 검색");
             System.out.println("5. 단어 즐겨찾기 (토글)");
-            System.out.println("6. 뒤로가기");
+            System.out.println("6. 대량 가져오기 (CSV/TSV)");
+            System.out.println("7. 뒤로가기");
             System.out.print(">> ");
 
             try {
@@ -154,7 +159,10 @@ public class PersonalVocaFileManager extends VocaFileManager {
                         // 개인 단어장은 Prefix * 토글 적용하며 갱신
                     }
                 }
-                case 6 -> System.out.println("메인 메뉴로 돌아갑니다.");
+                case 6 -> super.bulkImport();
+                // 파일 전체를 한 번에 합쳐 다시 씀
+
+                case 7 -> System.out.println("메인 메뉴로 돌아갑니다.");
                 default -> System.out.println("잘못된 입력입니다.");
             }
         }
@@ -164,27 +172,27 @@ public class PersonalVocaFileManager extends VocaFileManager {
     @Override
     void editVoca() {
         System.out.println("==== 단어 수정 ====");
-        ArrayList<String> lines = loadFileLines();
-        // 파일 읽기
+        WordBook book = loadFileBook();
+        // 단어장 모델 가져오기
 
-        if (lines == null || lines.isEmpty()) {
+        if (book == null || book.isEmpty()) {
             System.out.println("단어가 등록되어 있지 않습니다.");
             return;
         }
 
-        for (int i = 0; i < lines.size(); i++)
-            System.out.printf("%d) %s%n", i + 1, lines.get(i));
+        for (int i = 0; i < book.size(); i++)
+            System.out.printf("%d) %s%n", i + 1, book.get(i));
         // 목록 출력
 
         System.out.print("수정할 번호를 입력하세요 (0: 취소): ");
-        int index = readInt(0, lines.size());
+        int index = readInt(0, book.size());
         if (index == 0) {
             System.out.println("수정 취소.");
             return;
         }
 
         int idx = index - 1;
-        String oldLine = lines.get(idx);
+        String oldLine = book.get(idx);
 
         // 1. 기존 정보 파악 (Prefix/Suffix 구분)
         boolean wasFavorite;
@@ -192,9 +200,8 @@ public class PersonalVocaFileManager extends VocaFileManager {
 
         if (this.isNoteFile) {
             // 오답노트인 경우: Suffix '*' 확인
-            String[] parts = oldLine.split("\t", 2);
-            String engPart = parts[0].trim();
-            oldKor = parts.length > 1 ? parts[1].trim() : "";
+            String engPart = oldLine.split("\t", 2)[0].trim();
+            oldKor = WordBook.meaningsOf(oldLine);
 
             if (engPart.endsWith("*")) {
                 wasFavorite = true;
@@ -207,9 +214,9 @@ public class PersonalVocaFileManager extends VocaFileManager {
             // 개인 단어장인 경우 : Prefix '*' 확인
             wasFavorite = oldLine.startsWith("*");
             String cleanOldLine = wasFavorite ? oldLine.substring(1) : oldLine; // 앞의 * 제거
-            String[] parts = cleanOldLine.split("\t", 2);
-            oldEng = parts[0].trim();
-            oldKor = parts.length > 1 ? parts[1].trim() : "";
+            oldEng = cleanOldLine.split("\t", 2)[0].trim();
+            oldKor = WordBook.meaningsOf(oldLine);
+            // 공용 단어장의 통계 칸은 뜻에서 빼고, 새 라인에 그대로 다시 붙임
         }
 
         System.out.println("현재: " + oldEng + " = " + oldKor + (wasFavorite ? " (즐겨찾기)" : ""));
@@ -248,31 +255,13 @@ public class PersonalVocaFileManager extends VocaFileManager {
             newKor = oldKor;
         // 입력이 없으면 기존 값 유지
 
-        // 3. 중복 검사 (모든 토글을 제거하고 순수 영단어만 비교)
-        for (int i = 0; i < lines.size(); i++) {
-            if (i == idx)
-                continue;
+        // 3. 중복 검사 (인덱스 키는 모든 토글을 제거한 순수 영단어이므로 O(1) 조회로 충분)
+        int dup = book.indexOf(newEng);
+        if (dup >= 0 && dup != idx) {
             // 자기 자신은 제외
-
-            String line = lines.get(i);
-            String cleanEngPart;
-
-            if (line.startsWith("*")) {
-                // 개인 단어장 스타일 (*A)
-                cleanEngPart = line.substring(1).split("\t", 2)[0].trim();
-            } else {
-                // 오답노트 스타일 (A*) 또는 일반 (A)
-                cleanEngPart = line.split("\t", 2)[0].trim();
-                if (cleanEngPart.endsWith("*")) {
-                    cleanEngPart = cleanEngPart.substring(0, cleanEngPart.length() - 1);
-                }
-            }
-
-            if (cleanEngPart.equalsIgnoreCase(newEng)) {
-                System.out.println("오류: '" + newEng + "'(은)는 이미 다른 항목에 존재합니다.");
-                return;
-                // 중복 방지
-            }
+            System.out.println("오류: '" + newEng + "'(은)는 이미 다른 항목에 존재합니다.");
+            return;
+            // 중복 방지
         }
 
         // 4. 새 라인 생성 (기존 즐겨찾기 상태 유지)
@@ -282,12 +271,15 @@ public class PersonalVocaFileManager extends VocaFileManager {
             newLine = newEng + (wasFavorite ? "*" : "") + "\t" + newKor;
         } else {
             // 개인 단어장: "*d\t4"
-            newLine = (wasFavorite ? "*" : "") + newEng + "\t" + newKor;
+            newLine = (wasFavorite ? "*" : "") + newEng + "\t" + newKor + WordBook.statsOf(oldLine);
         }
 
-        // 5. 파일 갱신
-        lines.set(idx, newLine);
-        saveFileLines(lines);
+        // 5. 파일 갱신 (저널에 교체 기록만 추가)
+        boolean renamed = !newEng.equalsIgnoreCase(oldEng);
+        if (wasFavorite && renamed)
+            recordStar(newEng, idx);
+        // 토글이 새 이름으로 옮겨가므로 역색인에 먼저 기록
+        setLine(idx, newLine);
         System.out.println("수정이 완료되었습니다.");
 
         // 6. 즐겨찾기 동기화
@@ -300,9 +292,11 @@ public class PersonalVocaFileManager extends VocaFileManager {
             addToFavoritesFile(newEng, newKor);
             // 즐겨찾기 목록에 신버전 단어 추가
 
-            syncRemoveStar(oldEng);
+            if (renamed)
+                syncRemoveStar(oldEng);
             // 혹시 모를 다른 파일들의 구버전 단어 링크(토글) 제거
             // 이걸 안 하면 무더기 오류가 올라옴
+            // (이름이 그대로면 방금 수정한 라인의 토글까지 지워지므로 건너뜀)
 
             System.out.println("... 즐겨찾기 파일이 '" + newEng + "'로 업데이트되었습니다.");
         }
@@ -312,27 +306,28 @@ public class PersonalVocaFileManager extends VocaFileManager {
     @Override
     void removeVoca() {
         System.out.println("==== 단어 삭제 ====");
-        ArrayList<String> lines = loadFileLines();
-        if (lines == null || lines.isEmpty()) {
+        WordBook book = loadFileBook();
+        if (book == null || book.isEmpty()) {
             System.out.println("단어가 등록되어 있지 않습니다.");
             return;
         }
 
-        for (int i = 0; i < lines.size(); i++)
-            System.out.printf("%d) %s%n", i + 1, lines.get(i));
+        for (int i = 0; i < book.size(); i++)
+            System.out.printf("%d) %s%n", i + 1, book.get(i));
 
         System.out.print("삭제할 번호를 입력하세요 (0: 취소): ");
-        int index = readInt(0, lines.size());
+        int index = readInt(0, book.size());
         if (index == 0) {
             System.out.println("삭제 취소.");
             return;
         }
 
-        String lineToRemove = lines.get(index - 1);
-        lines.remove(index - 1);
-        // 리스트에서 항목 제거
+        String lineToRemove = book.get(index - 1);
+        if (!removeLine(index - 1))
+            return;
+        // 모델에서 항목 제거 (저널에 삭제 기록만 추가)
+        // 저장에 실패했으면 다음에 읽을 때 단어가 그대로 남아 있으므로 즐겨찾기 동기화도 하지 않음
 
-        saveFileLines(lines);
         System.out.println("삭제가 완료되었습니다.");
 
         // 즐겨찾기 동기화 로직 (Prefix/Suffix 구분)
@@ -371,9 +366,10 @@ public class PersonalVocaFileManager extends VocaFileManager {
 
     // 토글이 있는 즐겨찾기 (개인 단어장, 오답노트)
     // 파일 종류에 따라 Prefix(*A) 또는 Suffix(A*) 적용
+    // 여러 단어를 한 번에 선택할 수 있으며, 모든 토글을 메모리에서 바꾼 뒤 파일마다 한 번씩만 씀
     private void favoriteWithToggle() {
-        ArrayList<String> lines = loadFileLines();
-        if (lines == null || lines.isEmpty()) {
+        WordBook book = loadFileBook();
+        if (book == null || book.isEmpty()) {
             System.out.println("단어가 등록되어 있지 않습니다.");
             return;
         }
@@ -381,112 +377,183 @@ public class PersonalVocaFileManager extends VocaFileManager {
         // 오답노트 메뉴가 아니면 목록을 다시 출력 (오답노트 메뉴에서는 이미 출력됨)
         if (!this.isNoteFile) {
             System.out.println("===== 단어 목록 =====");
-            for (int i = 0; i < lines.size(); i++)
-                System.out.printf("%d) %s%n", i + 1, lines.get(i));
+            for (int i = 0; i < book.size(); i++)
+                System.out.printf("%d) %s%n", i + 1, book.get(i));
         }
 
-        System.out.print("\n즐겨찾기 설정/해제할 단어 번호 입력 (0 : 취소) : ");
-        int index = readInt(0, lines.size());
-        if (index == 0)
+        Selection selection = readSelection(book);
+        if (selection == null)
             return;
 
-        int idx = index - 1;
-        String selected = lines.get(idx);
-        String eng, kor, cleanEng;
-        boolean isCurrentlyFavorite;
+        LinkedHashSet<String> removed = new LinkedHashSet<>();
+        // 해제할 단어 (소문자)
+        for (int idx : selection.indices) {
+            String line = book.get(idx);
+            if (FavoriteIndex.isStarred(line, this.isNoteFile) && selection.mode != Selection.ADD)
+                removed.add(WordBook.keyOf(line));
+        }
 
-        if (this.isNoteFile) {
-            // 오답노트 (Suffix '*') 로직
-            String[] parts = selected.split("\t", 2);
-            eng = parts[0].trim();
-            kor = parts.length > 1 ? parts[1].trim() : "";
+        LinkedHashMap<Integer, String> changes = new LinkedHashMap<>();
+        // 줄 번호 -> 토글을 바꾼 새 라인
+        LinkedHashMap<String, String> added = new LinkedHashMap<>();
+        // 추가할 단어 -> 뜻 (favorites 파일용)
+        LinkedHashMap<String, Integer> starLines = new LinkedHashMap<>();
+        // 추가할 단어 -> 줄 번호 (역색인용)
 
-            if (eng.endsWith("*")) {
-                isCurrentlyFavorite = true;
-                cleanEng = eng.substring(0, eng.length() - 1);
-            } else {
-                isCurrentlyFavorite = false;
-                cleanEng = eng;
-            }
+        for (int idx : selection.indices) {
+            String line = book.get(idx);
+            boolean isCurrentlyFavorite = FavoriteIndex.isStarred(line, this.isNoteFile);
+            String cleanEng = WordBook.englishOf(line);
+            String kor = WordBook.koreanOf(line);
 
             if (isCurrentlyFavorite) {
-                // 해제 : 토글 제거 -> favorites 파일 제거 -> 전체 동기화
-                lines.set(idx, cleanEng + "\t" + kor);
-                removeFromFavoritesFile(cleanEng);
-                syncRemoveStar(cleanEng);
-                System.out.println("즐겨찾기 해제 완료!");
+                if (!removed.contains(cleanEng.toLowerCase()))
+                    continue;
+                // 해제 : 토글 제거
+                changes.put(idx, this.isNoteFile ? cleanEng + "\t" + kor : line.substring(1));
             } else {
-                // 추가 : 토글 추가 -> favorites 파일 추가
-                lines.set(idx, cleanEng + "*\t" + kor);
-                addToFavoritesFile(cleanEng, kor);
-                System.out.println("즐겨찾기 추가 완료!");
-            }
+                if (selection.mode == Selection.REMOVE || removed.contains(cleanEng.toLowerCase()))
+                    continue;
+                // 같은 단어를 한쪽에서 해제하는 중이면 다시 붙이지 않음 (해제 동기화가 곧바로 지우게 되므로)
 
-        } else {
-            // 개인 단어장 (Prefix '*') 로직
-            if (selected.startsWith("*")) {
-                isCurrentlyFavorite = true;
-                selected = selected.substring(1);
-            } else {
-                isCurrentlyFavorite = false;
+                // 추가 : 토글 추가 (오답노트는 Suffix, 개인 단어장은 Prefix)
+                changes.put(idx, this.isNoteFile ? cleanEng + "*\t" + kor : "*" + line);
+                added.putIfAbsent(cleanEng, kor);
+                starLines.putIfAbsent(cleanEng, idx + 1);
             }
+        }
 
-            String[] parts = selected.split("\t", 2);
-            cleanEng = parts[0].trim();
-            kor = parts.length > 1 ? parts[1].trim() : "";
-
-            if (isCurrentlyFavorite) {
-                // 해제
-                lines.set(idx, selected);
-                removeFromFavoritesFile(cleanEng);
-                syncRemoveStar(cleanEng);
-                System.out.println("즐겨찾기 해제 완료!");
-            } else {
-                // 추가
-                lines.set(idx, "*" + selected);
-                addToFavoritesFile(cleanEng, kor);
-                System.out.println("즐겨찾기 추가 완료!");
-            }
+        if (changes.isEmpty()) {
+            System.out.println("변경할 단어가 없습니다.");
+            return;
         }
 
-        saveFileLines(lines);
-        // 변경된 내용(토글 상태)을 파일에 저장!
-        // 이게 안 되면 또 토글 오류가 또 발생
+        recordStars(starLines);
+        // 역색인 기록 -> 토글 변경 -> favorites 파일 갱신 -> 해제된 단어 전체 동기화 순서
+        setLines(changes);
+        // 선택한 모든 토글을 저널에 한 번에 기록
+        updateFavoritesFile(added, removed);
+        syncRemoveStars(removed);
+
+        printToggleResult(added.size(), removed.size());
     }
 
     // 토글이 없는 즐겨찾기 (공용 단어장)
     // 원본 파일은 건드리지 않고 _favorites.txt 만 갱신
     private void favoriteNoToggle() {
-        ArrayList<String> lines = loadFileLines();
-        if (lines == null || lines.isEmpty()) {
+        WordBook book = loadFileBook();
+        if (book == null || book.isEmpty()) {
             System.out.println("단어가 등록되어 있지 않습니다.");
             return;
         }
 
         System.out.println("===== 단어 목록 =====");
-        for (int i = 0; i < lines.size(); i++)
-            System.out.printf("%d) %s%n", i + 1, lines.get(i));
+        for (int i = 0; i < book.size(); i++)
+            System.out.printf("%d) %s%n", i + 1, book.get(i));
 
-        System.out.print("\n즐겨찾기 설정/해제할 단어 번호 입력 (0 : 취소) : ");
-        int index = readInt(0, lines.size());
-        if (index == 0)
+        Selection selection = readSelection(book);
+        if (selection == null)
             return;
 
-        String selected = lines.get(index - 1);
-        String[] parts = selected.split("\t", 2);
-        String eng = parts[0].trim();
-        String kor = parts.length > 1 ? parts[1].trim() : "";
+        FavoritesStore favorites = favoritesStore();
+        if (favorites == null)
+            return;
+        // 이미 즐겨찾기 되어 있는지 확인 (토글이 없으므로 확인 필수) - 메모리의 해시 인덱스로 O(1) 확인
+
+        LinkedHashMap<String, String> added = new LinkedHashMap<>();
+        LinkedHashSet<String> removed = new LinkedHashSet<>();
+        for (int idx : selection.indices) {
+            String selected = book.get(idx);
+            String eng = WordBook.englishOf(selected);
+            String kor = WordBook.meaningsOf(selected);
+            // 공용 단어장의 통계 칸(출제 수, 정답 수)은 즐겨찾기에 옮기지 않음
+
+            if (favorites.contains(eng)) {
+                if (selection.mode != Selection.ADD)
+                    removed.add(eng.toLowerCase());
+            } else if (selection.mode != Selection.REMOVE) {
+                added.putIfAbsent(eng, kor);
+            }
+        }
 
-        // 이미 즐겨찾기 되어 있는지 확인 (토글이 없으므로 확인 필수)
-        if (isAlreadyInFavorites(eng)) {
-            removeFromFavoritesFile(eng);
-            syncRemoveStar(eng); // 해제 시에는 개인/오답노트 동기화 수행
-            System.out.println("즐겨찾기 해제 완료!");
-        } else {
-            addToFavoritesFile(eng, kor);
-            System.out.println("즐겨찾기 추가 완료!");
+        if (added.isEmpty() && removed.isEmpty()) {
+            System.out.println("변경할 단어가 없습니다.");
+            return;
+        }
+
+        updateFavoritesFile(added, removed);
+        syncRemoveStars(removed); // 해제 시에는 개인/오답노트 동기화 수행
+        printToggleResult(added.size(), removed.size());
+        // 공용 파일은 setLine() 호출하지 않음 (원본 보존을 위해)
+    }
+
+    // 즐겨찾기 토글에서 선택한 단어들과 적용 방식
+    private static class Selection {
+        static final int TOGGLE = 0;
+        static final int ADD = 1;
+        static final int REMOVE = 2;
+
+        final List<Integer> indices;
+        // 0부터 시작하는 라인 번호 (파일 순서)
+        final int mode;
+
+        Selection(List<Integer> indices, int mode) {
+            this.indices = indices;
+            this.mode = mode;
+        }
+    }
+
+    // 즐겨찾기를 바꿀 단어를 입력받습니다. 취소하면 null
+    // 번호(3), 범위와 목록(1-50,72,90), 전체(*), 검색 조건(?검색어)을 받을 수 있고
+    // 앞에 + 를 붙이면 추가만, - 를 붙이면 해제만 수행 (없으면 단어마다 토글)
+    private Selection readSelection(WordBook book) {
+        System.out.println("\n즐겨찾기 설정/해제할 단어 번호 입력 (예: 3 / 1-50,72,90 / * : 전체 / ?검색어)");
+        System.out.print("앞에 + 를 붙이면 추가만, - 를 붙이면 해제만 합니다. (0 : 취소) : ");
+        while (true) {
+            String input = super.scanner.nextLine().trim();
+            if (input.isEmpty())
+                continue;
+            if (input.equals("0"))
+                return null;
+
+            int mode = Selection.TOGGLE;
+            if (input.startsWith("+")) {
+                mode = Selection.ADD;
+                input = input.substring(1).trim();
+            } else if (input.startsWith("-")) {
+                mode = Selection.REMOVE;
+                input = input.substring(1).trim();
+            }
+
+            List<Integer> indices;
+            if (input.equals("*")) {
+                indices = new ArrayList<>();
+                for (int i = 0; i < book.size(); i++)
+                    indices.add(i);
+            } else if (input.startsWith("?")) {
+                indices = new ArrayList<>(book.search(input.substring(1)));
+                indices.sort(null);
+                // 검색 순위가 아니라 파일 순서대로 적용
+                if (indices.isEmpty()) {
+                    System.out.print("검색 결과가 없습니다. 다시 입력하세요: ");
+                    continue;
+                }
+            } else {
+                indices = IndexRanges.parse(input, book.size());
+                if (indices == null || indices.isEmpty()) {
+                    System.out.printf("1과 %d 사이의 번호나 범위를 입력하세요: ", book.size());
+                    continue;
+                }
+            }
+            return new Selection(indices, mode);
         }
-        // 공용 파일은 saveFileLines() 호출하지 않음 (원본 보존을 위해)
+    }
+
+    private void printToggleResult(int addedCount, int removedCount) {
+        if (addedCount + removedCount == 1)
+            System.out.println(addedCount == 1 ? "즐겨찾기 추가 완료!" : "즐겨찾기 해제 완료!");
+        else
+            System.out.printf("즐겨찾기 %d개 추가, %d개 해제 완료!%n", addedCount, removedCount);
     }
 
     // ===================================================================
@@ -497,17 +564,17 @@ public class PersonalVocaFileManager extends VocaFileManager {
         while (true) {
             System.out.println("\n==== [즐겨찾기 단어장 관리] ====");
 
-            ArrayList<String> lines = loadFileLines();
-            if (lines == null)
+            WordBook book = loadFileBook();
+            if (book == null)
                 return;
-            if (lines.isEmpty()) {
+            if (book.isEmpty()) {
                 System.out.println("즐겨찾기에 등록된 단어가 없습니다.");
                 return;
             }
 
             System.out.println("--- 즐겨찾기 목록 ---");
-            for (int i = 0; i < lines.size(); i++)
-                System.out.printf("%d) %s%n", i + 1, lines.get(i));
+            for (int i = 0; i < book.size(); i++)
+                System.out.printf("%d) %s%n", i + 1, book.get(i));
             System.out.println("--------------------");
 
             System.out.println("\n1. 즐겨찾기에서 단어 제거 (동기화)");
@@ -518,7 +585,7 @@ public class PersonalVocaFileManager extends VocaFileManager {
 
             switch (choice) {
                 case 1:
-                    removeFromFavoritesMenu(lines);
+                    removeFromFavoritesMenu(book);
                     break;
                 case 2:
                     System.out.println("메인 메뉴로 돌아갑니다.");
@@ -527,98 +594,125 @@ public class PersonalVocaFileManager extends VocaFileManager {
         }
     }
 
-    private void removeFromFavoritesMenu(ArrayList<String> favLines) {
+    private void removeFromFavoritesMenu(WordBook favBook) {
         System.out.print("\n제거할 단어의 번호를 입력하세요 (0: 취소) : ");
-        int index = readInt(0, favLines.size());
+        int index = readInt(0, favBook.size());
         if (index == 0)
             return;
 
-        String selectedLine = favLines.get(index - 1);
+        String selectedLine = favBook.get(index - 1);
         String[] parts = selectedLine.split("\t", 2);
         String eng = parts[0].trim();
 
         System.out.println("'" + eng + "' 단어를 즐겨찾기에서 제거합니다...");
         removeFromFavoritesFile(eng); // 즐겨찾기 파일에서 제거
         syncRemoveStar(eng); // 다른 모든 파일에서 토글 제거
+        wordBook = null; // 즐겨찾기 파일이 직접 갱신되었으므로 다음 목록 출력 때 다시 읽음
         System.out.println("제거 및 동기화 완료.");
     }
 
     // 동기화 핵심 메서드
-    // 즐겨찾기 해제 시 '개인 단어장' 폴더와 '오답노트' 폴더를 모두 스캔하여
-    // 해당 단어의 토글(*표시)을 제거
+    // 즐겨찾기 해제 시 해당 단어의 토글(*표시)을 다른 모든 파일에서 제거
     private void syncRemoveStar(String eng) {
+        syncRemoveStars(Set.of(eng.toLowerCase()));
+    }
+
+    // 여러 단어의 토글을 한 번에 제거합니다. (words는 소문자 영단어)
+    // 역색인(FavoriteIndex)에 기록된, 실제로 토글이 붙어 있는 파일만 열어서 병렬로 처리하고
+    // 색인을 사용할 수 없을 때는 '개인 단어장' 폴더와 '오답노트' 폴더를 모두 스캔함
+    private void syncRemoveStars(Set<String> words) {
         String username = super.username;
         if (username == null) {
             System.out.println("동기화 오류: 사용자 이름을 찾을 수 없습니다.");
             return;
         }
+        if (words.isEmpty())
+            return;
 
-        File vocaDir = new File(Path.getVocaDirPath(username));
-        File noteDir = new File(Path.getNoteDirPath(username));
+        FavoriteIndex index = FavoriteIndex.of(username);
+        ArrayList<File> files = new ArrayList<>();
+        ArrayList<Integer> currentHints = new ArrayList<>();
+
+        if (index != null) {
+            for (String word : words) {
+                for (FavoriteIndex.Location loc : index.locations(word)) {
+                    if (wordBook != null && isCurrentFile(loc.file))
+                        currentHints.add(loc.line - 1);
+                    else
+                        files.add(loc.file);
+                }
+            }
+        } else {
+            scanAndRemoveStar(new File(Path.getVocaDirPath(username)), files); // Prefix 모드 (개인단어장)
+            scanAndRemoveStar(new File(Path.getNoteDirPath(username)), files); // Suffix 모드 (오답노트)
+        }
 
-        scanAndRemoveStar(vocaDir, eng, false); // false: Prefix 모드 (개인단어장)
-        scanAndRemoveStar(noteDir, eng, true); // true: Suffix 모드 (오답노트)
-    }
+        removeStarsInCurrentFile(words, index != null ? currentHints : null);
+        // 지금 열려 있는 파일은 디스크가 아니라 메모리 모델 기준으로 처리
 
-    // syncRemoveStar의 헬퍼.
-    // isNoteFile 플래그에 따라 Prefix/Suffix 모드로 토글을 찾아 제거합니다.
-    private void scanAndRemoveStar(File directory, String eng, boolean isNoteFile) {
-        if (!directory.exists())
-            return;
+        StarSync.Report report = StarSync.removeStars(files, words);
+        // 나머지 파일은 병렬로 처리 (파일마다 임시 파일에 쓰고 교체)
 
-        File[] files = directory.listFiles((dir, name) -> name.endsWith(".txt"));
-        if (files == null)
+        for (String name : report.changedFiles)
+            System.out.println("... 동기화: " + name + "에서 토글 제거 완료.");
+        if (report.scanned > 0)
+            System.out.printf("... 동기화: 파일 %d개 확인, %d개 수정 (%d ms)%n",
+                    report.scanned, report.rewritten, report.elapsedMillis);
+
+        if (index != null)
+            index.removeWords(words, report.failedFiles);
+        // 파일에서 토글을 지운 뒤 색인에서 제거 (실패한 파일의 위치는 다음 해제 때 다시 시도하도록 남겨 둠)
+    }
+
+    // 현재 열려 있는 파일에서 토글을 제거합니다.
+    // hints가 있으면(역색인 사용) 줄 번호 힌트와 해시 인덱스 위치만 확인하고, 없으면 메모리의 전체 라인을 확인
+    private void removeStarsInCurrentFile(Set<String> words, List<Integer> hints) {
+        if (wordBook == null || (hints == null && !isInUserDirs()))
             return;
 
-        for (File file : files) {
-            ArrayList<String> lines = new ArrayList<>();
-            boolean fileChanged = false;
+        boolean noteFile = StarSync.isNoteFile(vocaFile);
+        ArrayList<Integer> candidates = new ArrayList<>();
+        if (hints != null) {
+            candidates.addAll(hints);
+            for (String word : words)
+                candidates.add(wordBook.indexOf(word));
+        } else {
+            for (int i = 0; i < wordBook.size(); i++)
+                candidates.add(i);
+        }
 
-            try (Scanner sc = new Scanner(file, StandardCharsets.UTF_8.name())) {
-                while (sc.hasNextLine())
-                    lines.add(sc.nextLine());
-            } catch (FileNotFoundException e) {
+        boolean changed = false;
+        for (int i : candidates) {
+            if (i < 0 || i >= wordBook.size())
                 continue;
+            String unstarred = StarSync.unstar(wordBook.get(i), words, noteFile);
+            if (unstarred != null) {
+                setLine(i, unstarred);
+                changed = true;
             }
+        }
+        if (changed)
+            System.out.println("... 동기화: " + vocaFile.getName() + "에서 토글 제거 완료.");
+    }
 
-            for (int i = 0; i < lines.size(); i++) {
-                String line = lines.get(i);
-                String[] parts = line.split("\t", 2);
-                String fileEng = parts[0].trim();
-                String fileKor = parts.length > 1 ? parts[1].trim() : "";
-
-                if (isNoteFile) {
-                    // 오답노트: 뒤에 *가 붙었는지 확인 (apple*)
-                    if (fileEng.endsWith("*")) {
-                        String cleanEng = fileEng.substring(0, fileEng.length() - 1);
-                        if (cleanEng.equalsIgnoreCase(eng)) {
-                            lines.set(i, cleanEng + "\t" + fileKor);
-                            // Suffix '*' 제거하고 원상복구
-                            fileChanged = true;
-                        }
-                    }
-                } else {
-                    // 개인 단어장: 앞에 *가 붙었는지 확인 (*apple)
-                    if (line.startsWith("*")) {
-                        String cleanLine = line.substring(1);
-                        String[] cleanParts = cleanLine.split("\t", 2);
-                        String cleanEng = cleanParts[0].trim();
-
-                        if (cleanEng.equalsIgnoreCase(eng)) {
-                            lines.set(i, cleanLine);
-                            // Prefix '*' 제거하고 원상복구
-                            fileChanged = true;
-                        }
-                    }
-                }
-            }
+    // 현재 파일이 사용자의 단어장/오답노트 폴더에 있는지 (공용 단어장, 즐겨찾기 파일은 토글 대상이 아님)
+    private boolean isInUserDirs() {
+        return !this.isPublicFile && !this.isFavoritesFile;
+    }
 
-            if (fileChanged) {
-                System.out.println("... 동기화: " + file.getName() + "에서 토글 제거 완료.");
-                saveFileLines(lines, file);
-                // 변경사항 저장
-            }
-        }
+    // syncRemoveStar의 헬퍼. (역색인을 사용할 수 없을 때의 전체 스캔)
+    // 폴더의 .txt 파일 중 현재 열려 있는 파일을 제외한 나머지를 동기화 대상에 추가합니다.
+    private void scanAndRemoveStar(File directory, List<File> out) {
+        if (!directory.exists())
+            return;
+
+        File[] files = directory.listFiles((dir, name) -> name.endsWith(".txt"));
+        if (files == null)
+            return;
+
+        for (File file : files)
+            if (wordBook == null || !isCurrentFile(file))
+                out.add(file);
     }
 
     private int readInt(int min, int max) {
@@ -637,140 +731,60 @@ public class PersonalVocaFileManager extends VocaFileManager {
         }
     }
 
-    private ArrayList<String> loadFileLines() {
-        ArrayList<String> lines = new ArrayList<>();
-        if (!vocaFile.exists()) {
-            if (this.isFavoritesFile)
-                return lines;
-            // 즐겨찾기 파일은 없을 수도 있음 (이러면 조용히 리턴)
-
+    // 현재 파일의 단어장 모델을 가져옵니다. (매니저 생성 후 처음 한 번만 파일을 읽음)
+    private WordBook loadFileBook() {
+        if (wordBook == null && !vocaFile.exists() && !this.isFavoritesFile)
             System.out.println("단어장 파일(" + vocaFile.getName() + ")이 존재하지 않습니다.");
-            return lines;
-        }
-        try (Scanner fileScanner = new Scanner(vocaFile, StandardCharsets.UTF_8.name())) {
-            while (fileScanner.hasNextLine())
-                lines.add(fileScanner.nextLine()); // 모든 라인 읽고
-        } catch (FileNotFoundException e) {
-            System.out.println("파일을 읽는 중 오류 발생: " + e.getMessage());
-            return null; // 읽기 실패시 null 반환
-        }
-        return lines;
-    }
+        // 즐겨찾기 파일은 없을 수도 있음 (이러면 조용히 빈 모델 반환)
 
-    private void saveFileLines(ArrayList<String> lines) {
-        saveFileLines(lines, this.vocaFile);
-        // 현재 파일 덮어쓰기
+        return loadWordBook(); // 읽기 실패시 null 반환
     }
 
-    private void saveFileLines(ArrayList<String> lines, File file) {
-        try (PrintWriter pw = new PrintWriter(
-                new OutputStreamWriter(new FileOutputStream(file, false), StandardCharsets.UTF_8))) {
-            for (String line : lines)
-                pw.println(line);
-        } catch (IOException e) {
-            System.out.println(file.getName() + " 파일 저장 중 오류 발생: " + e.getMessage());
-            // 쓰기 실패 시 에러 메시지
-        }
+    // 현재 파일의 idx번째 라인에 토글을 붙인다는 것을 역색인에 기록합니다.
+    private void recordStar(String eng, int idx) {
+        if (super.username == null)
+            return;
+        FavoriteIndex index = FavoriteIndex.of(super.username);
+        if (index != null)
+            index.addStar(eng, vocaFile, idx + 1);
     }
 
-    private boolean isAlreadyInFavorites(String eng) {
-        String username = super.username;
-        if (username == null)
-            return false;
-
-        File favFile = new File(Path.getFavoriteFilePath(username));
-        if (!favFile.exists())
-            return false;
-
-        try (Scanner sc = new Scanner(favFile, StandardCharsets.UTF_8.name())) {
-            while (sc.hasNextLine()) {
-                String[] p = sc.nextLine().split("\t", 2);
-                String e = p[0].trim();
-                if (e.equalsIgnoreCase(eng))
-                    return true;
-                // 이미 파일에 존재하는지 확인
-            }
-        } catch (FileNotFoundException ignored) {
-        }
-        return false;
+    // 현재 파일에 여러 토글을 붙인다는 것을 역색인에 한 번에 기록합니다. (영단어 -> 1부터 시작하는 줄 번호)
+    private void recordStars(Map<String, Integer> lines) {
+        if (super.username == null || lines.isEmpty())
+            return;
+        FavoriteIndex index = FavoriteIndex.of(super.username);
+        if (index != null)
+            index.addStars(vocaFile, lines);
     }
 
-    private boolean addToFavoritesFile(String eng, String kor) {
-        String username = super.username;
-        if (username == null) {
-            System.out.println("사용자 정보를 찾을 수 없어 favorites에 추가할 수 없습니다.");
-            return false;
-        }
-        String favFilePath = Path.getFavoriteFilePath(username);
-        File favFile = new File(favFilePath);
-
-        ArrayList<String> favLines = new ArrayList<>();
-        try (Scanner sc = new Scanner(favFile, StandardCharsets.UTF_8.name())) {
-            while (sc.hasNextLine())
-                favLines.add(sc.nextLine()); // 기존 파일 내용 로드
-        } catch (Exception ignored) {
-        }
-
-        for (int i = 0; i < favLines.size(); i++) {
-            String[] p = favLines.get(i).split("\t", 2);
-            String e = p[0].trim();
-            String k = p.length > 1 ? p[1].trim() : "";
-
-            if (e.equalsIgnoreCase(eng)) {
-                // 중복 단어 발견 시 뜻 병합
-                ArrayList<String> meanings = new ArrayList<>(Arrays.asList(k.split("/")));
-                for (int j = 0; j < meanings.size(); j++)
-                    meanings.set(j, meanings.get(j).trim());
-                if (meanings.contains(kor))
-                    return false;
-                // 뜻까지 똑같으면 중복이므로 추가 안 함
-
-                meanings.add(kor);
-                favLines.set(i, e + "\t" + String.join("/", meanings));
-                saveFileLines(favLines, favFile);
-                return true;
-            }
-        }
+    private boolean isCurrentFile(File file) {
+        return file.toPath().toAbsolutePath().normalize()
+                .equals(vocaFile.toPath().toAbsolutePath().normalize());
+    }
 
-        // 없으면 새 줄 추가
-        try (PrintWriter pw = new PrintWriter(
-                new OutputStreamWriter(new FileOutputStream(favFile, true), StandardCharsets.UTF_8))) {
-            pw.printf("%s\t%s%n", eng, kor);
-            // append 모드로 추가
-        } catch (IOException ex) {
-            System.out.println("즐겨찾기 파일 저장 오류: " + ex.getMessage());
-        }
-        return true;
+    private void addToFavoritesFile(String eng, String kor) {
+        updateFavoritesFile(Map.of(eng, kor), Set.of());
     }
 
     private void removeFromFavoritesFile(String eng) {
-        String username = super.username;
-        if (username == null)
-            return;
-
-        String favFilePath = Path.getFavoriteFilePath(username);
-        File favFile = new File(favFilePath);
-        if (!favFile.exists())
-            return;
+        updateFavoritesFile(Map.of(), Set.of(eng.toLowerCase()));
+    }
 
-        ArrayList<String> favLines = new ArrayList<>();
-        try (Scanner sc = new Scanner(favFile, StandardCharsets.UTF_8.name())) {
-            while (sc.hasNextLine())
-                favLines.add(sc.nextLine()); // 파일 로드
-        } catch (Exception ignored) {
-            return;
-        }
+    // favorites 파일에 여러 단어를 한 번에 추가/제거합니다. (FavoritesStore가 파일을 한 번만 씀)
+    // added: 영단어 -> 뜻, 이미 있는 단어면 뜻을 병합 / removed: 제거할 소문자 영단어
+    private void updateFavoritesFile(Map<String, String> added, Set<String> removed) {
+        FavoritesStore store = favoritesStore();
+        if (store != null)
+            store.update(added, removed);
+    }
 
-        boolean changed = false;
-        for (int i = favLines.size() - 1; i >= 0; i--) {
-            String[] p = favLines.get(i).split("\t", 2);
-            String e = p[0].trim();
-            if (e.equalsIgnoreCase(eng)) {
-                favLines.remove(i); // 일치하는 단어 삭제
-                changed = true;
-            }
+    // 사용자의 즐겨찾기 저장소 (세션 동안 한 번만 읽고 이후에는 메모리에서 확인)
+    private FavoritesStore favoritesStore() {
+        if (super.username == null) {
+            System.out.println("사용자 정보를 찾을 수 없어 favorites를 사용할 수 없습니다.");
+            return null;
         }
-        if (changed)
-            saveFileLines(favLines, favFile); // 변경사항이 있을 때만 저장
+        return FavoritesStore.of(super.username);
     }
 }
\ No newline at end of file
@@ -0,0 +1,441 @@
+package manager;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+
+import data.PublicWord;
+import data.WordBook;
+import util.DurableFiles;
+import util.Metrics;
+import util.Path;
+
+// 공용 단어장의 출제/정답 통계를 모으는 저장소
+// 퀴즈가 끝날 때마다 publics.txt 전체를 다시 쓰면 동시에 퀴즈를 푼 다른 사용자의 기록이 사라지므로
+//   1) 문제를 풀 때마다 단어별 카운터(LongAdder)만 올리고
+//   2) 퀴즈가 끝나면 늘어난 만큼(delta)만 통계 로그(publics.stats.log)에 덧붙이며
+//   3) 로그가 일정 크기를 넘으면 publics.txt에 합치고 로그를 비웁니다.
+// 로그 쓰기와 합치기는 잠금 파일(publics.stats.lock)의 FileLock으로 보호하여 여러 프로세스가 동시에 실행되어도 증가분이 사라지지 않습니다.
+// 로그 한 줄: "영단어\t출제 증가\t정답 증가\tCRC" (CRC가 맞지 않는 줄은 쓰다가 끊긴 줄로 보고 무시)
+// 합칠 때는 로그를 publics.stats.log.merging으로 이름을 바꾸고, 합치기 전 publics.txt의 CRC를 표시 파일(publics.stats.merge)에 남긴 뒤
+// publics.txt를 다시 씁니다. 도중에 죽으면 다음에 잠금을 잡은 쪽이 현재 publics.txt의 CRC를 표시와 비교하여
+// 같으면(아직 반영 전) 다시 합치고, 다르면(이미 반영됨) .merging만 지우므로 증가분이 두 번 더해지지 않음
+// 난이도 색인(DifficultyIndex)도 여기서 관리하여, 기록할 때마다 해당 단어만 갱신하고 다른 프로세스가 파일을 바꾸었을 때만 다시 만듭니다.
+
+public class PublicStatsStore {
+    private static final long MERGE_THRESHOLD = 32 * 1024;
+
+    private static final Metrics.Timer FLUSH_TIME = Metrics.timer("voca_public_stats_flush_seconds", "공용 통계 증가분을 로그에 쓰는 시간(잠금, sync 포함)");
+    private static final Metrics.Timer MERGE_TIME = Metrics.timer("voca_public_stats_merge_seconds", "공용 통계 로그를 publics.txt에 합치는 시간");
+    // 로그가 이 크기(바이트)를 넘으면 publics.txt에 합침
+
+    private static PublicStatsStore instance;
+
+    private final File publicFile;
+    private final File logFile;
+    private final File lockFile;
+    private final File mergingFile;
+    private final File markerFile;
+
+    private final ConcurrentHashMap<String, Counter> pending = new ConcurrentHashMap<>();
+    // 소문자 영단어 -> 아직 로그에 쓰지 않은 증가분
+
+    private final EnumMap<DifficultyIndex.Scoring, DifficultyIndex> indexes = new EnumMap<>(
+            DifficultyIndex.Scoring.class);
+    private long[] indexedStamp;
+    // 색인을 만들 때(또는 이 프로세스가 마지막으로 파일을 쓴 뒤)의 파일 상태
+    private final ReentrantReadWriteLock indexLock = new ReentrantReadWriteLock();
+    // 기록은 여럿이 동시에(읽기 잠금), 색인 생성은 혼자서(쓰기 잠금) - 만드는 도중의 기록이 두 번 세어지거나 빠지지 않도록
+
+    private static class Counter {
+        final LongAdder questions = new LongAdder();
+        final LongAdder correct = new LongAdder();
+    }
+
+    private PublicStatsStore(File publicFile) {
+        this.publicFile = publicFile;
+        this.logFile = new File(publicFile.getParentFile(), "publics.stats.log");
+        this.lockFile = new File(publicFile.getParentFile(), "publics.stats.lock");
+        this.mergingFile = new File(publicFile.getParentFile(), "publics.stats.log.merging");
+        this.markerFile = new File(publicFile.getParentFile(), "publics.stats.merge");
+    }
+
+    // 프로세스 전체에서 하나의 저장소를 사용
+    public static synchronized PublicStatsStore get() {
+        if (instance == null)
+            instance = new PublicStatsStore(new File(Path.getPublicFilePath()));
+        return instance;
+    }
+
+    // 문제 하나의 결과를 기록합니다. (여러 스레드에서 동시에 호출해도 됨)
+    public void record(String eng, boolean correct) {
+        String key = eng.trim().toLowerCase();
+        indexLock.readLock().lock();
+        try {
+            Counter counter = pending.computeIfAbsent(key, k -> new Counter());
+            counter.questions.increment();
+            if (correct)
+                counter.correct.increment();
+            for (DifficultyIndex index : indexes.values())
+                index.record(key, correct);
+        } finally {
+            indexLock.readLock().unlock();
+        }
+    }
+
+    // 난이도 색인을 반환합니다. 처음 사용하거나 다른 프로세스가 통계를 바꾼 경우에만 새로 만듦
+    public synchronized DifficultyIndex difficulty(DifficultyIndex.Scoring scoring) throws IOException {
+        indexLock.writeLock().lock();
+        try {
+            long[] now = stamp();
+            if (!Arrays.equals(now, indexedStamp))
+                indexes.clear();
+            DifficultyIndex index = indexes.get(scoring);
+            if (index == null) {
+                try (WordBookReader reader = openReader()) {
+                    index = DifficultyIndex.build(reader.stream().map(w -> (PublicWord) w).iterator(), scoring);
+                } catch (UncheckedIOException e) {
+                    throw e.getCause();
+                }
+                // 줄 목록을 통째로 만들지 않고 흘려 읽으며 색인
+                indexes.put(scoring, index);
+                indexedStamp = now;
+            }
+            return index;
+        } finally {
+            indexLock.writeLock().unlock();
+        }
+    }
+
+    // 모인 증가분을 로그에 덧붙이고, 로그가 커졌으면 publics.txt에 합칩니다.
+    // (아래 메서드들의 FileLock은 try가 끝날 때 풀리도록 잡기만 하고 본문에서는 쓰지 않으므로 "try" 경고를 끔)
+    @SuppressWarnings("try")
+    public synchronized void flush() throws IOException {
+        HashMap<String, long[]> drained = drain();
+        if (drained.isEmpty())
+            return;
+        long start = FLUSH_TIME.start();
+
+        StringBuilder sb = new StringBuilder();
+        for (Map.Entry<String, long[]> e : drained.entrySet()) {
+            String record = e.getKey() + "\t" + e.getValue()[0] + "\t" + e.getValue()[1];
+            sb.append(record).append('\t').append(crcOf(record)).append('\n');
+        }
+        byte[] bytes = sb.toString().getBytes(StandardCharsets.UTF_8);
+
+        long logLength;
+        try (FileChannel lock = openLock(); FileLock ignored = lock.lock()) {
+            boolean fresh = Arrays.equals(stamp(), indexedStamp);
+            logLength = DurableFiles.append(logFile, bytes);
+            if (fresh)
+                indexedStamp = stamp();
+            // 이 프로세스가 쓴 증가분은 이미 색인에 반영되어 있으므로 다시 만들 필요 없음
+        } catch (IOException e) {
+            restore(drained);
+            throw e;
+            // 쓰지 못한 증가분은 다음 flush 때 다시 시도
+        }
+        FLUSH_TIME.stop(start);
+
+        if (logLength >= MERGE_THRESHOLD)
+            merge();
+    }
+
+    // 로그의 증가분을 publics.txt에 합치고 로그를 비웁니다.
+    @SuppressWarnings("try")
+    public synchronized void merge() throws IOException {
+        long start = MERGE_TIME.start();
+        try (FileChannel lock = openLock(); FileLock ignored = lock.lock()) {
+            finishMerge();
+            // 이전에 중단된 합치기부터 정리
+            if (readLog(logFile).isEmpty())
+                return;
+            DurableFiles.move(logFile, mergingFile);
+            // 이 뒤로 기록되는 증가분은 새 로그에 쌓임
+            applyMerging();
+        }
+        MERGE_TIME.stop(start);
+    }
+
+    // .merging 로그를 publics.txt에 반영하고 정리합니다. (배타 잠금 안에서 호출)
+    private void applyMerging() throws IOException {
+        boolean fresh = Arrays.equals(stamp(), indexedStamp);
+        DurableFiles.replaceLines(markerFile, List.of(contentCrc()));
+        // 반영 전의 publics.txt를 표시 (이 뒤에 죽어도 반영 여부를 알 수 있음)
+
+        HashMap<String, long[]> deltas = readLog(mergingFile);
+        byte[] newLine = System.lineSeparator().getBytes(StandardCharsets.UTF_8);
+        DurableFiles.replace(publicFile, out -> {
+            try (Stream<String> lines = WordBookReader.lines(publicFile)) {
+                Iterator<String> it = lines.iterator();
+                while (it.hasNext()) {
+                    out.write(applyDeltas(it.next(), deltas).getBytes(StandardCharsets.UTF_8));
+                    out.write(newLine);
+                }
+            } catch (UncheckedIOException e) {
+                throw e.getCause();
+            }
+        });
+        // 한 줄씩 읽으며 바로 임시 파일에 씀 (단어장 전체를 메모리에 올리지 않음, 원본은 교체 전에 닫힘)
+        Files.deleteIfExists(VocaJournal.journalFileOf(publicFile).toPath());
+        // 저널은 위에서 이미 반영됨
+        Files.deleteIfExists(mergingFile.toPath());
+        Files.deleteIfExists(markerFile.toPath());
+        if (fresh)
+            indexedStamp = stamp();
+    }
+
+    // 중단된 합치기가 남아 있으면 마저 끝냅니다. (publics.txt를 쓰는 쪽은 배타 잠금을 잡은 뒤 가장 먼저 호출)
+    private void finishMerge() throws IOException {
+        if (!mergingFile.exists()) {
+            Files.deleteIfExists(markerFile.toPath());
+            return;
+        }
+        if (mergePending())
+            applyMerging();
+        else {
+            Files.deleteIfExists(mergingFile.toPath());
+            Files.deleteIfExists(markerFile.toPath());
+            // publics.txt는 이미 바뀜 (반영은 끝났고 정리만 못 함)
+        }
+    }
+
+    // .merging 로그가 아직 publics.txt에 반영되지 않았는지
+    private boolean mergePending() throws IOException {
+        if (!mergingFile.exists())
+            return false;
+        if (!markerFile.exists())
+            return true;
+        // 이름만 바꾸고 표시를 남기기 전에 멈춤
+        List<String> marker = Files.readAllLines(markerFile.toPath(), StandardCharsets.UTF_8);
+        return !marker.isEmpty() && marker.get(0).equals(contentCrc());
+    }
+
+    // publics.txt(와 남아 있는 저널)의 내용 CRC와 길이
+    private String contentCrc() throws IOException {
+        CRC32 crc = new CRC32();
+        long length = 0;
+        byte[] buffer = new byte[64 * 1024];
+        for (File f : new File[] { publicFile, VocaJournal.journalFileOf(publicFile) }) {
+            if (!f.exists())
+                continue;
+            try (InputStream in = Files.newInputStream(f.toPath())) {
+                int n;
+                while ((n = in.read(buffer)) > 0) {
+                    crc.update(buffer, 0, n);
+                    length += n;
+                }
+            }
+        }
+        return Long.toHexString(crc.getValue()) + "\t" + length;
+    }
+
+    // publics.txt의 줄들을 받아 새 줄 목록을 돌려주는 편집 작업
+    public interface LineEditor {
+        List<String> edit(ArrayList<String> lines) throws IOException;
+    }
+
+    // 통계 잠금을 잡은 채로 publics.txt(저널 반영)를 읽어 편집하고 한 번에 다시 씁니다. (대량 가져오기 등)
+    // 로그의 증가분은 영단어 키로 합쳐지므로 줄이 추가되거나 뜻이 바뀌어도 그대로 유효함
+    @SuppressWarnings("try")
+    public synchronized void replaceLines(LineEditor editor) throws IOException {
+        try (FileChannel lock = openLock(); FileLock ignored = lock.lock()) {
+            finishMerge();
+            // 남은 합치기를 먼저 끝내야 다시 쓴 뒤에도 반영 여부를 판단할 수 있음
+            VocaJournal.writeSnapshot(publicFile, editor.edit(VocaJournal.readLines(publicFile)));
+        }
+    }
+
+    // 공용 단어장 편집기(단어 추가/수정/삭제)의 내용을 저장하고, 실제로 쓴 줄 목록을 반환합니다.
+    // 편집기가 읽어 둔 통계 칸은 그 사이 다른 프로세스의 합치기로 낡았을 수 있으므로 쓰지 않고,
+    // 잠금을 잡은 채 현재 파일의 통계 칸을 영단어 키로 찾아 붙입니다. (편집기는 영단어/뜻과 줄의 추가/삭제만 반영)
+    // 편집기가 읽은 뒤 다른 곳(대량 가져오기 등)에서 추가된 단어(loadedKeys에 없는 단어)는 뒤에 그대로 남김
+    public synchronized ArrayList<String> saveEdited(List<String> edited, Set<String> loadedKeys) throws IOException {
+        ArrayList<String> written = new ArrayList<>(edited.size());
+        replaceLines(current -> {
+            HashMap<String, String> stats = new HashMap<>();
+            for (String line : current)
+                stats.putIfAbsent(WordBook.keyOf(line), WordBook.statsOf(line));
+
+            HashSet<String> editedKeys = new HashSet<>();
+            for (String line : edited) {
+                String key = WordBook.keyOf(line);
+                editedKeys.add(key);
+                String s = stats.get(key);
+                written.add(s == null ? line : withoutStats(line) + s);
+                // 파일에 없는 단어(새 단어, 이름을 바꾼 단어)는 편집기의 줄 그대로
+            }
+            for (String line : current) {
+                String key = WordBook.keyOf(line);
+                if (!loadedKeys.contains(key) && !editedKeys.contains(key))
+                    written.add(line);
+            }
+            return written;
+        });
+        return written;
+    }
+
+    // 줄의 통계 칸 부분 ("\t출제 수\t정답 수", 없으면 "")
+    private static String withoutStats(String line) {
+        return line.substring(0, line.length() - WordBook.statsOf(line).length());
+    }
+
+    // publics.txt에 로그와 아직 쓰지 않은 증가분까지 반영한 현재 통계의 줄들을 반환합니다.
+    @SuppressWarnings("try")
+    public synchronized ArrayList<String> readLines() throws IOException {
+        HashMap<String, long[]> deltas;
+        ArrayList<String> lines;
+        try (FileChannel lock = openLock(); FileLock ignored = lock.lock(0, Long.MAX_VALUE, true)) {
+            lines = VocaJournal.readLines(publicFile);
+            deltas = readDeltas();
+        }
+        for (Map.Entry<String, Counter> e : pending.entrySet()) {
+            long[] d = deltas.computeIfAbsent(e.getKey(), k -> new long[2]);
+            d[0] += e.getValue().questions.sum();
+            d[1] += e.getValue().correct.sum();
+        }
+        return applyDeltas(lines, deltas);
+    }
+
+    // publics.txt를 한 줄씩 읽는 reader를 엽니다. 로그와 아직 쓰지 않은 증가분은 읽는 동안 단어마다 더해짐
+    // 잠금을 잡은 채로 파일을 열어 두므로, 읽는 도중 다른 프로세스가 합치기를 해도 연 시점의 파일과 로그가 짝을 이룸
+    @SuppressWarnings("try")
+    public synchronized WordBookReader openReader() throws IOException {
+        HashMap<String, long[]> deltas;
+        WordBookReader reader;
+        try (FileChannel lock = openLock(); FileLock ignored = lock.lock(0, Long.MAX_VALUE, true)) {
+            deltas = readDeltas();
+            reader = WordBookReader.open(publicFile, WordBookReader.publicWithDeltas(deltas));
+        }
+        for (Map.Entry<String, Counter> e : pending.entrySet()) {
+            long[] d = deltas.computeIfAbsent(e.getKey(), k -> new long[2]);
+            d[0] += e.getValue().questions.sum();
+            d[1] += e.getValue().correct.sum();
+        }
+        return reader;
+    }
+
+    private HashMap<String, long[]> drain() {
+        HashMap<String, long[]> drained = new HashMap<>();
+        for (Map.Entry<String, Counter> e : pending.entrySet()) {
+            long q = e.getValue().questions.sumThenReset();
+            long c = e.getValue().correct.sumThenReset();
+            if (q != 0 || c != 0)
+                drained.put(e.getKey(), new long[] { q, c });
+        }
+        return drained;
+    }
+
+    private void restore(HashMap<String, long[]> drained) {
+        for (Map.Entry<String, long[]> e : drained.entrySet()) {
+            Counter counter = pending.computeIfAbsent(e.getKey(), k -> new Counter());
+            counter.questions.add(e.getValue()[0]);
+            counter.correct.add(e.getValue()[1]);
+        }
+    }
+
+    // 아직 publics.txt에 반영되지 않은 증가분 (로그 + 중단된 합치기의 로그)
+    private HashMap<String, long[]> readDeltas() throws IOException {
+        HashMap<String, long[]> deltas = readLog(logFile);
+        if (mergePending()) {
+            for (Map.Entry<String, long[]> e : readLog(mergingFile).entrySet()) {
+                long[] d = deltas.computeIfAbsent(e.getKey(), k -> new long[2]);
+                d[0] += e.getValue()[0];
+                d[1] += e.getValue()[1];
+            }
+        }
+        return deltas;
+    }
+
+    private static HashMap<String, long[]> readLog(File log) throws IOException {
+        HashMap<String, long[]> deltas = new HashMap<>();
+        if (!log.exists())
+            return deltas;
+        for (String line : Files.readAllLines(log.toPath(), StandardCharsets.UTF_8)) {
+            int lastTab = line.lastIndexOf('\t');
+            if (lastTab < 0)
+                continue;
+            String record = line.substring(0, lastTab);
+            if (!crcOf(record).equals(line.substring(lastTab + 1)))
+                continue;
+            // 끊기거나 손상된 줄은 무시
+
+            String[] p = record.split("\t");
+            if (p.length < 3)
+                continue;
+            try {
+                long[] d = deltas.computeIfAbsent(p[0], k -> new long[2]);
+                d[0] += Long.parseLong(p[1]);
+                d[1] += Long.parseLong(p[2]);
+            } catch (NumberFormatException ignored) {
+            }
+        }
+        return deltas;
+    }
+
+    // publics.txt 줄들에 증가분을 더한 새 줄 목록을 만듭니다. (파일에 없는 단어의 증가분은 버림)
+    private static ArrayList<String> applyDeltas(List<String> lines, Map<String, long[]> deltas) {
+        ArrayList<String> out = new ArrayList<>(lines.size());
+        for (String line : lines)
+            out.add(applyDeltas(line, deltas));
+        return out;
+    }
+
+    // 한 줄에 증가분을 더합니다.
+    private static String applyDeltas(String line, Map<String, long[]> deltas) {
+        long[] d = deltas.get(WordBook.keyOf(line));
+        if (d == null)
+            return line;
+        String[] p = line.split("\t");
+        if (p.length < 2)
+            return line;
+        long questions = 0, correct = 0;
+        if (p.length >= 4) {
+            try {
+                questions = Long.parseLong(p[2].trim());
+                correct = Long.parseLong(p[3].trim());
+            } catch (NumberFormatException ignored) {
+                // 통계 칸이 손상되었으면 0부터 다시 셈
+            }
+        }
+        return p[0].trim() + "\t" + p[1].trim() + "\t" + (questions + d[0]) + "\t" + (correct + d[1]);
+    }
+
+    // 통계에 영향을 주는 파일들(publics.txt, 저널, 통계 로그)의 수정 시각과 크기
+    long[] stamp() {
+        File journal = VocaJournal.journalFileOf(publicFile);
+        return new long[] { publicFile.lastModified(), publicFile.length(), journal.lastModified(), journal.length(),
+                logFile.lastModified(), logFile.length(), mergingFile.lastModified(), mergingFile.length() };
+    }
+
+    private FileChannel openLock() throws IOException {
+        return FileChannel.open(lockFile.toPath(), StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE);
+    }
+
+    private static String crcOf(String record) {
+        CRC32 crc = new CRC32();
+        crc.update(record.getBytes(StandardCharsets.UTF_8));
+        return Long.toHexString(crc.getValue());
+    }
+}
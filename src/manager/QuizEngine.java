@@ -0,0 +1,183 @@
+package manager;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.function.ToDoubleFunction;
+
+import data.Word;
+import util.Metrics;
+import util.Sampler;
+
+// 퀴즈 출제/채점 엔진 (입출력 없음)
+// 문제를 뽑고 보기를 만들고 채점하는 부분만 담당하며, 답은 AnswerSource에서 받고 결과는 ResultSink로 넘깁니다.
+// 콘솔 퀴즈(QuizManager)와 기록된 답을 재생하는 일괄 실행기(BatchQuizRunner)가 같은 엔진을 사용
+// 문제마다 출제(보기 생성 포함)와 채점에 걸린 시간을 재어 결과에 담음 (답을 기다린 시간은 제외)
+
+public class QuizEngine {
+
+    public enum Mode {
+        SHORT_ANSWER, MULTIPLE_CHOICE
+    }
+
+    public enum Direction {
+        ENG_TO_KOR, KOR_TO_ENG, CHOICE
+    }
+
+    // 출제된 문제 하나
+    public static class Question {
+        public final int number;
+        // 1부터 시작하는 문제 번호
+        public final int total;
+        public final Word word;
+        public final Direction direction;
+        public final List<Word> choices;
+        // 객관식 보기 (주관식이면 빈 목록)
+
+        Question(int number, int total, Word word, Direction direction, List<Word> choices) {
+            this.number = number;
+            this.total = total;
+            this.word = word;
+            this.direction = direction;
+            this.choices = choices;
+        }
+
+        // 정답 보기 번호 (1부터, 객관식이 아니면 -1)
+        public int answerChoice() {
+            for (int k = 0; k < choices.size(); k++)
+                if (choices.get(k).equals(word))
+                    return k + 1;
+            return -1;
+        }
+    }
+
+    // 채점 결과
+    public static class Result {
+        public final Question question;
+        public final String answer;
+        public final AnswerGrader.Verdict verdict;
+        public final long nanos;
+        // 출제 + 채점에 걸린 시간
+
+        Result(Question question, String answer, AnswerGrader.Verdict verdict, long nanos) {
+            this.question = question;
+            this.answer = answer;
+            this.verdict = verdict;
+            this.nanos = nanos;
+        }
+
+        public boolean isCorrect() {
+            return verdict != AnswerGrader.Verdict.WRONG;
+        }
+    }
+
+    // 문제에 대한 답을 주는 쪽 (콘솔 입력, 기록된 답 파일 등). null을 반환하면 퀴즈를 중단
+    public interface AnswerSource {
+        String answer(Question question);
+    }
+
+    // 출제/채점 결과를 받는 쪽 (화면 출력, 통계, 오답노트, 측정 등)
+    public interface ResultSink {
+        void question(Question question);
+
+        void result(Result result);
+    }
+
+    private final List<Word> words;
+    private final Random random;
+    private final AnswerGrader grader;
+    private final DistractorEngine distractors;
+    private final DistractorEngine.Strategy strategy;
+    private final int[] picked = new int[3];
+    // 오답 보기 번호를 받을 배열 (문제마다 재사용)
+
+    public QuizEngine(List<Word> words, Random random, AnswerGrader grader, DistractorEngine.Strategy strategy) {
+        this(words, random, grader, new DistractorEngine(words, random), strategy);
+    }
+
+    // 같은 단어 목록으로 만든 보기 엔진을 재사용합니다. (이웃 표를 다시 만들지 않음)
+    public QuizEngine(List<Word> words, Random random, AnswerGrader grader, DistractorEngine distractors,
+            DistractorEngine.Strategy strategy) {
+        this.words = words;
+        this.random = random;
+        this.grader = grader;
+        this.strategy = strategy;
+        this.distractors = distractors;
+    }
+
+    private static final Metrics.Counter QUESTIONS = Metrics.counter("voca_quiz_questions_total", "출제한 문제 수");
+    private static final Metrics.Timer GENERATE_TIME = Metrics.timer("voca_quiz_generate_seconds", "문제 하나(객관식 보기 포함)를 만드는 시간");
+    private static final Metrics.Timer GRADE_TIME = Metrics.timer("voca_quiz_grade_seconds", "답 하나를 채점하는 시간");
+
+    // quizNum문제를 출제합니다. (weight가 있으면 가중치에 비례하여 뽑음) 맞힌 문제 수를 반환
+    public int run(Mode mode, int quizNum, ToDoubleFunction<Word> weight, AnswerSource source, ResultSink sink) {
+        int[] order = drawQuestions(quizNum, weight);
+        // 목록을 복사해서 하나씩 지우지 않고, 출제할 번호만 미리 뽑아 둠
+        int score = 0;
+        for (int i = 0; i < order.length; i++) {
+            long start = System.nanoTime();
+            Question q = mode == Mode.MULTIPLE_CHOICE ? choiceQuestion(i + 1, order.length, order[i])
+                    : new Question(i + 1, order.length, words.get(order[i]),
+                            random.nextInt(2) == 0 ? Direction.ENG_TO_KOR : Direction.KOR_TO_ENG, List.of());
+            long generated = System.nanoTime() - start;
+            QUESTIONS.inc();
+            GENERATE_TIME.record(generated);
+
+            sink.question(q);
+            String answer = source.answer(q);
+            if (answer == null)
+                break;
+
+            start = System.nanoTime();
+            AnswerGrader.Verdict verdict = grade(q, answer);
+            long graded = System.nanoTime() - start;
+            GRADE_TIME.record(graded);
+            Result result = new Result(q, answer, verdict, generated + graded);
+            if (result.isCorrect())
+                score++;
+            sink.result(result);
+        }
+        return score;
+    }
+
+    private Question choiceQuestion(int number, int total, int index) {
+        Word word = words.get(index);
+        int pickedCount = distractors.pick(index, strategy, picked);
+        // 정답 외 보기 - 목록을 복사/셔플하지 않고 번호만 뽑음
+
+        ArrayList<Word> choices = new ArrayList<>(pickedCount + 1);
+        choices.add(word);
+        for (int p = 0; p < pickedCount; p++)
+            choices.add(words.get(picked[p]));
+        Collections.shuffle(choices, random);
+        return new Question(number, total, word, Direction.CHOICE, Collections.unmodifiableList(choices));
+    }
+
+    private AnswerGrader.Verdict grade(Question q, String answer) {
+        switch (q.direction) {
+            case ENG_TO_KOR -> {
+                return grader.gradeMeaning(answer, q.word);
+            }
+            case KOR_TO_ENG -> {
+                return grader.gradeEnglish(answer, q.word.getEnglish());
+            }
+            default -> {
+                try {
+                    int choice = Integer.parseInt(answer.trim());
+                    if (choice >= 1 && choice <= q.choices.size() && q.choices.get(choice - 1).equals(q.word))
+                        return AnswerGrader.Verdict.EXACT;
+                } catch (NumberFormatException ignored) {
+                }
+                return AnswerGrader.Verdict.WRONG;
+            }
+        }
+    }
+
+    // 출제할 단어 번호를 quizNum개 중복 없이 뽑습니다. 뽑는 개수에 비례하는 시간/메모리만 사용 (가중치 모드는 O(n log k))
+    private int[] drawQuestions(int quizNum, ToDoubleFunction<Word> weight) {
+        if (weight == null)
+            return Sampler.distinctIndices(words.size(), quizNum, random);
+        return Sampler.weightedIndices(words.size(), i -> weight.applyAsDouble(words.get(i)), quizNum, random);
+    }
+}
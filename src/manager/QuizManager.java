@@ -1,29 +1,43 @@
 package manager;
 
+import data.BinaryWordBook;
 import data.PublicWord;
 import data.User;
 import data.Word;
+import util.DurableFiles;
 import util.Path;
+import util.Sampler;
 
 import java.io.*;
 import java.nio.charset.StandardCharsets;
+import java.time.Instant;
 import java.time.LocalDateTime;
+import java.time.ZoneId;
 import java.time.format.DateTimeFormatter;
 import java.util.ArrayList;
-import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
 import java.util.Random;
 import java.util.Scanner;
+import java.util.function.DoublePredicate;
+import java.util.function.ToDoubleFunction;
 
 public class QuizManager {
 
     static Scanner sc = new Scanner(System.in, StandardCharsets.UTF_8);
     static Random ran = new Random();
 
+    private static final int POOL_SIZE = 20000;
+    // 아주 큰 단어장에서 퀴즈를 낼 때 미리 뽑아 두는 단어 수 (객관식 보기도 이 안에서 고름)
+
     ArrayList<String> noteWords = new ArrayList<>(); // 오답노트에 추가될 단어들
     final User user; //현재 사용자
 
     int score;
 
+    AnswerGrader grader = new AnswerGrader(AnswerGrader.Leniency.NORMAL);
+    // 주관식 채점기 (오타 허용 단계는 주관식 퀴즈를 시작할 때 고르고, 복습 모드도 같은 단계를 사용)
+
     public QuizManager(User user) {
         this.user = user;
     }
@@ -35,22 +49,40 @@ public class QuizManager {
         if (chosen == null) return;
         //파일명을 전체 경로로 변환
         String fullPath = Path.getVocaFilePath(user.getName(), chosen);
-        //파일에서 단어 읽기
-        ArrayList<String> strings = loadWordsFromFile(fullPath);
-        if (strings == null || strings.isEmpty()) {
-            System.out.println("단어가 등록되어 있지 않습니다.");
+        if (chosen.endsWith(BinaryWordBook.EXTENSION)) {
+            binaryWordQuiz(fullPath);
             return;
         }
-        ArrayList<Word> words = new ArrayList<>();
-        for (String line : strings) {
-            String[] parts = line.split("\t");
-            words.add(new Word(parts[0].trim(), parts[1].trim()));
+        //파일에서 단어 읽기 (이전에 읽은 뒤 바뀌지 않았으면 캐시 사용)
+        List<Word> words = loadWords(fullPath);
+        if (words == null || words.isEmpty()) {
+            System.out.println("단어가 등록되어 있지 않습니다.");
+            return;
         }
         // 퀴즈 메뉴로 넘기기
         QuizMenu("개인 단어장 -" + fileNameOnly(fullPath) + "- ", words, false);
     }
 
 
+    // 바이너리 단어장(.vocb) 퀴즈 - 매핑된 파일에서 단어를 바로 꺼내므로 줄을 나누는 파싱이 없음
+    private void binaryWordQuiz(String fullPath) {
+        BinaryWordBook book;
+        try {
+            book = BinaryWordBook.open(new File(fullPath));
+        } catch (IOException e) {
+            System.out.println("바이너리 단어장을 열 수 없습니다: " + e.getMessage());
+            return;
+        }
+        if (book.size() == 0) {
+            System.out.println("단어가 등록되어 있지 않습니다.");
+            return;
+        }
+        List<Word> words = book.asWords();
+        // 목록을 복사하지 않고 매핑된 단어장 위의 뷰를 그대로 넘김 (출제되는 단어만 만들어짐)
+        QuizMenu("개인 단어장 -" + fileNameOnly(fullPath) + "- ", words, false);
+    }
+
+
     public void personalNoteQuiz(ArrayList<String> fileList) {
         // 오답노트 목록 출력 및 선택
         String chosen = pickFileFromList("오답노트 선택", fileList);
@@ -58,32 +90,22 @@ public class QuizManager {
         // 파일명을 전체 경로로 변환
         String fullPath = Path.getNoteFilePath(user.getName(), chosen);
         // 파일에서 단어 읽기
-        ArrayList<String> strings = loadWordsFromFile(fullPath);
-        if (strings == null || strings.isEmpty()) {
+        List<Word> words = loadWords(fullPath);
+        if (words == null || words.isEmpty()) {
             System.out.println("오답노트가 비어 있습니다.");
             return;
         }
-        ArrayList<Word> words = new ArrayList<>();
-        for (String line : strings) {
-            String[] parts = line.split("\t");
-            words.add(new Word(parts[0].trim(), parts[1].trim()));
-        }
         // 퀴즈 메뉴로 넘기기
         QuizMenu("오답노트 -" + fileNameOnly(fullPath) + "- ", words, false);
     }
 
     public void personalFavoriteQuiz(String favoriteWordsFilename) {
         // 파일에서 단어 읽기
-        ArrayList<String> strings = loadWordsFromFile(favoriteWordsFilename);
-        if (strings == null || strings.isEmpty()) {
+        List<Word> words = loadWords(favoriteWordsFilename);
+        if (words == null || words.isEmpty()) {
             System.out.println("즐겨찾기 단어가 없습니다.");
             return;
         }
-        ArrayList<Word> words = new ArrayList<>();
-        for (String line : strings) {
-            String[] parts = line.split("\t");
-            words.add(new Word(parts[0].trim(), parts[1].trim()));
-        }
 
         // 퀴즈 메뉴로 넘기기
         QuizMenu("즐겨찾기 (" + fileNameOnly(favoriteWordsFilename) + ")", words, false);
@@ -92,19 +114,12 @@ public class QuizManager {
     public void publicWordQuiz() {
         // 파일명을 전체 경로로 변환
         String path = Path.getPublicFilePath();
-        // 파일에서 단어 읽기
-        ArrayList<String> strings = loadWordsFromFile(path);
-        if (strings == null || strings.isEmpty()) {
+        // 파일에서 단어 읽기 (아직 합치지 않은 통계 증가분까지 반영)
+        List<Word> words = loadWords(path);
+        if (words == null || words.isEmpty()) {
             System.out.println("단어가 등록되어 있지 않습니다.");
             return;
         }
-        ArrayList<Word> words = new ArrayList<>();
-        for (String line : strings) {
-            String[] parts = line.split("\t");
-            if (parts.length == 4)
-                words.add(new PublicWord(parts[0].trim(), parts[1].trim(), Integer.parseInt(parts[2].trim()), Integer.parseInt(parts[3].trim())));
-            else words.add(new PublicWord(parts[0].trim(), parts[1].trim()));
-        }
 
         // 퀴즈 메뉴로 넘기기
         QuizMenu("공용 단어장 -" + fileNameOnly(path) + "- ", words, true);
@@ -112,67 +127,198 @@ public class QuizManager {
 
 
     public void publicFrequentlyMissedQuiz() {
-
-        // 2. 전체 경로 변환
         String fullPath = Path.getPublicFilePath();
 
+        // 난이도 색인 가져오기 (처음이거나 파일이 바뀐 경우에만 새로 만듦)
+        // 아주 큰 공용 단어장은 색인을 만들지 않고 고를 때마다 파일을 한 번 훑음
+        boolean streaming = WordBookReader.isLarge(new File(fullPath));
+        DifficultyIndex byRate = null, byConfidence = null;
+        if (!streaming) {
+            try {
+                byRate = PublicStatsStore.get().difficulty(DifficultyIndex.Scoring.RAW);
+                byConfidence = PublicStatsStore.get().difficulty(DifficultyIndex.Scoring.WILSON);
+            } catch (IOException e) {
+                System.out.println("파일을 읽는 중 오류가 발생했습니다: " + e.getMessage());
+                return;
+            }
+            if (byRate.size() == 0) {
+                System.out.println("통계 정보가 있는 단어가 없습니다.");
+                return;
+            }
+        }
+
+        // 출제 범위 선택
+        System.out.print("출제 범위 (엔터: 정답률 50% 미만, 숫자 N: 가장 어려운 N개, a-b: 정답률 a~b%, 0: 취소): ");
+        List<PublicWord> picked;
+        String title;
+        while (true) {
+            String s = sc.nextLine().trim();
+            try {
+                if (s.isEmpty()) {
+                    picked = streaming ? streamMissed(rate -> rate < 50) : byRate.below(50);
+                    title = "정답률 50% 미만";
+                    break;
+                } else if (s.contains("-")) {
+                    String[] range = s.split("-");
+                    double min = Double.parseDouble(range[0].trim());
+                    double max = Double.parseDouble(range[1].trim());
+                    if (range.length == 2 && min <= max) {
+                        picked = streaming ? streamMissed(rate -> rate >= min && rate <= max) : byRate.between(min, max);
+                        title = "정답률 " + range[0].trim() + "~" + range[1].trim() + "%";
+                        break;
+                    }
+                } else {
+                    int n = Integer.parseInt(s);
+                    if (n == 0)
+                        return;
+                    if (n > 0) {
+                        picked = streaming ? streamHardest(n) : byConfidence.hardest(n);
+                        // 출제 수가 적은 단어가 우연히 앞에 오지 않도록 윌슨 상한으로 정렬
+                        title = "가장 어려운 " + n + "개";
+                        break;
+                    }
+                }
+            } catch (NumberFormatException | ArrayIndexOutOfBoundsException ignored) {
+            }
+            System.out.print("다시 입력하세요 (엔터, 숫자 N 또는 a-b): ");
+        }
 
-        // 3. 파일 읽기
-        ArrayList<String> lines = loadWordsFromFile(fullPath);
-        if (lines == null || lines.isEmpty()) {
-            System.out.println("통계 정보가 있는 단어가 없습니다.");
+        if (picked.isEmpty()) {
+            System.out.println(title + "인 단어가 없습니다.");
             return;
         }
 
-        // 4. 정답률 < 0.5 단어만 필터링
-        ArrayList<Word> filtered = new ArrayList<>();
+        QuizMenu(title + " 공용단어장 퀴즈 - " + fileNameOnly(fullPath), new ArrayList<>(picked), true,
+                word -> Math.max(1, 100 - ((PublicWord) word).getCorrectionRate()));
+        // 정답률이 낮은 단어일수록 먼저, 더 자주 출제되도록 가중치 부여 (정답률 100%인 단어도 범위에 있으면 출제되도록 최소 1)
+    }
 
-        for (String line : lines) {
-            String[] parts = line.split("\t");
-            if (parts.length < 2) continue; // eng, kor 미존재
 
-            String eng = parts[0].trim();
-            String kor = parts[1].trim();
+    // 통계 조건(정답률)에 맞는 공용 단어를 publics.txt를 한 번 훑으며 고릅니다. 많으면 POOL_SIZE개를 고르게 뽑음
+    private List<PublicWord> streamMissed(DoublePredicate rate) {
+        try (WordBookReader reader = PublicStatsStore.get().openReader()) {
+            Iterator<PublicWord> matching = reader.stream().map(w -> (PublicWord) w)
+                    .filter(w -> w.questions > 0 && rate.test(w.getCorrectionRate())).iterator();
+            return Sampler.reservoir(matching, POOL_SIZE, ran);
+        } catch (IOException | UncheckedIOException e) {
+            System.out.println("파일을 읽는 중 오류가 발생했습니다: " + e.getMessage());
+            return new ArrayList<>();
+        }
+    }
 
-            int total = 0;
-            int correct = 0;
+    private List<PublicWord> streamHardest(int n) {
+        try (WordBookReader reader = PublicStatsStore.get().openReader()) {
+            return DifficultyIndex.hardest(reader.stream().map(w -> (PublicWord) w).iterator(),
+                    DifficultyIndex.Scoring.WILSON, n);
+        } catch (IOException | UncheckedIOException e) {
+            System.out.println("파일을 읽는 중 오류가 발생했습니다: " + e.getMessage());
+            return new ArrayList<>();
+        }
+    }
 
 
-            if (parts.length >= 3) {
-                try {
-                    total = Integer.parseInt(parts[2].trim());
-                } catch (NumberFormatException ignored) {
-                    System.out.println("통계가 없습니다!");
-                }
-            }
-            if (parts.length >= 4) {
-                try {
-                    correct = Integer.parseInt(parts[3].trim());
-                } catch (NumberFormatException ignored) {
-                    System.out.println("통계가 없습니다!");
-                }
-            }
+    // 간격 반복 복습 - 개인 단어장의 단어 중 복습 시각이 된 단어만, 오래 밀린 순서대로 출제
+    // 빨리 맞힐수록 다음 복습까지의 간격이 길어지고, 틀린 단어는 간격을 처음부터 다시 시작함
+    public void reviewQuiz(ArrayList<String> fileList) {
+        ReviewScheduler scheduler;
+        try {
+            scheduler = ReviewScheduler.load(user.getName());
+        } catch (IOException e) {
+            System.out.println("복습 기록을 읽을 수 없습니다: " + e.getMessage());
+            return;
+        }
 
-            // total==0이면 출제한 적 없으니 제외
-            if (total == 0) continue;
+        ArrayList<Word> words = new ArrayList<>();
+        for (String name : fileList) {
+            List<Word> book = loadWords(Path.getVocaFilePath(user.getName(), name));
+            if (book != null)
+                words.addAll(book);
+        }
+        if (words.isEmpty()) {
+            System.out.println("단어가 등록되어 있지 않습니다.");
+            return;
+        }
 
-            PublicWord word = new PublicWord(eng, kor, total, correct);
+        long now = System.currentTimeMillis();
+        int enrolled = scheduler.enroll(words, now);
+        int due = scheduler.dueCount(now);
+        System.out.printf("\n===== [간격 반복 복습] 오늘 복습할 단어 %d개 (전체 %d개) =====%n", due, enrolled);
 
+        if (due == 0) {
+            long next = scheduler.nextDueTime();
+            if (next > 0)
+                System.out.println("지금 복습할 단어가 없습니다. 다음 복습: "
+                        + LocalDateTime.ofInstant(Instant.ofEpochMilli(next), ZoneId.systemDefault())
+                                .format(DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm")));
+            saveReviewState(scheduler);
+            return;
+        }
 
-            // 정답률 50% 미만인 단어만 포함
-            if (word.getCorrectionRate() < 50) {
-                filtered.add(word);
-            }
+        System.out.printf("이번에 복습할 단어 수를 입력하세요 (1~%d): ", due);
+        int quizNum;
+        while (true) {
+            quizNum = readInt();
+            if (quizNum >= 1)
+                break;
+            System.out.print("1문제 이상 출제해야 합니다. 다시 입력하세요: ");
         }
+        quizNum = Math.min(quizNum, due);
 
-        if (filtered.isEmpty()) {
-            System.out.println("정답률 50% 미만인 단어가 없습니다.");
-            return;
+        int reviewed = 0;
+        this.score = 0;
+        try {
+            while (reviewed < quizNum) {
+                ReviewScheduler.Card card = scheduler.nextDue(System.currentTimeMillis());
+                if (card == null)
+                    break;
+
+                System.out.println("\n[" + (reviewed + 1) + "/" + quizNum + "] " + card.english + "의 뜻은?");
+                long start = System.currentTimeMillis();
+                String answer = sc.nextLine().trim();
+                long elapsed = System.currentTimeMillis() - start;
+
+                AnswerGrader.Verdict verdict = grader.gradeMeaning(answer, new Word(card.english, card.korean));
+                boolean isCorrect = verdict != AnswerGrader.Verdict.WRONG;
+                int quality;
+                if (verdict == AnswerGrader.Verdict.EXACT) {
+                    quality = elapsed < 5_000 ? 5 : elapsed < 15_000 ? 4 : 3;
+                    // 빨리 맞힐수록 쉬운 단어로 판단
+                    System.out.println("정답!");
+                    this.score++;
+                } else if (isCorrect) {
+                    quality = 3;
+                    // 오타가 있었으면 겨우 맞힌 것으로 봄
+                    System.out.println("정답! (오타가 있습니다: " + card.korean + ")");
+                    this.score++;
+                } else {
+                    quality = 1;
+                    System.out.println("오답!");
+                    addToNote(card.english, card.korean);
+                    System.out.println("정답은 " + card.english + " = " + card.korean);
+                }
+
+                scheduler.review(card, quality, System.currentTimeMillis());
+                System.out.println(isCorrect ? "다음 복습: " + card.getInterval() + "일 후" : "잠시 후 다시 복습합니다.");
+                reviewed++;
+            }
+        } finally {
+            saveReviewState(scheduler);
+            // 중간에 오류가 나도 지금까지 복습한 기록은 저장
         }
 
-        QuizMenu("정답률 50% 미만 공용단어장 퀴즈 - " + fileNameOnly(fullPath), filtered, true);
+        if (reviewed > 0)
+            System.out.printf("\n총 %d문제 중 %d개 정답 (정답률 %.1f%%)\n",
+                    reviewed, this.score, 100.0 * this.score / reviewed);
+        createNote();
     }
 
+    private void saveReviewState(ReviewScheduler scheduler) {
+        try {
+            scheduler.save();
+        } catch (IOException e) {
+            System.out.println("복습 기록 저장 중 오류 발생: " + e.getMessage());
+        }
+    }
 
     private void createNote() { // 주어진 문제를 전부 풀고 난 뒤 오답노트 파일 만들기
         if (noteWords.isEmpty()) { // 노트에 추가될 단어가 없으면
@@ -190,12 +336,9 @@ public class QuizManager {
 
         File noteFile = new File(notes, "note-" + formatted + ".txt");
 
-        //텍스트 파일 내에 오답노트 단어들 전부 추가
-        try (PrintWriter pw = new PrintWriter(
-                new OutputStreamWriter(new FileOutputStream(noteFile, false), StandardCharsets.UTF_8))) {
-            for (String word : noteWords) {
-                pw.println(word);
-            }
+        //텍스트 파일 내에 오답노트 단어들 전부 추가 (임시 파일에 다 쓴 뒤 교체하므로 반쯤 쓰인 노트가 남지 않음)
+        try {
+            DurableFiles.replaceLines(noteFile, noteWords);
             System.out.println("오답노트 생성 완료");
         } catch (IOException e) {
             System.out.println("파일 저장 중 오류 발생: " + e.getMessage());
@@ -211,7 +354,12 @@ public class QuizManager {
         }
     }
 
-    private void QuizMenu(String title, ArrayList<Word> words, boolean isPublic) {
+    private void QuizMenu(String title, List<Word> words, boolean isPublic) {
+        QuizMenu(title, words, isPublic, null);
+    }
+
+    // weight가 있으면 가중치에 비례하여 문제를 뽑고, 없으면 모든 단어를 같은 확률로 뽑음
+    private void QuizMenu(String title, List<Word> words, boolean isPublic, ToDoubleFunction<Word> weight) {
         if (words == null || words.isEmpty()) {
             System.out.println("단어가 등록되어 있지 않습니다.");
             return;
@@ -229,35 +377,55 @@ public class QuizManager {
                 break;
 
             switch (mode) {
-                case 1 -> shortAnswerQuestion(words, isPublic);
-                case 2 -> multipleChoiceQuestion(words, isPublic);
+                case 1 -> shortAnswerQuestion(words, isPublic, weight);
+                case 2 -> multipleChoiceQuestion(words, isPublic, weight);
                 default -> System.out.println("잘못된 선택입니다.");
             }
         }
     }
 
-    private ArrayList<String> loadWordsFromFile(String pathStr) {
+    // 단어장 파일을 단어 목록으로 읽습니다. 읽지 못하면 null
+    // 이전에 읽은 뒤 파일이 바뀌지 않았으면 캐시에 있는 목록을 그대로 반환 (여러 퀴즈가 함께 쓰므로 수정 불가)
+    private List<Word> loadWords(String pathStr) {
         try {
-            java.nio.file.Path p = java.nio.file.Paths.get(pathStr);
-            ArrayList<String> out = new ArrayList<>();
-
-            for (String line : java.nio.file.Files.readAllLines(p, StandardCharsets.UTF_8)) {
-                String t = line.trim();
-                if (t.isEmpty() || t.startsWith("#"))
-                    continue;
-                int tab = t.indexOf('\t');
-                if (tab <= 0 || tab == t.length() - 1)
-                    continue;
-                out.add(t);
+            boolean isPublic = pathStr.equals(Path.getPublicFilePath());
+            File file = new File(pathStr);
+            if (WordBookReader.isLarge(file))
+                return sampleWords(file, isPublic);
+            if (isPublic) {
+                PublicStatsStore stats = PublicStatsStore.get();
+                return WordBookCache.get(pathStr, stats.stamp(), () -> parseWords(stats.readLines(), true));
+                // 공용 단어장은 아직 합치지 않은 통계 증가분까지 반영
             }
-            return out;
-
-        } catch (IOException e) {
+            return WordBookCache.get(pathStr, WordBookCache.stampOf(file),
+                    () -> parseWords(VocaJournal.readLines(file), false)); // 저널에 남은 변경 기록까지 반영
+        } catch (IOException | UncheckedIOException e) {
             System.out.println("파일을 읽는 중 오류가 발생했습니다: " + e.getMessage());
             return null;
         }
     }
 
+    // 아주 큰 단어장은 전체를 읽어 두지 않고, 한 번 훑으면서 POOL_SIZE개를 고르게 뽑아 그 안에서 출제 (캐시하지 않음)
+    private List<Word> sampleWords(File file, boolean isPublic) throws IOException {
+        try (WordBookReader reader = isPublic ? PublicStatsStore.get().openReader()
+                : WordBookReader.open(file, WordBookReader.PERSONAL)) {
+            List<Word> pool = Sampler.reservoir(reader, POOL_SIZE, ran);
+            System.out.printf("단어장이 커서 무작위로 고른 %d개 단어 안에서 출제합니다.%n", pool.size());
+            return pool;
+        }
+    }
+
+    static ArrayList<Word> parseWords(List<String> lines, boolean isPublic) {
+        WordBookReader.Decoder decoder = isPublic ? WordBookReader.PUBLIC : WordBookReader.PERSONAL;
+        ArrayList<Word> words = new ArrayList<>(lines.size());
+        for (String line : lines) {
+            Word w = decoder.decode(line);
+            if (w != null)
+                words.add(w);
+        }
+        return words;
+    }
+
     private String fileNameOnly(String path) {
         try {
             java.nio.file.Path p = java.nio.file.Paths.get(path);
@@ -303,123 +471,29 @@ public class QuizManager {
     }
 
 
-    private String getKorStr(ArrayList<String> aKorList) {
-        String korStr = ""; //출력할 정답
-        for (String kor : aKorList) {
-            korStr += kor + "/"; //한국어/한국어2/ ... / 형식
-        }
-        return korStr.substring(0, korStr.length() - 1); //맨 마지막의 /를 지우기
-    }
-
-    private void shortAnswerQuestion(ArrayList<Word> words, boolean isPublic) {
+    private void shortAnswerQuestion(List<Word> words, boolean isPublic, ToDoubleFunction<Word> weight) {
 
         if (words == null) { //받은 리스트에 단어가 하나도 없으면
             System.out.println("단어가 등록되어 있지 않습니다.");
             return;
         }
 
-        // 출제할 문제 수 입력받기
-        System.out.print("출제할 문제 수를 입력하세요: ");
-        int quizNum = 0;
-        while (true) {
-            quizNum = readInt();
-            if (quizNum < 1) {
-                System.out.print("1문제 이상 출제해야 합니다. 다시 입력하세요: ");
-            } else {
-                break;
-            }
-        }
-        if (quizNum > words.size()) {
-            quizNum = words.size(); // 최대 단어 개수까지만
-        }
-
-        ArrayList<Word> mutableWords = new ArrayList<>(words);
-
-        int i = 0;
-        while (!mutableWords.isEmpty() && i < quizNum) {
-
-            int randomIndex = ran.nextInt(mutableWords.size());
-            Word word = mutableWords.get(randomIndex);
-            mutableWords.remove(randomIndex);
-            // aEng (영어), aKor (한국어) 나누기
-            String aEng = word.getEnglish();
-            String aKor = word.getKorean();
-
-            if (aKor.contains("/")) {
-                String[] aKorArr = aKor.split("/");
-                for (String kor : aKorArr) {
-                    word.koreanList.add(kor.trim()); // 슬래시를 기준으로 각 단어들을 리스트에 추가
-                }
-            } else {
-                word.koreanList.add(aKor); // 슬래시가 없다면 한국어 뜻이 하나만 있으므로 aKor만 추가
-            }
-
-            if (isPublic && word instanceof PublicWord) {
-                ((PublicWord) word).questions++;
-            }
-
-            int randquiz = ran.nextInt(2) + 1; //한국어 -> 영어 | 영어 -> 한국어 문제 형식 정하기
-            if (randquiz == 1) { //영어 -> 한국어
-
-                //문제 출력 (형식: [문제 번호/총 문제수] '영어'의 뜻은?)
-                System.out.println("\n[" + (i + 1) + "/" + quizNum + "] " + aEng + "의 뜻은?");
-                String answer = sc.nextLine().trim(); //대답에 모든 공백 지우기
-
-                String[] userAnswers = answer.split("/"); // 슬래시를 기준으로 답 나누기
-                boolean isCorrect = true; //정답인지 아닌지 판별
-
-                for (String userAnswer : userAnswers) { //나눠진 답들 하나씩 볼 때
-                    if (!word.koreanList.contains(userAnswer.trim())) {  // 하나라도 정답에 없으면
-                        isCorrect = false; //오답 처리
-                        break;
-                    }
-                }
+        int quizNum = readQuizNum(words.size());
 
-                if (isCorrect) {
-                    System.out.println("정답!");
-                    if (isPublic && word instanceof PublicWord) {
-                        ((PublicWord) word).correct++;
-                    }
-                    this.score++; //점수 증가
-                } else {
-                    System.out.println("오답!");
-                    addToNote(aEng, aKor); //오답노트에 추가될 단어를 리스트에 추가
-
-                    System.out.println("정답은 " + aEng + " = " + getKorStr(word.koreanList)); //(형식: 정답은 '영어' = '한국어/한국어2/...)
-                }
-
-            } else { //한국어 -> 영어
+        AnswerGrader.Leniency leniency = readLeniency();
+        if (leniency != grader.getLeniency())
+            grader = new AnswerGrader(leniency);
+        // 단계가 같으면 버퍼를 그대로 재사용
 
-                //문제 출력 (형식: [문제 번호/총 문제수] '한국어'를(을) 영어로 하면?)
-                String questionStr = getKorStr(word.koreanList);
-                System.out.println("\n[" + (i + 1) + "/" + quizNum + "] " + "'" + questionStr + "'" + "를(을) 영어로 하면?");
-                String answer = sc.nextLine().trim();
-
-                if (answer.toLowerCase().equals(aEng)) { //입력한 영어와 같다면
-                    System.out.println("정답!");
-                    if (isPublic && word instanceof PublicWord) {
-                        ((PublicWord) word).correct++;
-                    }
-                    this.score++; //점수 증가
-                } else {
-                    System.out.println("오답!");
-                    addToNote(aEng, aKor); //오답노트에 추가될 단어를 리스트에 추가
-                    System.out.println("정답은 " + aEng + " = " + questionStr); //(형식: 정답은 '영어' = '한국어/한국어2/...)
-                }
-            }
-            i++;
-        }
-        // (형식: 총 {문제 수}문제 중 {맞힌 개수}개 정답 (정답률 {소수점 첫째자리까지의 정답률})
-        System.out.printf("\n총 %d문제 중 %d개 정답 (정답률 %.1f%%)\n",
-                quizNum, this.score, 100.0 * this.score / quizNum);
-        if (isPublic) {
-            updateStatistics(words);
-        }
-        createNote(); //퀴즈가 끝난 뒤 오답노트 생성
+        QuizEngine engine = new QuizEngine(words, ran, grader, WordBookCache.distractors(words, ran),
+                DistractorEngine.Strategy.RANDOM);
+        ConsoleResults results = new ConsoleResults(isPublic);
+        this.score = engine.run(QuizEngine.Mode.SHORT_ANSWER, quizNum, weight, this::readAnswer, results);
+        finishQuiz(results.asked, isPublic);
     }
 
 
-    private void multipleChoiceQuestion(ArrayList<Word> words, boolean isPublic) {
+    private void multipleChoiceQuestion(List<Word> words, boolean isPublic, ToDoubleFunction<Word> weight) {
         //단어가 없거나 보기 4개를 만들 수 없는 경우 반환
         if (words == null) {
             System.out.println("단어가 등록되어 있지 않습니다.");
@@ -429,7 +503,18 @@ public class QuizManager {
             return;
         }
 
-        // 출제할 문제 수 입력받기
+        int quizNum = readQuizNum(words.size());
+        DistractorEngine.Strategy strategy = readDistractorStrategy();
+
+        QuizEngine engine = new QuizEngine(words, ran, grader, WordBookCache.distractors(words, ran), strategy);
+        // 같은 단어장이면 지난 퀴즈에서 만든 보기 이웃 표를 그대로 사용
+        ConsoleResults results = new ConsoleResults(isPublic);
+        this.score = engine.run(QuizEngine.Mode.MULTIPLE_CHOICE, quizNum, weight, this::readAnswer, results);
+        finishQuiz(results.asked, isPublic);
+    }
+
+    // 출제할 문제 수를 입력받습니다. (최대 단어 개수까지만)
+    private int readQuizNum(int wordCount) {
         System.out.print("출제할 문제 수를 입력하세요: ");
         int quizNum;
         while (true) {
@@ -440,105 +525,152 @@ public class QuizManager {
                 break;
             }
         }
-        if (quizNum > words.size()) {
-            quizNum = words.size(); // 최대 단어 개수까지만
-        }
-
-        ArrayList<Word> mutableWords = new ArrayList<>(words);
-
-        int i = 0;
-        while (!mutableWords.isEmpty() && i < quizNum) {
-
-            int randomIndex = ran.nextInt(mutableWords.size());
-            Word word = mutableWords.get(randomIndex);
-            mutableWords.remove(randomIndex);
-            String aEng = word.getEnglish();
-            String aKor = word.getKorean();
-
-            if (isPublic && word instanceof PublicWord) {
-                ((PublicWord) word).questions++;
-            }
-
-            // 무작위 temp 배열 생성 (정답 외 보기 용)
-            ArrayList<Word> temp = new ArrayList<>(words);
-            temp.remove(word);
-            Collections.shuffle(temp);
-
-            // 보기 구성
-            ArrayList<Word> choices = new ArrayList<>();
-            choices.add(word);
-            choices.addAll(temp.subList(0, 3));
-
-            //보기 섞기
-            Collections.shuffle(choices);
-
+        return Math.min(quizNum, wordCount);
+    }
 
-            //문제 출력
-            System.out.println("\n[" + (i + 1) + "/" + quizNum + "] " + word.getEnglish() + "의 뜻은?");
+    // 콘솔에서 답을 입력받습니다. 객관식은 1~보기 수 사이의 숫자가 나올 때까지 다시 입력받음
+    // (뜻이 같은 단어가 많으면 보기가 4개보다 적을 수 있음)
+    private String readAnswer(QuizEngine.Question q) {
+        if (q.direction != QuizEngine.Direction.CHOICE)
+            return sc.nextLine().trim(); //대답 앞뒤 공백 지우기
 
-            for (int j = 0; j < choices.size(); j++) {
-                String kor = choices.get(j).getKorean();
-                String showKor = kor.contains("/") ? kor.split("/")[0].trim() : kor; // 뜻 여러 개 중 첫 번째 표시
-                System.out.printf("%d) %s ", j + 1, showKor);
+        while (true) {
+            System.out.printf("답(1~%d): ", q.choices.size());
+            String line = sc.nextLine().trim();
+            try {
+                int choice = Integer.parseInt(line);
+                if (1 <= choice && choice <= q.choices.size())
+                    return line;
+                System.out.printf("1~%d 사이의 숫자를 입력하세요.%n", q.choices.size());
+            } catch (NumberFormatException e) {
+                System.out.println("숫자를 입력하세요.");
             }
+        }
+    }
 
-            //사용자 입력 (1~4)
-            int choice;
-            while (true) {
-                System.out.print("답(1~4): ");
-                String line = sc.nextLine().trim();
-                try {
-                    choice = Integer.parseInt(line);
-                    if (1 <= choice && choice <= 4)
-                        break;
-                    System.out.println("1~4 사이의 숫자를 입력하세요.");
-                } catch (NumberFormatException e) {
-                    System.out.println("숫자를 입력하세요.");
+    // 문제와 채점 결과를 화면에 출력하고, 통계/오답노트에 반영
+    private class ConsoleResults implements QuizEngine.ResultSink {
+        final boolean isPublic;
+        int asked;
+
+        ConsoleResults(boolean isPublic) {
+            this.isPublic = isPublic;
+        }
+
+        @Override
+        public void question(QuizEngine.Question q) {
+            String aEng = q.word.getEnglish();
+            switch (q.direction) {
+                //문제 출력 (형식: [문제 번호/총 문제수] '영어'의 뜻은? / '한국어'를(을) 영어로 하면?)
+                case KOR_TO_ENG -> System.out.println("\n[" + q.number + "/" + q.total + "] " + "'"
+                        + q.word.getMeaningString() + "'" + "를(을) 영어로 하면?");
+                case ENG_TO_KOR -> System.out.println("\n[" + q.number + "/" + q.total + "] " + aEng + "의 뜻은?");
+                case CHOICE -> {
+                    System.out.println("\n[" + q.number + "/" + q.total + "] " + aEng + "의 뜻은?");
+                    for (int j = 0; j < q.choices.size(); j++)
+                        System.out.printf("%d) %s ", j + 1, q.choices.get(j).firstMeaning()); // 뜻 여러 개 중 첫 번째 표시
                 }
             }
-            //정답 확인
-            if (choices.get(choice - 1).equals(word)) {
-                System.out.println("정답!");
-                if (isPublic && word instanceof PublicWord) {
-                    ((PublicWord) word).correct++;
-                }
-                this.score++;
-            } else {
-                //정답 보기 번호 찾기
-                int correctNum = -1;
-                for (int k = 0; k < choices.size(); k++) {
-                    if (choices.get(k).equals(word)) {
-                        correctNum = choices.indexOf(word) + 1;
-                        break;
-                    }
-                }
-                System.out.println("오답!");
-                addToNote(aEng, aKor);
-                System.out.println("정답은 [" + correctNum + "번] " + aEng + " = " + aKor);
+        }
+
+        @Override
+        public void result(QuizEngine.Result r) {
+            asked++;
+            Word word = r.question.word;
+            String aEng = word.getEnglish();
+            if (r.isCorrect()) {
+                if (r.verdict == AnswerGrader.Verdict.EXACT)
+                    System.out.println("정답!");
+                else
+                    System.out.println("정답! (오타가 있습니다: "
+                            + (r.question.direction == QuizEngine.Direction.KOR_TO_ENG ? aEng : word.getMeaningString()) + ")");
+                recordResult(word, isPublic, true);
+                return;
             }
-            i++;
+
+            System.out.println("오답!");
+            recordResult(word, isPublic, false);
+            addToNote(aEng, word.getKorean()); //오답노트에 추가될 단어를 리스트에 추가
+            if (r.question.direction == QuizEngine.Direction.CHOICE)
+                System.out.println("정답은 [" + r.question.answerChoice() + "번] " + aEng + " = " + word.getKorean());
+            else
+                System.out.println("정답은 " + aEng + " = " + word.getMeaningString()); //(형식: 정답은 '영어' = '한국어/한국어2/...)
         }
-        //결과 출력 + 오답노트 생성
+    }
+
+    // 결과 출력 + 통계 저장 + 오답노트 생성
+    private void finishQuiz(int quizNum, boolean isPublic) {
+        if (quizNum == 0)
+            return;
+        // (형식: 총 {문제 수}문제 중 {맞힌 개수}개 정답 (정답률 {소수점 첫째자리까지의 정답률})
         System.out.printf("\n총 %d문제 중 %d개 정답 (정답률 %.1f%%)\n",
                 quizNum, this.score, 100.0 * this.score / quizNum);
         if (isPublic) {
-            updateStatistics(words);
+            updateStatistics();
+        }
+        createNote(); //퀴즈가 끝난 뒤 오답노트 생성
+    }
+
+    // 주관식 오타 허용 단계를 입력받습니다. (엔터만 누르면 이전에 고른 단계)
+    private AnswerGrader.Leniency readLeniency() {
+        AnswerGrader.Leniency[] levels = AnswerGrader.Leniency.values();
+        StringBuilder sb = new StringBuilder("오타 허용 (");
+        for (int j = 0; j < levels.length; j++)
+            sb.append(j + 1).append(": ").append(levels[j].label).append(j + 1 < levels.length ? ", " : "");
+        System.out.print(sb.append(", 엔터: ").append(grader.getLeniency().label).append("): "));
+
+        while (true) {
+            String s = sc.nextLine().trim();
+            if (s.isEmpty())
+                return grader.getLeniency();
+            try {
+                int n = Integer.parseInt(s);
+                if (n >= 1 && n <= levels.length)
+                    return levels[n - 1];
+            } catch (NumberFormatException ignored) {
+            }
+            System.out.printf("1~%d 사이의 숫자를 입력하세요: ", levels.length);
         }
-        createNote();
     }
 
-    private void updateStatistics(ArrayList<Word> list) {
-        try (PrintWriter pw = new PrintWriter(
-                new OutputStreamWriter(new FileOutputStream(Path.getPublicFilePath(), false), StandardCharsets.UTF_8))) {
-            for (Word word : list) {
-                if (word instanceof PublicWord)
-                    pw.println(word);
+    // 오답 보기 유형을 입력받습니다. (엔터만 누르면 무작위)
+    private DistractorEngine.Strategy readDistractorStrategy() {
+        DistractorEngine.Strategy[] strategies = DistractorEngine.Strategy.values();
+        StringBuilder sb = new StringBuilder("오답 보기 유형 (");
+        for (int j = 0; j < strategies.length; j++)
+            sb.append(j + 1).append(": ").append(strategies[j].label).append(j + 1 < strategies.length ? ", " : "");
+        System.out.print(sb.append(", 엔터: 무작위): "));
 
+        while (true) {
+            String s = sc.nextLine().trim();
+            if (s.isEmpty())
+                return DistractorEngine.Strategy.RANDOM;
+            try {
+                int n = Integer.parseInt(s);
+                if (n >= 1 && n <= strategies.length)
+                    return strategies[n - 1];
+            } catch (NumberFormatException ignored) {
             }
+            System.out.printf("1~%d 사이의 숫자를 입력하세요: ", strategies.length);
+        }
+    }
+
+    // 공용 단어의 풀이 결과를 통계 저장소에 기록합니다. (파일에는 퀴즈가 끝날 때 증가분만 씀)
+    private void recordResult(Word word, boolean isPublic, boolean correct) {
+        if (!isPublic || !(word instanceof PublicWord))
+            return;
+        PublicStatsStore.get().record(word.getEnglish(), correct);
+    }
+
+    // 이번 퀴즈의 통계 증가분을 저장합니다.
+    // publics.txt 전체를 다시 쓰지 않으므로 동시에 퀴즈를 푼 다른 사용자의 기록이 지워지지 않고,
+    // 일부 단어만 출제한 퀴즈(자주 틀리는 단어)에서도 나머지 단어가 파일에서 사라지지 않음
+    private void updateStatistics() {
+        try {
+            PublicStatsStore.get().flush();
             System.out.println("단어 통계를 파일에 저장했습니다.");
         } catch (IOException e) {
             System.out.println("단어 통계 저장 중 오류 발생: " + e.getMessage());
         }
     }
 }
-
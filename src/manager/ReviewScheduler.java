@@ -0,0 +1,213 @@
+package manager;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.PriorityQueue;
+
+import data.Word;
+import util.Path;
+
+// 사용자별 간격 반복(SM-2) 복습 스케줄러
+// 단어마다 반복 간격(일), 난이도 계수(ease), 다음 복습 시각을 기록해 두고, 복습 시각이 지난 단어부터 출제합니다.
+// 다음 문제는 복습 시각 순 우선순위 큐(힙)에서 꺼내므로 O(log n)이며,
+// 단어를 복습하면 힙에서 찾아 지우는 대신 새 항목을 넣고 이전 항목은 꺼낼 때 버립니다. (버전 번호로 구분)
+// 상태는 res/<사용자>/review_state.txt 에 "영단어 키\t영단어\t뜻\tease\t간격\t연속 정답\t틀린 횟수\t다음 복습(ms)" 형식으로 저장합니다.
+
+public class ReviewScheduler {
+    private static final long MINUTE = 60_000L;
+    private static final long DAY = 24 * 60 * MINUTE;
+    private static final long RELEARN_DELAY = 10 * MINUTE;
+    // 틀린 단어는 10분 뒤에 다시 출제 (같은 복습 세션이 길면 세션 안에서 다시 나옴)
+
+    private static final double INITIAL_EASE = 2.5;
+    private static final double MIN_EASE = 1.3;
+
+    // 단어 하나의 복습 상태
+    public static class Card {
+        public final String key;
+        public String english;
+        public String korean;
+        double ease = INITIAL_EASE;
+        int interval;
+        // 다음 정답 후의 간격 계산에 쓰는 현재 간격 (일)
+        int repetitions;
+        // 연속으로 맞힌 횟수
+        int lapses;
+        // 틀린 횟수
+        long due;
+        // 다음 복습 시각 (epoch ms)
+        int version;
+        // 복습할 때마다 증가 (힙에 남은 이전 항목 구분용)
+
+        Card(String key, String english, String korean, long due) {
+            this.key = key;
+            this.english = english;
+            this.korean = korean;
+            this.due = due;
+        }
+
+        public int getInterval() {
+            return interval;
+        }
+
+        public long getDue() {
+            return due;
+        }
+    }
+
+    // 힙 항목 (카드의 특정 버전의 복습 시각)
+    private static class Entry {
+        final long due;
+        final Card card;
+        final int version;
+
+        Entry(Card card) {
+            this.due = card.due;
+            this.card = card;
+            this.version = card.version;
+        }
+    }
+
+    private final File file;
+
+    private final HashMap<String, Card> cards = new HashMap<>();
+    // 영단어 키(소문자) -> 복습 상태 (파일에 저장된 모든 단어)
+
+    private final PriorityQueue<Entry> queue = new PriorityQueue<>((a, b) -> Long.compare(a.due, b.due));
+    // 이번 세션에서 출제할 수 있는 단어들의 복습 순서
+
+    private boolean dirty;
+
+    private ReviewScheduler(File file) {
+        this.file = file;
+    }
+
+    // 사용자의 복습 상태를 읽습니다. (파일이 없으면 빈 상태)
+    public static ReviewScheduler load(String username) throws IOException {
+        ReviewScheduler scheduler = new ReviewScheduler(new File(Path.getReviewStateFilePath(username)));
+        if (!scheduler.file.exists())
+            return scheduler;
+
+        for (String line : VocaJournal.readLines(scheduler.file)) {
+            String[] p = line.split("\t");
+            if (p.length < 8)
+                continue;
+            try {
+                Card card = new Card(p[0], p[1], p[2], Long.parseLong(p[7]));
+                card.ease = Double.parseDouble(p[3]);
+                card.interval = Integer.parseInt(p[4]);
+                card.repetitions = Integer.parseInt(p[5]);
+                card.lapses = Integer.parseInt(p[6]);
+                scheduler.cards.put(card.key, card);
+            } catch (NumberFormatException ignored) {
+                // 손상된 줄은 건너뜀 (해당 단어는 새 단어로 다시 등록됨)
+            }
+        }
+        return scheduler;
+    }
+
+    // 이번 세션에서 복습할 단어들을 등록합니다. 처음 보는 단어는 지금 바로 복습할 수 있는 새 카드로 추가
+    // 단어장에서 지워진 단어는 상태는 남겨 두되 출제하지 않음. 등록한 단어 수를 반환
+    public int enroll(List<Word> words, long now) {
+        queue.clear();
+        HashSet<String> seen = new HashSet<>();
+        ArrayList<Entry> entries = new ArrayList<>();
+        for (Word word : words) {
+            String key = word.getEnglish().trim().toLowerCase();
+            if (key.isEmpty() || !seen.add(key))
+                continue;
+            // 여러 단어장에 같은 단어가 있으면 한 번만
+
+            Card card = cards.get(key);
+            if (card == null) {
+                card = new Card(key, word.getEnglish().trim(), word.getKorean().trim(), now);
+                cards.put(key, card);
+                dirty = true;
+            } else if (!card.korean.equals(word.getKorean().trim())) {
+                card.english = word.getEnglish().trim();
+                card.korean = word.getKorean().trim();
+                dirty = true;
+                // 뜻이 수정되었으면 최신 뜻으로 출제
+            }
+            entries.add(new Entry(card));
+        }
+        queue.addAll(entries);
+        return entries.size();
+    }
+
+    // 복습 시각이 지난 다음 단어를 꺼냅니다. 없으면 null (O(log n))
+    public Card nextDue(long now) {
+        while (!queue.isEmpty()) {
+            Entry head = queue.peek();
+            if (head.version != head.card.version) {
+                queue.poll();
+                continue;
+                // 이미 복습해서 새 항목이 들어간 카드의 이전 항목
+            }
+            if (head.due > now)
+                return null;
+            queue.poll();
+            return head.card;
+        }
+        return null;
+    }
+
+    // 복습 시각이 지난 단어 수 (세션 시작 안내용)
+    public int dueCount(long now) {
+        int count = 0;
+        for (Entry e : queue)
+            if (e.version == e.card.version && e.due <= now)
+                count++;
+        return count;
+    }
+
+    // 가장 가까운 다음 복습 시각. 등록된 단어가 없으면 -1
+    public long nextDueTime() {
+        long min = -1;
+        for (Entry e : queue)
+            if (e.version == e.card.version && (min < 0 || e.due < min))
+                min = e.due;
+        return min;
+    }
+
+    // 복습 결과를 반영합니다. quality: 0(전혀 모름) ~ 5(완벽) - SM-2 규칙
+    public void review(Card card, int quality, long now) {
+        quality = Math.max(0, Math.min(5, quality));
+        if (quality >= 3) {
+            if (card.repetitions == 0)
+                card.interval = 1;
+            else if (card.repetitions == 1)
+                card.interval = 6;
+            else
+                card.interval = (int) Math.round(card.interval * card.ease);
+            card.repetitions++;
+            card.due = now + card.interval * DAY;
+        } else {
+            card.repetitions = 0;
+            card.interval = 1;
+            card.lapses++;
+            card.due = now + RELEARN_DELAY;
+        }
+        card.ease = Math.max(MIN_EASE, card.ease + (0.1 - (5 - quality) * (0.08 + (5 - quality) * 0.02)));
+
+        card.version++;
+        queue.add(new Entry(card));
+        dirty = true;
+    }
+
+    // 바뀐 내용이 있으면 파일에 저장합니다. (세션이 끝날 때 한 번)
+    public void save() throws IOException {
+        if (!dirty)
+            return;
+        ArrayList<String> lines = new ArrayList<>(cards.size());
+        for (Card c : cards.values())
+            lines.add(c.key + "\t" + c.english + "\t" + c.korean + "\t" + c.ease + "\t" + c.interval + "\t"
+                    + c.repetitions + "\t" + c.lapses + "\t" + c.due);
+        VocaJournal.writeSnapshot(file, lines);
+        dirty = false;
+    }
+}
@@ -0,0 +1,451 @@
+package manager;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+import java.util.zip.ZipOutputStream;
+
+import util.DurableFiles;
+import util.Metrics;
+import util.Path;
+
+// 사용자 데이터 폴더(res/<사용자>/ : 단어장, 오답노트, 즐겨찾기, 복습 상태)를 zip 하나로 내보내고 되돌리는 기능
+//   내보내기 : 모든 파일을 원하는 경로의 zip으로 (다른 컴퓨터로 옮기거나 보관할 때)
+//   스냅샷   : res/.snapshots/<사용자>/ 에 저장. 마지막 스냅샷 이후 바뀐 파일만 담음 (첫 스냅샷은 전체)
+//   복원     : 내보낸 파일이나 스냅샷 하나를 골라 그 시점의 폴더 상태로 되돌림
+// 파일은 64KB 버퍼로 읽으면서 바로 압축 스트림에 쓰므로 파일 전체를 메모리에 올리지 않습니다.
+//
+// 각 zip의 마지막 항목(.manifest)에는 그 시점의 모든 파일 목록(SHA-256, 크기, 수정 시각, 내용이 든 스냅샷 이름)이 들어 있어
+// 증분 스냅샷 하나만 골라도 이전 스냅샷들에서 나머지 파일을 찾아 복원할 수 있습니다.
+// 자동 생성된 오답노트가 수만 개여도 빠르도록, 크기와 수정 시각이 기록과 같은 파일은 읽지 않고 같은 파일로 봅니다.
+// (크기는 같은데 수정 시각만 다르면 해시를 계산해 실제로 바뀌었는지 확인)
+
+public class SnapshotManager {
+    static final String MANIFEST_ENTRY = ".manifest";
+    private static final String STATE_FILE = "manifest.txt";
+    // 마지막 스냅샷 시점의 파일 목록 (다음 증분 스냅샷의 비교 기준)
+    private static final String PREFIX = "snapshot-";
+    private static final String LEGACY_DIR = "res/snapshots/";
+    // 예전 스냅샷 위치 ("snapshots"라는 사용자의 폴더와 겹쳐서 옮김)
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private static final Metrics.Timer SNAPSHOT_TIME = Metrics.timer("voca_snapshot_seconds", "내보내기/스냅샷 한 번에 걸린 시간");
+    private static final Metrics.Timer RESTORE_TIME = Metrics.timer("voca_restore_seconds", "복원 한 번에 걸린 시간");
+    private static final Metrics.Counter ARCHIVED_BYTES = Metrics.counter("voca_snapshot_bytes_total", "스냅샷에 담은 원본 바이트");
+
+    // 파일 하나의 기록 (경로는 사용자 폴더 기준, '/'로 구분)
+    static final class Entry {
+        final String path;
+        final long size;
+        final long modified;
+        final String hash;
+        final String archive;
+        // 내용이 들어 있는 스냅샷 파일 이름 (zip 안의 목록에서는 ""이면 그 zip 자신)
+
+        Entry(String path, long size, long modified, String hash, String archive) {
+            this.path = path;
+            this.size = size;
+            this.modified = modified;
+            this.hash = hash;
+            this.archive = archive;
+        }
+
+        Entry in(String archive) {
+            return new Entry(path, size, modified, hash, archive);
+        }
+
+        String toLine() {
+            return hash + "\t" + size + "\t" + modified + "\t" + archive + "\t" + path;
+        }
+
+        // 형식이 맞지 않으면 null
+        static Entry parse(String line) {
+            String[] parts = line.split("\t", 5);
+            if (parts.length != 5)
+                return null;
+            try {
+                return new Entry(parts[4], Long.parseLong(parts[1]), Long.parseLong(parts[2]), parts[0], parts[3]);
+            } catch (NumberFormatException e) {
+                return null;
+            }
+        }
+    }
+
+    public static class Report {
+        public final File archive;
+        // 만든 zip (바뀐 파일이 없어 만들지 않았으면 null)
+        public final int files;
+        public final int copied;
+        public final int unchanged;
+        public final int deleted;
+        public final long bytes;
+        public final long elapsedNanos;
+        private final boolean restore;
+
+        Report(boolean restore, File archive, int files, int copied, int unchanged, int deleted, long bytes,
+                long elapsedNanos) {
+            this.restore = restore;
+            this.archive = archive;
+            this.files = files;
+            this.copied = copied;
+            this.unchanged = unchanged;
+            this.deleted = deleted;
+            this.bytes = bytes;
+            this.elapsedNanos = elapsedNanos;
+        }
+
+        @Override
+        public String toString() {
+            String time = String.format("%.1f ms", elapsedNanos / 1e6);
+            if (restore)
+                return String.format("파일 %d개 중 %d개 복원 (%.1f KB), 이미 같은 파일 %d개, 삭제 %d개 - %s", files, copied,
+                        bytes / 1024.0, unchanged, deleted, time);
+            if (archive == null)
+                return String.format("지난 스냅샷 이후 바뀐 파일이 없습니다. (파일 %d개 확인, %s)", files, time);
+            return String.format("%s: 파일 %d개 중 %d개 저장 (%.1f KB), 바뀌지 않은 파일 %d개, 삭제된 파일 %d개 - %s",
+                    archive.getPath(), files, copied, bytes / 1024.0, unchanged, deleted, time);
+        }
+    }
+
+    private final File root;
+    private final File snapshotDir;
+
+    public SnapshotManager(String username) {
+        this.root = new File(Path.getUserDirPath(username));
+        this.snapshotDir = new File(Path.getSnapshotDirPath(username));
+        moveLegacySnapshots(username);
+    }
+
+    // 예전 위치에 남은 스냅샷과 기록을 새 위치로 옮깁니다. (스냅샷 이름만 옮기므로 그 폴더의 다른 파일은 건드리지 않음)
+    private void moveLegacySnapshots(String username) {
+        File legacy = new File(LEGACY_DIR + username);
+        File[] list = legacy.listFiles((d, name) -> (name.startsWith(PREFIX) && name.endsWith(".zip")) || name.equals(STATE_FILE));
+        if (list == null || list.length == 0 || snapshotDir.exists())
+            return;
+        try {
+            snapshotDir.mkdirs();
+            for (File f : list)
+                DurableFiles.move(f, new File(snapshotDir, f.getName()));
+            legacy.delete();
+            new File(LEGACY_DIR).delete();
+            // 비어 있을 때만 지워짐
+        } catch (IOException e) {
+            System.out.println("이전 스냅샷을 옮기지 못했습니다: " + e.getMessage());
+        }
+    }
+
+    // 모든 파일을 target(zip)으로 내보냅니다. 스냅샷 기록은 바꾸지 않음
+    public Report export(File target) throws IOException {
+        long start = SNAPSHOT_TIME.start();
+        TreeMap<String, BasicFileAttributes> files = scan();
+        Report report = writeArchive(target, files, new ArrayList<>(files.keySet()), new TreeMap<>(), 0, start);
+        SNAPSHOT_TIME.stop(start);
+        return report;
+    }
+
+    // 스냅샷을 만듭니다. full이 아니면 마지막 스냅샷 이후 바뀐(추가/수정된) 파일만 담고, 바뀐 것이 없으면 만들지 않음
+    public Report snapshot(boolean full) throws IOException {
+        long start = SNAPSHOT_TIME.start();
+        TreeMap<String, Entry> previous = full ? new TreeMap<>() : readState();
+        TreeMap<String, BasicFileAttributes> files = scan();
+
+        TreeMap<String, Entry> kept = new TreeMap<>();
+        ArrayList<String> changed = new ArrayList<>();
+        HashMap<String, Boolean> archiveExists = new HashMap<>();
+        byte[] buffer = new byte[BUFFER_SIZE];
+
+        for (Map.Entry<String, BasicFileAttributes> f : files.entrySet()) {
+            String path = f.getKey();
+            long size = f.getValue().size();
+            long modified = f.getValue().lastModifiedTime().toMillis();
+            Entry prev = previous.get(path);
+
+            if (prev == null || prev.size != size
+                    || !archiveExists.computeIfAbsent(prev.archive, a -> new File(snapshotDir, a).isFile())) {
+                changed.add(path);
+                continue;
+            }
+            // 새 파일, 크기가 바뀐 파일, 내용이 든 스냅샷이 지워진 파일은 다시 담음
+
+            if (prev.modified == modified)
+                kept.put(path, prev);
+            else if (prev.hash.equals(hashOf(new File(root, path), buffer)))
+                kept.put(path, new Entry(path, size, modified, prev.hash, prev.archive));
+            // 수정 시각만 바뀌고 내용은 같음
+            else
+                changed.add(path);
+        }
+
+        int deleted = 0;
+        for (String path : previous.keySet())
+            if (!files.containsKey(path))
+                deleted++;
+
+        if (!previous.isEmpty() && changed.isEmpty() && deleted == 0 && kept.equals(previous)) {
+            SNAPSHOT_TIME.stop(start);
+            return new Report(false, null, files.size(), 0, kept.size(), 0, 0, System.nanoTime() - start);
+        }
+        // 수정 시각만 바뀐 파일이 있으면 기록을 새로 남기기 위해 (내용 없는) 스냅샷을 만듦
+
+        snapshotDir.mkdirs();
+        File archive = newArchiveFile();
+        Report report = writeArchive(archive, files, changed, kept, deleted, start);
+
+        ArrayList<String> state = new ArrayList<>(kept.size());
+        for (Entry e : kept.values())
+            state.add(e.archive.isEmpty() ? e.in(archive.getName()).toLine() : e.toLine());
+        // writeArchive가 kept에 새로 담은 파일까지 채워 줌
+        DurableFiles.replaceLines(new File(snapshotDir, STATE_FILE), state);
+        SNAPSHOT_TIME.stop(start);
+        return report;
+    }
+
+    // 만들어 둔 스냅샷 (오래된 것부터)
+    public List<File> snapshots() {
+        File[] list = snapshotDir.listFiles((d, name) -> name.startsWith(PREFIX) && name.endsWith(".zip"));
+        ArrayList<File> out = new ArrayList<>();
+        if (list != null)
+            out.addAll(List.of(list));
+        out.sort((a, b) -> a.getName().compareTo(b.getName()));
+        return out;
+    }
+
+    // archive(내보낸 파일 또는 스냅샷)의 시점으로 사용자 폴더를 되돌립니다.
+    // 크기와 수정 시각이 기록과 같은 파일은 건너뛰고, 목록에 없는 파일은 지웁니다.
+    // 파일마다 임시 파일에 풀고 해시를 확인한 뒤 이름을 바꾸므로, 도중에 실패해도 반쯤 쓰인 파일은 남지 않음
+    public Report restore(File archive) throws IOException {
+        long start = RESTORE_TIME.start();
+        TreeMap<String, Entry> manifest = readManifestOf(archive);
+        TreeMap<String, BasicFileAttributes> current = scan();
+
+        TreeMap<String, List<Entry>> bySource = new TreeMap<>();
+        int unchanged = 0;
+        for (Entry e : manifest.values()) {
+            BasicFileAttributes attrs = current.get(e.path);
+            if (attrs != null && attrs.size() == e.size && attrs.lastModifiedTime().toMillis() == e.modified) {
+                unchanged++;
+                continue;
+            }
+            bySource.computeIfAbsent(e.archive, k -> new ArrayList<>()).add(e);
+        }
+        // 같은 zip에 든 파일끼리 모아 zip을 한 번씩만 엶
+
+        byte[] buffer = new byte[BUFFER_SIZE];
+        int copied = 0;
+        long bytes = 0;
+        for (Map.Entry<String, List<Entry>> group : bySource.entrySet()) {
+            File source = group.getKey().isEmpty() ? archive : new File(archive.getAbsoluteFile().getParentFile(), group.getKey());
+            if (!source.isFile())
+                throw new IOException("복원에 필요한 스냅샷이 없습니다: " + source.getPath());
+            try (ZipFile zip = new ZipFile(source)) {
+                for (Entry e : group.getValue()) {
+                    ZipEntry ze = zip.getEntry(e.path);
+                    if (ze == null)
+                        throw new IOException(source.getName() + "에 " + e.path + " 파일이 없습니다.");
+                    try (InputStream in = zip.getInputStream(ze)) {
+                        extract(in, e, buffer);
+                    }
+                    copied++;
+                    bytes += e.size;
+                }
+            }
+        }
+
+        int deleted = 0;
+        for (String path : current.keySet()) {
+            if (!manifest.containsKey(path)) {
+                Files.deleteIfExists(new File(root, path).toPath());
+                deleted++;
+            }
+        }
+        RESTORE_TIME.stop(start);
+        return new Report(true, archive, manifest.size(), copied, unchanged, deleted, bytes, System.nanoTime() - start);
+    }
+
+    // files 중 include에 든 파일의 내용과, 모든 파일의 목록(.manifest)을 target에 씁니다.
+    // manifest에는 담지 않는(이전 스냅샷에 든) 파일의 기록이 들어 오고, 담은 파일의 기록이 더해짐
+    private Report writeArchive(File target, TreeMap<String, BasicFileAttributes> files, List<String> include,
+            TreeMap<String, Entry> manifest, int deleted, long start) throws IOException {
+        int kept = manifest.size();
+        byte[] buffer = new byte[BUFFER_SIZE];
+        MessageDigest digest = sha256();
+        long[] bytes = new long[1];
+
+        DurableFiles.replace(target, out -> {
+            ZipOutputStream zip = new ZipOutputStream(out);
+            for (String path : include) {
+                long modified = files.get(path).lastModifiedTime().toMillis();
+                ZipEntry ze = new ZipEntry(path);
+                ze.setTime(modified);
+                zip.putNextEntry(ze);
+
+                long size = 0;
+                try (InputStream in = Files.newInputStream(new File(root, path).toPath())) {
+                    int n;
+                    while ((n = in.read(buffer)) > 0) {
+                        zip.write(buffer, 0, n);
+                        digest.update(buffer, 0, n);
+                        size += n;
+                    }
+                }
+                // 스캔한 뒤에 파일이 바뀌었더라도 실제로 담은 내용의 크기와 해시를 기록
+                zip.closeEntry();
+                manifest.put(path, new Entry(path, size, modified, hex(digest.digest()), ""));
+                bytes[0] += size;
+            }
+
+            zip.putNextEntry(new ZipEntry(MANIFEST_ENTRY));
+            for (Entry e : manifest.values())
+                zip.write((e.toLine() + "\n").getBytes(StandardCharsets.UTF_8));
+            zip.closeEntry();
+            zip.finish();
+            // out은 DurableFiles가 디스크에 내린 뒤 닫음
+        });
+        ARCHIVED_BYTES.add(bytes[0]);
+        return new Report(false, target, files.size(), include.size(), kept, deleted, bytes[0],
+                System.nanoTime() - start);
+    }
+
+    private void extract(InputStream in, Entry e, byte[] buffer) throws IOException {
+        File target = new File(root, e.path);
+        target.getParentFile().mkdirs();
+        File tmp = new File(target.getPath() + ".tmp");
+        MessageDigest digest = sha256();
+
+        try (OutputStream out = new FileOutputStream(tmp, false)) {
+            int n;
+            while ((n = in.read(buffer)) > 0) {
+                out.write(buffer, 0, n);
+                digest.update(buffer, 0, n);
+            }
+        }
+        // 파일마다 fsync 하면 수만 개를 복원할 때 너무 느려지므로 이름 바꾸기만 함 (중단되면 다시 복원하면 됨)
+        if (!hex(digest.digest()).equals(e.hash)) {
+            tmp.delete();
+            throw new IOException(e.path + " 파일의 내용이 스냅샷 기록과 다릅니다. (손상된 스냅샷)");
+        }
+        DurableFiles.move(tmp, target);
+        target.setLastModified(e.modified);
+        // 다음 복원/스냅샷에서 같은 파일로 알아볼 수 있도록 기록된 수정 시각으로 맞춤
+    }
+
+    // 사용자 폴더의 모든 파일 (경로 순, 쓰는 중인 임시 파일 제외)
+    private TreeMap<String, BasicFileAttributes> scan() throws IOException {
+        TreeMap<String, BasicFileAttributes> files = new TreeMap<>();
+        if (!root.isDirectory())
+            return files;
+        java.nio.file.Path base = root.toPath();
+        Files.walkFileTree(base, new SimpleFileVisitor<>() {
+            @Override
+            public FileVisitResult visitFile(java.nio.file.Path file, BasicFileAttributes attrs) {
+                if (attrs.isRegularFile() && !file.getFileName().toString().endsWith(".tmp"))
+                    files.put(base.relativize(file).toString().replace(File.separatorChar, '/'), attrs);
+                return FileVisitResult.CONTINUE;
+            }
+        });
+        return files;
+        // 파일마다 속성을 한 번만 읽음 (walkFileTree가 함께 넘겨 줌)
+    }
+
+    private TreeMap<String, Entry> readState() throws IOException {
+        TreeMap<String, Entry> state = new TreeMap<>();
+        File file = new File(snapshotDir, STATE_FILE);
+        if (!file.exists())
+            return state;
+        for (String line : Files.readAllLines(file.toPath(), StandardCharsets.UTF_8)) {
+            Entry e = Entry.parse(line);
+            if (e != null)
+                state.put(e.path, e);
+        }
+        return state;
+    }
+
+    private static TreeMap<String, Entry> readManifestOf(File archive) throws IOException {
+        try (ZipFile zip = new ZipFile(archive)) {
+            ZipEntry ze = zip.getEntry(MANIFEST_ENTRY);
+            if (ze == null)
+                throw new IOException(archive.getName() + "은(는) 이 프로그램에서 만든 내보내기/스냅샷 파일이 아닙니다.");
+            TreeMap<String, Entry> manifest = new TreeMap<>();
+            try (InputStream in = zip.getInputStream(ze)) {
+                for (String line : new String(in.readAllBytes(), StandardCharsets.UTF_8).split("\n")) {
+                    Entry e = Entry.parse(line);
+                    if (e == null)
+                        continue;
+                    if (e.path.startsWith("/") || ("/" + e.path + "/").contains("/../") || e.archive.contains("/"))
+                        throw new IOException("잘못된 경로가 들어 있습니다: " + e.path);
+                    // 사용자 폴더 밖의 파일을 덮어쓰지 않도록
+                    manifest.put(e.path, e);
+                }
+            }
+            return manifest;
+        }
+    }
+
+    private File newArchiveFile() {
+        String name = PREFIX + LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss"));
+        File file = new File(snapshotDir, name + ".zip");
+        for (int i = 2; file.exists(); i++)
+            file = new File(snapshotDir, name + "-" + i + ".zip");
+        // 같은 초에 여러 번 만들어도 이름 순서가 만든 순서가 되도록
+        return file;
+    }
+
+    private static String hashOf(File file, byte[] buffer) throws IOException {
+        MessageDigest digest = sha256();
+        try (InputStream in = Files.newInputStream(file.toPath())) {
+            int n;
+            while ((n = in.read(buffer)) > 0)
+                digest.update(buffer, 0, n);
+        }
+        return hex(digest.digest());
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+            // 모든 JDK에 들어 있는 알고리즘
+        }
+    }
+
+    private static String hex(byte[] bytes) {
+        StringBuilder sb = new StringBuilder(bytes.length * 2);
+        for (byte b : bytes)
+            sb.append(Character.forDigit((b >> 4) & 0xF, 16)).append(Character.forDigit(b & 0xF, 16));
+        return sb.toString();
+    }
+
+    // 사용법: java -cp <classes> manager.SnapshotManager <사용자> export <zip 파일> | snapshot [full] | restore <zip 파일>
+    public static void main(String[] args) throws IOException {
+        if (args.length < 2) {
+            System.out.println("사용법: SnapshotManager <사용자> export <zip 파일> | snapshot [full] | restore <zip 파일>");
+            return;
+        }
+        SnapshotManager manager = new SnapshotManager(args[0]);
+        switch (args[1]) {
+            case "export" -> System.out.println(manager.export(new File(args[2])));
+            case "snapshot" -> System.out.println(manager.snapshot(args.length > 2 && args[2].equals("full")));
+            case "restore" -> System.out.println(manager.restore(new File(args[2])));
+            default -> System.out.println("알 수 없는 명령입니다: " + args[1]);
+        }
+    }
+}
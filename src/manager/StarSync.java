@@ -0,0 +1,145 @@
+package manager;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import util.Metrics;
+
+// 여러 단어장/오답노트 파일에서 즐겨찾기 토글(*)을 병렬로 제거하는 클래스
+// 파일마다 읽기 -> 토글 제거 -> (바뀐 경우) 임시 파일에 쓰고 이름 바꾸기 를 하나의 작업으로 묶어
+// CPU 코어 수만큼의 스레드에서 나눠 처리합니다. 파일 하나는 한 작업에서만 다루므로 동시에 같은 파일을 쓰는 일은 없습니다.
+
+public class StarSync {
+
+    // 동기화 결과 요약
+    public static class Report {
+        public final int scanned;
+        // 읽어서 확인한 파일 수
+        public final int rewritten;
+        // 토글을 제거하여 다시 쓴 파일 수
+        public final long elapsedMillis;
+        public final List<String> changedFiles;
+        public final List<File> failedFiles;
+        // 읽기/쓰기에 실패하여 토글이 남아 있을 수 있는 파일 (색인에서 지우면 안 됨)
+
+        Report(int scanned, int rewritten, long elapsedMillis, List<String> changedFiles, List<File> failedFiles) {
+            this.scanned = scanned;
+            this.rewritten = rewritten;
+            this.elapsedMillis = elapsedMillis;
+            this.changedFiles = changedFiles;
+            this.failedFiles = failedFiles;
+        }
+    }
+
+    private static final Metrics.Timer SYNC_TIME = Metrics.timer("voca_star_sync_seconds", "즐겨찾기 해제 동기화 전체 시간");
+    private static final Metrics.Counter FILES_SCANNED = Metrics.counter("voca_star_sync_files_scanned_total", "동기화하며 훑은 파일 수");
+    private static final Metrics.Counter FILES_REWRITTEN = Metrics.counter("voca_star_sync_files_rewritten_total", "동기화하며 다시 쓴 파일 수");
+
+    // 주어진 파일들에서 words(소문자 영단어)에 해당하는 토글을 모두 제거합니다.
+    public static Report removeStars(Collection<File> files, Set<String> words) {
+        long start = System.nanoTime();
+
+        LinkedHashMap<String, File> unique = new LinkedHashMap<>();
+        for (File f : files)
+            unique.putIfAbsent(f.toPath().toAbsolutePath().normalize().toString(), f);
+        // 같은 파일이 두 번 들어오면 두 작업이 같은 파일을 쓰게 되므로 중복 제거
+
+        ArrayList<String> changed = new ArrayList<>();
+        ArrayList<File> failed = new ArrayList<>();
+        int scanned = 0;
+        if (!unique.isEmpty()) {
+            int threads = Math.min(unique.size(), Runtime.getRuntime().availableProcessors());
+            ExecutorService pool = Executors.newFixedThreadPool(threads);
+            try {
+                ArrayList<Future<Boolean>> futures = new ArrayList<>();
+                ArrayList<File> order = new ArrayList<>(unique.values());
+                for (File file : order)
+                    futures.add(pool.submit(() -> removeStarsInFile(file, words)));
+
+                for (int i = 0; i < futures.size(); i++) {
+                    try {
+                        if (futures.get(i).get())
+                            changed.add(order.get(i).getName());
+                        scanned++;
+                    } catch (Exception e) {
+                        System.out.println(order.get(i).getName() + " 파일을 동기화하지 못했습니다: " + e.getMessage());
+                        failed.add(order.get(i));
+                    }
+                }
+            } finally {
+                pool.shutdown();
+            }
+        }
+
+        SYNC_TIME.stop(start);
+        FILES_SCANNED.add(scanned);
+        FILES_REWRITTEN.add(changed.size());
+        long elapsed = (System.nanoTime() - start) / 1_000_000;
+        return new Report(scanned, changed.size(), elapsed, changed, failed);
+    }
+
+    // 파일 하나를 처리합니다. 바뀐 내용이 있으면 true
+    private static boolean removeStarsInFile(File file, Set<String> words) throws IOException {
+        if (!file.exists())
+            return false;
+        // 색인 이후 삭제된 파일
+
+        boolean noteFile = isNoteFile(file);
+        ArrayList<String> lines = VocaJournal.readLines(file);
+        // 다른 세션의 저널이 남아있을 수 있으므로 저널까지 반영해서 읽음
+
+        boolean fileChanged = false;
+        for (int i = 0; i < lines.size(); i++) {
+            String unstarred = unstar(lines.get(i), words, noteFile);
+            if (unstarred != null) {
+                lines.set(i, unstarred);
+                fileChanged = true;
+            }
+        }
+
+        if (fileChanged)
+            VocaJournal.writeSnapshot(file, lines);
+        // 임시 파일에 쓰고 이름을 바꾸므로 다른 파일 작업과 섞이거나 반쯤 쓰인 파일이 남지 않음
+        return fileChanged;
+    }
+
+    // 경로로 토글 방식(Prefix/Suffix) 결정 - 오답노트 폴더의 파일은 Suffix(apple*)
+    static boolean isNoteFile(File file) {
+        return file.getPath().replace('\\', '/').contains("/notes/");
+    }
+
+    // 라인이 words 중 하나의 토글된 라인이면 토글을 제거한 라인을, 아니면 null을 반환합니다.
+    // isNoteFile 플래그에 따라 Prefix/Suffix 모드로 판단
+    static String unstar(String line, Set<String> words, boolean isNoteFile) {
+        if (isNoteFile) {
+            // 오답노트: 뒤에 *가 붙었는지 확인 (apple*)
+            String[] parts = line.split("\t", 2);
+            String fileEng = parts[0].trim();
+            String fileKor = parts.length > 1 ? parts[1].trim() : "";
+            if (fileEng.endsWith("*")) {
+                String cleanEng = fileEng.substring(0, fileEng.length() - 1);
+                if (words.contains(cleanEng.toLowerCase()))
+                    return cleanEng + "\t" + fileKor;
+                // Suffix '*' 제거하고 원상복구
+            }
+        } else {
+            // 개인 단어장: 앞에 *가 붙었는지 확인 (*apple)
+            if (line.startsWith("*")) {
+                String cleanLine = line.substring(1);
+                String cleanEng = cleanLine.split("\t", 2)[0].trim();
+                if (words.contains(cleanEng.toLowerCase()))
+                    return cleanLine;
+                // Prefix '*' 제거하고 원상복구
+            }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,234 @@
+package manager;
+
+import java.io.BufferedInputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+
+import data.User;
+
+// 사용자 정보 파일(users.txt)을 관리하는 저장소
+// 처음 사용할 때 파일을 한 번 훑어 "이름 -> 파일 안의 위치(바이트 오프셋, 길이)" 해시 인덱스만 만들고,
+// User 객체는 실제로 찾을 때 해당 위치만 읽어서 만듭니다. (사용자가 많아도 로그인은 O(1))
+// 스트릭 갱신은 파일 전체를 다시 쓰지 않고 해당 줄만 제자리에서 덮어씁니다.
+// 새 기록이 더 짧으면 스트릭 칸 뒤를 공백으로 채우고(읽을 때 trim 되므로 형식은 그대로), 더 길면 끝에 덧붙인 뒤 기존 줄을 공백으로 지웁니다.
+
+public class UserRepository {
+    private final File file;
+
+    private LinkedHashMap<String, Slot> slots;
+    // 이름 -> 파일 안의 위치 (파일 순서 유지, 처음 사용할 때 만듦)
+
+    private final HashMap<String, User> loaded = new HashMap<>();
+    // 이미 읽어서 만든 User 객체
+
+    // 사용자 한 명의 기록 위치 (줄바꿈 문자는 길이에서 제외)
+    private static class Slot {
+        long offset;
+        int length;
+
+        Slot(long offset, int length) {
+            this.offset = offset;
+            this.length = length;
+        }
+    }
+
+    public UserRepository(File file) {
+        this.file = file;
+    }
+
+    public synchronized boolean isEmpty() {
+        ensureLoaded();
+        return slots.isEmpty();
+    }
+
+    public synchronized int size() {
+        ensureLoaded();
+        return slots.size();
+    }
+
+    // 등록된 사용자 이름 목록 (파일 순서)
+    public synchronized List<String> names() {
+        ensureLoaded();
+        return new ArrayList<>(slots.keySet());
+    }
+
+    public synchronized boolean exists(String name) {
+        ensureLoaded();
+        return slots.containsKey(name);
+    }
+
+    // 이름으로 사용자를 찾습니다. 없거나 기록이 손상되었으면 null
+    public synchronized User find(String name) {
+        ensureLoaded();
+        User user = loaded.get(name);
+        if (user != null)
+            return user;
+
+        Slot slot = slots.get(name);
+        if (slot == null)
+            return null;
+
+        String line;
+        try (RandomAccessFile raf = new RandomAccessFile(file, "r")) {
+            byte[] bytes = new byte[slot.length];
+            raf.seek(slot.offset);
+            raf.readFully(bytes);
+            line = new String(bytes, StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            System.out.println("사용자 정보를 읽을 수 없습니다: " + e.getMessage());
+            return null;
+        }
+
+        user = parse(line);
+        if (user == null) {
+            System.out.println("손상된 사용자 데이터가 있어 건너뜁니다: " + line);
+            return null;
+        }
+        loaded.put(name, user);
+        return user;
+    }
+
+    // 새 사용자를 파일 끝에 추가합니다. 이미 있는 이름이면 false
+    public synchronized boolean create(User user) {
+        ensureLoaded();
+        if (slots.containsKey(user.getName()))
+            return false;
+        try (RandomAccessFile raf = new RandomAccessFile(file, "rw")) {
+            slots.put(user.getName(), append(raf, format(user, 0)));
+            raf.getFD().sync();
+        } catch (IOException e) {
+            System.out.println("사용자 정보 저장 실패: " + e.getMessage());
+            return false;
+        }
+        loaded.put(user.getName(), user);
+        return true;
+    }
+
+    // 사용자의 스트릭/접속일을 파일에 반영합니다. (해당 줄만 덮어씀)
+    public synchronized boolean update(User user) {
+        ensureLoaded();
+        Slot slot = slots.get(user.getName());
+        if (slot == null)
+            return create(user);
+
+        try (RandomAccessFile raf = new RandomAccessFile(file, "rw")) {
+            byte[] record = format(user, 0);
+            if (record.length <= slot.length) {
+                raf.seek(slot.offset);
+                raf.write(format(user, slot.length - record.length));
+                // 길이가 같거나 짧으면 제자리 덮어쓰기
+            } else {
+                Slot moved = append(raf, record);
+                raf.getFD().sync();
+                // 새 줄을 먼저 디스크에 남김 (여기서 죽어도 같은 이름은 처음 것을 쓰므로 기존 기록이 그대로 유효)
+
+                byte[] blank = new byte[slot.length];
+                Arrays.fill(blank, (byte) ' ');
+                raf.seek(slot.offset);
+                raf.write(blank);
+                // 기존 줄은 공백으로 지움 (읽을 때 칸이 모자라 건너뛰게 됨)
+
+                slot.offset = moved.offset;
+                slot.length = moved.length;
+            }
+            raf.getFD().sync();
+        } catch (IOException e) {
+            System.out.println("사용자 정보 업데이트 중 오류: " + e.getMessage());
+            return false;
+        }
+        loaded.put(user.getName(), user);
+        return true;
+    }
+
+    // 파일 끝에 한 줄을 덧붙이고 그 위치를 반환합니다.
+    private Slot append(RandomAccessFile raf, byte[] record) throws IOException {
+        long end = raf.length();
+        if (end > 0) {
+            raf.seek(end - 1);
+            if (raf.read() != '\n') {
+                raf.write("\r\n".getBytes(StandardCharsets.UTF_8));
+                end += 2;
+            }
+            // 마지막 줄에 줄바꿈이 없으면 먼저 붙임
+        }
+        raf.seek(end);
+        raf.write(record);
+        raf.write("\r\n".getBytes(StandardCharsets.UTF_8));
+        return new Slot(end, record.length);
+    }
+
+    // 파일을 한 번 훑어 이름 -> 위치 인덱스를 만듭니다. (User 객체는 만들지 않음)
+    private void ensureLoaded() {
+        if (slots != null)
+            return;
+        slots = new LinkedHashMap<>();
+        if (!file.exists())
+            return;
+        // 사용자 정보 파일이 없으면 빈 저장소
+
+        try (BufferedInputStream in = new BufferedInputStream(new FileInputStream(file), 1 << 16)) {
+            byte[] buf = new byte[256];
+            int len = 0;
+            long pos = 0, lineStart = 0;
+            int c;
+            while ((c = in.read()) != -1) {
+                pos++;
+                if (c == '\n') {
+                    index(buf, len, lineStart);
+                    lineStart = pos;
+                    len = 0;
+                } else {
+                    if (len == buf.length)
+                        buf = Arrays.copyOf(buf, len * 2);
+                    buf[len++] = (byte) c;
+                }
+            }
+            if (len > 0)
+                index(buf, len, lineStart);
+        } catch (IOException e) {
+            System.out.println("사용자 정보를 읽을 수 없습니다: " + e.getMessage());
+        }
+    }
+
+    private void index(byte[] buf, int len, long offset) {
+        if (len > 0 && buf[len - 1] == '\r')
+            len--;
+        String line = new String(buf, 0, len, StandardCharsets.UTF_8);
+        String[] data = line.split("\t");
+        if (data.length < 4)
+            return;
+        // 데이터가 불완전하면(이름, 비번, 스트릭, 날짜 중 하나라도 없으면) 건너뜀
+
+        slots.putIfAbsent(data[0].trim(), new Slot(offset, len));
+        // 같은 이름이 여러 번 있으면 처음 것을 사용
+    }
+
+    private static User parse(String line) {
+        String[] data = line.split("\t");
+        if (data.length < 4)
+            return null;
+        try {
+            return new User(data[0].trim(), data[1].trim(), Integer.parseInt(data[2].trim()),
+                    LocalDate.parse(data[3].trim()));
+        } catch (Exception e) {
+            return null;
+            // 날짜 형식 등이 잘못된 경우
+        }
+    }
+
+    // 파일에 쓸 한 줄(줄바꿈 제외)을 만듭니다. padding 만큼 스트릭 칸 뒤를 공백으로 채움
+    private static byte[] format(User u, int padding) {
+        String line = u.getName() + "\t" + u.getPassword() + "\t" + u.getStreak() + " ".repeat(padding) + "\t"
+                + u.getLastDate();
+        return line.getBytes(StandardCharsets.UTF_8);
+    }
+}
@@ -1,16 +1,18 @@
 package manager;
 
 import java.io.File;
-import java.io.FileNotFoundException;
-import java.io.FileOutputStream;
 import java.io.IOException;
-import java.io.OutputStreamWriter;
-import java.io.PrintWriter;
 import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
 import java.util.Scanner;
 
+import data.WordBook;
+import util.Path;
+
 // 단어장 파일 관리의 기본 기능을 제공하는 추상 클래스입니다. 
 // PersonalVocaFileManager가 이 클래스를 상속받아 구체적인 기능을 확장합니다.
 
@@ -24,11 +26,30 @@ public abstract class VocaFileManager {
     String username;
     // 현재 로그인한 사용자 이름 (자식 클래스에서 동기화 로직에 사용됨)
 
+    WordBook wordBook;
+    // 파일 내용을 메모리에 올려 둔 단어장 모델 (처음 사용할 때 한 번만 읽고 매니저가 살아있는 동안 유지)
+
+    final VocaJournal journal;
+    // 단어 하나를 바꿀 때마다 파일 전체 대신 변경 기록만 덧붙이는 저널
+
+    private final boolean statsBacked;
+    // 공용 단어장(publics.txt)인지 여부
+    // 통계 칸은 다른 프로세스의 퀴즈가 PublicStatsStore 잠금 아래에서 계속 바꾸므로, 저널 없이 바꿀 때마다 잠금을 잡고 저장함
+
+    private HashSet<String> loadedKeys;
+    // 공용 단어장을 마지막으로 읽거나 저장했을 때 있던 단어들 (그 뒤 다른 곳에서 추가된 단어를 구분하기 위함)
+
     // 생성자: 관리할 파일 경로와 사용자 이름을 받습니다.
     VocaFileManager(String fileName, String username) {
         vocaFile = new File(fileName);
         // 파일 객체 초기화
 
+        journal = new VocaJournal(vocaFile);
+        // 파일 옆에 저널(파일명.journal)을 두고 변경 기록을 남김
+
+        statsBacked = vocaFile.getAbsoluteFile().toPath().normalize()
+                .equals(new File(Path.getPublicFilePath()).getAbsoluteFile().toPath().normalize());
+
         this.username = username;
         // 사용자 이름 저장
     }
@@ -36,6 +57,104 @@ public abstract class VocaFileManager {
     // 자식 클래스에서 구현될 메뉴 진입점
     abstract public void menu();
 
+    // 단어장 모델을 반환합니다.
+    // 아직 읽지 않았다면 파일(+ 남아있는 저널)을 한 번만 읽어 인덱스를 구성하고, 이후에는 메모리의 모델을 그대로 사용함
+    WordBook loadWordBook() {
+        if (wordBook != null)
+            return wordBook;
+
+        try {
+            if (statsBacked) {
+                wordBook = new WordBook(PublicStatsStore.get().readLines());
+                rememberKeys();
+                // 잠금을 잡고 읽음 (표시되는 통계는 로그의 증가분까지 반영된 값)
+            } else
+                wordBook = new WordBook(journal.load());
+        } catch (IOException e) {
+            System.out.println("파일을 읽을 수 없습니다.");
+            return null;
+            // 읽기 실패 시 null 반환 (빈 내용으로 덮어쓰는 사고 방지)
+        }
+        return wordBook;
+    }
+
+    // 단어를 맨 뒤에 추가하고 저널에 기록합니다.
+    boolean addLine(String line) {
+        wordBook.add(line);
+        return logChange(() -> journal.logAdd(line));
+    }
+
+    // 라인을 교체하고 저널에 기록합니다. (뜻 병합, 수정, 즐겨찾기 토글)
+    boolean setLine(int idx, String line) {
+        wordBook.set(idx, line);
+        return logChange(() -> journal.logSet(idx, line));
+    }
+
+    // 여러 라인을 한 번에 교체합니다. 저널에는 한 번의 쓰기로 기록 (일괄 즐겨찾기 토글 등)
+    boolean setLines(Map<Integer, String> changes) {
+        if (changes.isEmpty())
+            return true;
+        for (Map.Entry<Integer, String> e : changes.entrySet())
+            wordBook.set(e.getKey(), e.getValue());
+        return logChange(() -> journal.logSets(changes));
+    }
+
+    // 라인을 삭제하고 저널에 기록합니다.
+    boolean removeLine(int idx) {
+        wordBook.remove(idx);
+        return logChange(() -> journal.logRemove(idx));
+    }
+
+    // 메모리의 단어장 내용으로 파일 전체를 다시 만듭니다. (컴팩션)
+    boolean saveWordBook() {
+        try {
+            if (statsBacked) {
+                wordBook = new WordBook(PublicStatsStore.get().saveEdited(wordBook.lines(), loadedKeys));
+                rememberKeys();
+                // 통계 칸은 파일의 최신 값으로 바뀌고, 다른 곳에서 추가된 단어가 뒤에 붙을 수 있으므로 저장한 내용으로 다시 만듦
+            } else
+                journal.compact(wordBook.lines());
+            return true;
+        } catch (IOException e) {
+            System.out.println("파일을 쓸 수 없습니다: " + e.getMessage());
+            return false;
+        }
+    }
+
+    // 단어장 관리 세션이 끝날 때 호출합니다.
+    // 저널은 이미 디스크에 있으므로 그대로 두고, 컴팩션 기준을 넘긴 채 남아 있을 때만(이전 컴팩션 실패 등) 스냅샷을 다시 만듦
+    void closeWordBook() {
+        if (wordBook != null && !statsBacked && journal.needsCompaction())
+            saveWordBook();
+    }
+
+    private void rememberKeys() {
+        loadedKeys = new HashSet<>();
+        for (String line : wordBook.lines())
+            loadedKeys.add(WordBook.keyOf(line));
+    }
+
+    private interface JournalWrite {
+        void write() throws IOException;
+    }
+
+    private boolean logChange(JournalWrite write) {
+        if (statsBacked)
+            return saveWordBook();
+        // 공용 단어장은 저널을 쓰지 않고 바로 저장 (합치기가 저널을 지워도 편집 내용이 사라지지 않도록)
+        try {
+            write.write();
+            if (journal.needsCompaction())
+                return saveWordBook();
+            // 기록이 일정 개수 이상 쌓이면 스냅샷을 새로 만듦
+            return true;
+        } catch (IOException e) {
+            System.out.println("변경 내용 기록 중 오류: " + e.getMessage());
+            return saveWordBook();
+            // 저널에 쓰지 못했다면 파일 전체 저장으로 대신함
+        }
+    }
+
     // 단어 추가 기능
     void addVoca() {
         System.out.println("==== 단어 추가 ====");
@@ -77,125 +196,85 @@ public abstract class VocaFileManager {
             // 빈 값 입력 시 중단
         }
 
-        File parent = vocaFile.getParentFile();
-        // 파일이 저장될 상위 디렉토리 확인
-
-        if (parent != null && !parent.exists())
-            parent.mkdirs();
-        // 상위 디렉토리가 없으면 생성함
-
-        ArrayList<String> lines = new ArrayList<>();
-        // 파일 내용을 저장할 리스트
-
-        // 기존 파일 내용을 읽어오기
-        if (vocaFile.exists()) {
-            try (Scanner fileScanner = new Scanner(vocaFile, StandardCharsets.UTF_8)) {
-                while (fileScanner.hasNextLine()) {
-                    lines.add(fileScanner.nextLine());
-                }
-            } catch (IOException e) {
-                System.out.println("파일 읽기 중 오류 발생: " + e.getMessage());
-                // 읽기 권한 문제 등 예외 처리
-            }
-        }
-
-        boolean updated = false;
-        // 기존 단어에 뜻을 추가했는지 여부 확인기
-
-        // 중복 단어 검사 및 병합 로직
-        for (int i = 0; i < lines.size(); i++) {
-            String[] parts = lines.get(i).split("\t", 2);
-            // 탭으로 단어와 뜻 분리
-
-            // parts[0]에는 토글 문자(* 등)가 포함될 수 있으므로, 순수 영단어 비교를 위해 정제 필요할 수 있음
-            // 하지만 addVoca는 기본적으로 '새 단어'를 다루므로 여기선 단순 비교 수행
-            // 개인 단어장 관리 섹션에서 조금 더 자세하게 다룸
-            if (parts[0].trim().equalsIgnoreCase(eng)) {
-                // 이미 존재하는 영단어 발견 시,
-
-                ArrayList<String> meanings = new ArrayList<>(Arrays.asList(parts[1].trim().split("/")));
-                // 기존 뜻들을 리스트로 변환
-
-                if (meanings.contains(kor)) {
-                    System.out.println("이미 존재하는 단어입니다! 다시 확인해 주세요.");
-                    return;
-                    // 영단어와 뜻이 모두 같으면 추가 중단
-                }
+        WordBook book = loadWordBook();
+        if (book == null)
+            return;
+        // 메모리의 단어장 모델 사용 (파일을 다시 읽지 않음)
 
-                meanings.add(kor);
-                // 새로운 뜻 추가
+        // 중복 단어 검사 및 병합 로직 - 해시 인덱스로 O(1) 조회
+        int existing = book.indexOf(eng);
+        if (existing >= 0) {
+            // 이미 존재하는 영단어 발견 시,
+            String line = book.get(existing);
 
-                lines.set(i, eng + "\t" + String.join("/", meanings));
-                // 해당 라인 업데이트
+            ArrayList<String> meanings = new ArrayList<>(Arrays.asList(WordBook.meaningsOf(line).split("/")));
+            // 기존 뜻들을 리스트로 변환 (공용 단어장의 통계 칸은 빼고 비교, 저장할 때 그대로 다시 붙음)
 
-                updated = true;
-                break;
-                // for 루프 종료
+            if (meanings.contains(kor)) {
+                System.out.println("이미 존재하는 단어입니다! 다시 확인해 주세요.");
+                return;
+                // 영단어와 뜻이 모두 같으면 추가 중단
             }
-        }
 
-        // 변경된 내용을 파일에 덮어쓰기
-        try (PrintWriter pw = new PrintWriter(
-                new OutputStreamWriter(new FileOutputStream(vocaFile, false), StandardCharsets.UTF_8))) {
-            // 덮어쓰기 모드(false)로 파일 열기
+            meanings.add(kor);
+            // 새로운 뜻 추가
 
-            if (updated) {
-                // 기존 단어에 뜻만 추가된 경우
+            // 해당 라인 업데이트 (영단어 칸의 즐겨찾기 토글은 그대로 유지)
+            if (setLine(existing, WordBook.withKorean(line, String.join("/", meanings))))
                 System.out.println("이미 존재하는 영단어입니다. 뜻을 추가합니다.");
-                for (String line : lines)
-                    pw.println(line);
-                // 전체 라인 다시 쓰기
-            } else {
-                // 완전히 새로운 단어인 경우
-                for (String line : lines)
-                    pw.println(line);
-                // 기존 내용 쓰고
-                pw.printf("%s\t%s%n", eng, kor);
-                // 새 단어 맨 뒤에 추가
+        } else {
+            // 완전히 새로운 단어인 경우
+            // 새 단어 맨 뒤에 추가
+            if (addLine(eng + "\t" + kor))
                 System.out.println("단어가 추가되었습니다.");
-            }
+        }
+    }
 
+    // CSV/TSV 파일의 단어들을 한 번에 추가하는 기능 (검사 규칙과 뜻 병합은 단어 추가와 같음)
+    void bulkImport() {
+        System.out.println("==== 대량 가져오기 ====");
+        System.out.print("가져올 파일 경로 (.csv는 쉼표, 그 외는 탭 구분 / 엔터: 취소): ");
+        String path = scanner.nextLine().trim();
+        if (path.isEmpty())
+            return;
+        File source = new File(path);
+        if (!source.isFile()) {
+            System.out.println("'" + path + "' 파일이 없습니다.");
+            return;
+        }
+
+        try {
+            System.out.println(new BulkImporter(vocaFile).importFrom(source));
         } catch (IOException e) {
-            System.out.println("단어 추가 중 오류: " + e.getMessage());
-            // 파일 쓰기 실패 시 에러 메시지
+            System.out.println("가져오기 중 오류가 발생했습니다: " + e.getMessage());
         }
+        wordBook = null;
+        // 가져오기가 저널까지 반영해 파일을 통째로 다시 만들었으므로 다음에 사용할 때 다시 읽음
     }
 
     // 단어 삭제 기능
     void removeVoca() {
         System.out.println("==== 단어 삭제 ====");
-        ArrayList<String> lines = new ArrayList<>();
 
-        if (!vocaFile.exists()) {
+        if (!vocaFile.exists() && wordBook == null) {
             System.out.println("단어장이 존재하지 않습니다.");
             return;
             // 파일이 없으면 삭제할 것도 없음
         }
 
-        try (Scanner fileScanner = new Scanner(vocaFile, StandardCharsets.UTF_8.name())) {
-            while (fileScanner.hasNextLine()) {
-                lines.add(fileScanner.nextLine());
-            }
-            // 파일 전체 읽기
-        } catch (FileNotFoundException e) {
-            System.out.println("파일을 읽을 수 없습니다.");
+        WordBook book = loadWordBook();
+        if (book == null)
             return;
-            // 파일 접근 불가 시 종료
-        }
+        // 파일 접근 불가 시 종료
 
-        if (lines.isEmpty()) {
+        if (book.isEmpty()) {
             System.out.println("단어가 등록되어 있지 않습니다.");
             return;
             // 내용이 텅텅 비어있음
         }
 
         // 삭제할 목록 출력
-        for (int i = 0; i < lines.size(); i++) {
-            String[] parts = lines.get(i).split("\t", 2);
-            String eng = parts.length > 0 ? parts[0].trim() : "";
-            String kor = parts.length > 1 ? parts[1].trim() : "";
-            System.out.printf("%d) %s = %s%n", i + 1, eng, kor);
-        }
+        printBook(book);
 
         System.out.print("삭제할 번호를 입력하세요 (q 입력시 취소): ");
         String input = scanner.nextLine().trim();
@@ -216,59 +295,37 @@ public abstract class VocaFileManager {
             // 숫자가 아닌 입력 처리
         }
 
-        if (idx < 0 || idx >= lines.size()) {
+        if (idx < 0 || idx >= book.size()) {
             System.out.println("유효하지 않은 번호입니다.");
             return;
             // 범위 벗어난 번호 처리
         }
 
-        lines.remove(idx);
-        // 리스트에서 해당 항목 제거
-
-        // 변경된 리스트를 파일에 덮어쓰기
-        try (PrintWriter pw = new PrintWriter(
-                new OutputStreamWriter(new FileOutputStream(vocaFile, false), StandardCharsets.UTF_8))) {
-            for (String line : lines) {
-                pw.println(line);
-            }
+        if (removeLine(idx))
             System.out.println("삭제가 완료되었습니다.");
-        } catch (IOException e) {
-            System.out.println("파일을 쓸 수 없습니다: " + e.getMessage());
-            // 저장 실패 시 에러 메시지
-        }
+        // 메모리 모델에서 해당 항목 제거 (저널에 삭제 기록만 남김)
     }
 
     // 단어 수정 기능
     void editVoca() {
         System.out.println("==== 단어 수정 ====");
-        ArrayList<String> lines = new ArrayList<>();
 
-        if (!vocaFile.exists()) {
+        if (!vocaFile.exists() && wordBook == null) {
             System.out.println("단어장이 존재하지 않습니다.");
             return;
         }
 
-        try (Scanner fileScanner = new Scanner(vocaFile, StandardCharsets.UTF_8.name())) {
-            while (fileScanner.hasNextLine()) {
-                lines.add(fileScanner.nextLine());
-            }
-        } catch (FileNotFoundException e) {
-            System.out.println("파일을 읽을 수 없습니다.");
+        WordBook book = loadWordBook();
+        if (book == null)
             return;
-        }
 
-        if (lines.isEmpty()) {
+        if (book.isEmpty()) {
             System.out.println("단어가 등록되어 있지 않습니다.");
             return;
         }
 
         // 수정할 목록 출력
-        for (int i = 0; i < lines.size(); i++) {
-            String[] parts = lines.get(i).split("\t", 2);
-            String eng = parts.length > 0 ? parts[0].trim() : "";
-            String kor = parts.length > 1 ? parts[1].trim() : "";
-            System.out.printf("%d) %s = %s%n", i + 1, eng, kor);
-        }
+        printBook(book);
 
         System.out.print("수정할 번호를 입력하세요 (q 입력시 취소): ");
         String input = scanner.nextLine().trim();
@@ -286,15 +343,15 @@ public abstract class VocaFileManager {
             return;
         }
 
-        if (idx < 0 || idx >= lines.size()) {
+        if (idx < 0 || idx >= book.size()) {
             System.out.println("유효하지 않은 번호입니다.");
             return;
         }
 
-        // 선택된 단어의 현재 정보 가져오기
-        String[] parts = lines.get(idx).split("\t", 2);
-        String curEng = parts.length > 0 ? parts[0].trim() : "";
-        String curKor = parts.length > 1 ? parts[1].trim() : "";
+        // 선택된 단어의 현재 정보 가져오기 (공용 단어장의 통계 칸은 뜻에서 제외)
+        String curLine = book.get(idx);
+        String curEng = curLine.split("\t", 2)[0].trim();
+        String curKor = WordBook.meaningsOf(curLine);
 
         System.out.println("현재: " + curEng + " = " + curKor);
 
@@ -333,67 +390,41 @@ public abstract class VocaFileManager {
             newKor = curKor;
         // 입력 없으면 기존 값 유지
 
-        // 중복 검사 (수정하려는 단어가 이미 다른 곳에 존재하는지)
-        for (int i = 0; i < lines.size(); i++) {
-            if (i == idx)
-                continue;
-            // 자기 자신은 제외하고 비교
-
-            String[] p = lines.get(i).split("\t", 2);
-            if (p[0].trim().equalsIgnoreCase(newEng)) {
-                // 같은 철자의 영단어가 다른 라인에 존재함
-
-                if (p[1].trim().equals(newKor)) {
-                    System.out.println("이미 존재하는 단어입니다! 다시 확인해 주세요.");
-                    return;
-                    // 뜻까지 완전히 같으면 중복이므로 거부
-                }
-
-                // 영단어는 같지만 뜻이 다른 경우 -> 병합 유도 또는 경고 출력하기
-                // 여기서는 병합하여 저장하는 로직 수행
-                ArrayList<String> list = new ArrayList<>(Arrays.asList(p[1].trim().split("/")));
-                if (list.contains(newKor)) {
-                    System.out.println("이미 해당 뜻이 존재합니다! 다시 확인해 주세요.");
-                    return;
-                }
-
-                list.add(newKor);
-                lines.set(i, newEng + "\t" + String.join("/", list));
-                // 기존에 있던 다른 라인에 뜻을 추가하고 병합 후 종료 처리
-                System.out.println("이미 존재하는 영단어입니다. 해당 항목에 뜻을 추가했습니다.");
+        // 중복 검사 (수정하려는 단어가 이미 다른 곳에 존재하는지) - 해시 인덱스로 O(1) 조회
+        int dup = book.indexOf(newEng);
+        if (dup >= 0 && dup != idx) {
+            // 같은 철자의 영단어가 다른 라인에 존재함
+            String dupKor = WordBook.meaningsOf(book.get(dup));
 
-                // 기존 idx 라인의 저장이나 꼬임 문제를 피하기 위해 여기서는 파일 저장을 수행하고 종료.
+            if (dupKor.equals(newKor)) {
+                System.out.println("이미 존재하는 단어입니다! 다시 확인해 주세요.");
+                return;
+                // 뜻까지 완전히 같으면 중복이므로 거부
+            }
 
-                try (PrintWriter pw = new PrintWriter(
-                        new OutputStreamWriter(new FileOutputStream(vocaFile, false), StandardCharsets.UTF_8))) {
-                    for (String line : lines) {
-                        pw.println(line);
-                    }
-                } catch (IOException e) {
-                    System.out.println("파일 저장 실패: " + e.getMessage());
-                }
+            // 영단어는 같지만 뜻이 다른 경우 -> 병합하여 저장하는 로직 수행
+            ArrayList<String> list = new ArrayList<>(Arrays.asList(dupKor.split("/")));
+            if (list.contains(newKor)) {
+                System.out.println("이미 해당 뜻이 존재합니다! 다시 확인해 주세요.");
                 return;
             }
-        }
 
-        // 중복이 없으면 해당 라인을 새 내용으로 교체
-        lines.set(idx, newEng + "\t" + newKor);
+            list.add(newKor);
+            // 기존에 있던 다른 라인에 뜻을 추가하고 병합 후 종료 처리
+            if (setLine(dup, newEng + "\t" + String.join("/", list) + WordBook.statsOf(book.get(dup))))
+                System.out.println("이미 존재하는 영단어입니다. 해당 항목에 뜻을 추가했습니다.");
+            return;
+        }
 
-        // 파일 저장
-        try (PrintWriter pw = new PrintWriter(
-                new OutputStreamWriter(new FileOutputStream(vocaFile, false), StandardCharsets.UTF_8))) {
-            for (String line : lines)
-                pw.println(line);
+        // 중복이 없으면 해당 라인을 새 내용으로 교체 (저널에 기록)
+        if (setLine(idx, newEng + "\t" + newKor + WordBook.statsOf(curLine)))
             System.out.println("수정이 완료되었습니다.");
-        } catch (IOException e) {
-            System.out.println("파일을 쓸 수 없습니다: " + e.getMessage());
-        }
     }
 
     // 단어 검색 기능
     void searchVoca() {
         System.out.println("==== 단어 검색 ====");
-        if (!vocaFile.exists()) {
+        if (!vocaFile.exists() && wordBook == null) {
             System.out.println("단어장이 존재하지 않습니다.");
             return;
         }
@@ -407,33 +438,32 @@ public abstract class VocaFileManager {
             return;
         }
 
-        boolean found = false;
-        // 검색 결과 존재 여부 플래그
-
-        try (Scanner fileScanner = new Scanner(vocaFile, StandardCharsets.UTF_8.name())) {
-            int idx = 0;
-            while (fileScanner.hasNextLine()) {
-                String line = fileScanner.nextLine();
-                idx++;
-
-                String[] parts = line.split("\t", 2);
-                String eng = parts.length > 0 ? parts[0].trim() : "";
-                String kor = parts.length > 1 ? parts[1].trim() : "";
-
-                // 영단어 또는 뜻에 검색어가 포함되어 있는지 확인
-                if (eng.toLowerCase().contains(q) ||
-                        kor.toLowerCase().contains(q)) {
-                    System.out.printf("%d) %s = %s%n", idx, eng, kor);
-                    found = true;
-                }
-            }
-        } catch (FileNotFoundException e) {
-            System.out.println("파일을 읽을 수 없습니다.");
+        WordBook book = loadWordBook();
+        if (book == null)
             return;
+
+        List<Integer> hits = book.search(q);
+        // n-gram 색인으로 영단어 또는 뜻에 검색어가 포함된 단어를 찾음 (일치도 순으로 정렬됨)
+
+        for (int i : hits) {
+            String[] parts = book.get(i).split("\t", 2);
+            String eng = parts.length > 0 ? parts[0].trim() : "";
+            String kor = parts.length > 1 ? parts[1].trim() : "";
+            System.out.printf("%d) %s = %s%n", i + 1, eng, kor);
         }
 
-        if (!found) {
+        if (hits.isEmpty()) {
             System.out.println("검색 결과가 없습니다.");
         }
     }
-}
\ No newline at end of file
+
+    // 단어장 목록을 번호와 함께 출력합니다.
+    void printBook(WordBook book) {
+        for (int i = 0; i < book.size(); i++) {
+            String[] parts = book.get(i).split("\t", 2);
+            String eng = parts.length > 0 ? parts[0].trim() : "";
+            String kor = parts.length > 1 ? parts[1].trim() : "";
+            System.out.printf("%d) %s = %s%n", i + 1, eng, kor);
+        }
+    }
+}
@@ -0,0 +1,258 @@
+package manager;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.CRC32;
+
+import util.DurableFiles;
+import util.Metrics;
+
+// 단어장 파일의 변경 내역을 옆의 저널 파일(파일명.journal)에 한 줄씩 덧붙여 기록하는 클래스
+// 단어 하나를 바꿀 때마다 파일 전체를 다시 쓰지 않고, 변경 기록(레코드)만 추가합니다.
+// 원본 탭 구분 파일(스냅샷)은 저널이 스냅샷 크기의 절반만큼 쌓였을 때만 한 번에 다시 만듭니다(컴팩션).
+// 스냅샷을 다시 쓰는 비용(스냅샷 크기)을 그동안 덧붙인 기록들이 나눠 내므로, 편집 한 번의 비용은 평균적으로 레코드 크기에 비례합니다.
+// 세션이 끝나도 저널은 그대로 두고, 다음에 읽을 때 재생해서 이어서 씁니다.
+//
+// 저널 형식
+//   첫 줄  : VJ1\t<스냅샷 CRC32>\t<스냅샷 길이>   (어떤 스냅샷 위에 쌓인 기록인지 표시)
+//   레코드 : <내용 CRC32>\t<내용>
+//   내용   : A\t<라인>        단어 추가
+//            S\t<번호>\t<라인> 라인 교체 (뜻 병합, 수정, 즐겨찾기 토글)
+//            D\t<번호>        라인 삭제
+// 쓰는 도중 프로그램이 죽어 마지막 레코드가 잘려도 CRC가 맞지 않는 레코드부터는 무시하므로 기존 내용은 보존됩니다.
+
+public class VocaJournal {
+    private static final long COMPACT_MIN_BYTES = 64 * 1024;
+    // 작은 단어장에서 너무 자주 컴팩션하지 않도록 하는 최소 저널 크기
+
+    private static final String HEADER = "VJ1";
+
+    private static final Metrics.Timer READ_TIME = Metrics.timer("voca_file_read_seconds", "단어장 파일 읽기(저널 재생 포함) 시간");
+    private static final Metrics.Counter READ_BYTES = Metrics.counter("voca_file_read_bytes_total", "단어장 스냅샷에서 읽은 바이트");
+    private static final Metrics.Counter LINES_PARSED = Metrics.counter("voca_file_lines_parsed_total", "단어장에서 읽은 라인 수");
+    private static final Metrics.Timer WRITE_TIME = Metrics.timer("voca_file_write_seconds", "스냅샷 다시 쓰기(sync 포함) 시간");
+    private static final Metrics.Counter WRITE_BYTES = Metrics.counter("voca_file_write_bytes_total", "스냅샷에 쓴 바이트");
+    private static final Metrics.Timer APPEND_TIME = Metrics.timer("voca_journal_append_seconds", "저널 레코드 덧붙이기(sync 포함) 시간");
+    private static final Metrics.Counter APPEND_BYTES = Metrics.counter("voca_journal_append_bytes_total", "저널에 덧붙인 바이트");
+
+    private final File file;
+    // 스냅샷 (기존 탭 구분 .txt 파일)
+
+    private final File journalFile;
+    // 변경 기록이 쌓이는 저널 파일
+
+    private long baseCrc;
+    private long baseLength;
+    // 현재 저널이 기준으로 삼는 스냅샷의 CRC와 길이
+
+    private long journalBytes;
+    // 현재 저널 파일의 크기 (헤더 포함)
+
+    public VocaJournal(File file) {
+        this.file = file;
+        this.journalFile = journalFileOf(file);
+    }
+
+    public static File journalFileOf(File file) {
+        return new File(file.getPath() + ".journal");
+    }
+
+    // 스냅샷을 읽고 남아있는 저널을 재생하여 현재 내용을 만듭니다.
+    // 이전 세션이 비정상 종료되어 저널이 남아있었다면 재생한 결과로 곧바로 스냅샷을 다시 만듦
+    public ArrayList<String> load() throws IOException {
+        long start = READ_TIME.start();
+        byte[] bytes = file.exists() ? Files.readAllBytes(file.toPath()) : new byte[0];
+        baseCrc = crcOf(bytes);
+        baseLength = bytes.length;
+        journalBytes = 0;
+
+        ArrayList<String> lines = decodeLines(bytes);
+        boolean clean = true;
+        if (journalFile.exists()) {
+            clean = replay(lines, baseCrc, baseLength);
+            journalBytes = journalFile.length();
+        }
+        READ_TIME.stop(start);
+        countRead(bytes, lines);
+
+        if (!clean)
+            compact(lines);
+        // 다른 스냅샷의 저널이거나 끝이 잘린 저널이면 이어서 쓸 수 없으므로 재생한 내용으로 스냅샷을 새로 만들고 저널을 비움
+        // (끝까지 온전한 저널은 그대로 두고 이어서 덧붙임)
+        return lines;
+    }
+
+    // 스냅샷과 저널을 합친 현재 내용을 읽기만 합니다. (다른 클래스에서 단어장 파일을 읽을 때 사용)
+    public static ArrayList<String> readLines(File file) throws IOException {
+        long start = READ_TIME.start();
+        byte[] bytes = file.exists() ? Files.readAllBytes(file.toPath()) : new byte[0];
+        ArrayList<String> lines = decodeLines(bytes);
+        if (journalFileOf(file).exists())
+            new VocaJournal(file).replay(lines, crcOf(bytes), bytes.length);
+        READ_TIME.stop(start);
+        countRead(bytes, lines);
+        return lines;
+    }
+
+    private static void countRead(byte[] bytes, List<String> lines) {
+        READ_BYTES.add(bytes.length);
+        LINES_PARSED.add(lines.size());
+    }
+
+    // 파일 전체를 새 내용으로 교체합니다.
+    // 임시 파일에 먼저 쓴 뒤 이름을 바꾸므로 쓰는 도중 죽어도 기존 파일은 그대로 남음
+    // 스냅샷이 바뀌면 기존 저널은 의미가 없으므로 함께 삭제
+    public static void writeSnapshot(File file, List<String> lines) throws IOException {
+        new VocaJournal(file).compact(lines);
+    }
+
+    public void logAdd(String line) throws IOException {
+        append("A\t" + line);
+    }
+
+    public void logSet(int index, String line) throws IOException {
+        append("S\t" + index + "\t" + line);
+    }
+
+    public void logRemove(int index) throws IOException {
+        append("D\t" + index);
+    }
+
+    // 여러 라인 추가를 한 번의 쓰기(와 한 번의 sync)로 기록합니다.
+    public void logAdds(List<String> lines) throws IOException {
+        ArrayList<String> payloads = new ArrayList<>(lines.size());
+        for (String line : lines)
+            payloads.add("A\t" + line);
+        append(payloads);
+    }
+
+    // 여러 라인 교체를 한 번의 쓰기(와 한 번의 sync)로 기록합니다.
+    public void logSets(Map<Integer, String> changes) throws IOException {
+        ArrayList<String> payloads = new ArrayList<>(changes.size());
+        for (Map.Entry<Integer, String> e : changes.entrySet())
+            payloads.add("S\t" + e.getKey() + "\t" + e.getValue());
+        append(payloads);
+    }
+
+    // 저널이 스냅샷 크기의 절반(최소 64KB) 이상 쌓였는지
+    public boolean needsCompaction() {
+        return journalBytes >= Math.max(COMPACT_MIN_BYTES, baseLength / 2);
+    }
+
+    // 현재 내용으로 스냅샷을 다시 만들고 저널을 비웁니다.
+    public void compact(List<String> lines) throws IOException {
+        long start = WRITE_TIME.start();
+        CRC32 crc = new CRC32();
+        long[] length = new long[1];
+        byte[] newLine = System.lineSeparator().getBytes(StandardCharsets.UTF_8);
+
+        DurableFiles.replace(file, out -> {
+            for (String line : lines) {
+                byte[] b = line.getBytes(StandardCharsets.UTF_8);
+                out.write(b);
+                out.write(newLine);
+                crc.update(b);
+                crc.update(newLine);
+                length[0] += b.length + newLine.length;
+            }
+        });
+        // 임시 파일에 쓰고 디스크에 내린 뒤 교체
+
+        Files.deleteIfExists(journalFile.toPath());
+        // 저널 삭제 전에 죽더라도 헤더의 CRC가 새 스냅샷과 달라 재생되지 않음
+
+        baseCrc = crc.getValue();
+        baseLength = length[0];
+        journalBytes = 0;
+        WRITE_TIME.stop(start);
+        WRITE_BYTES.add(length[0]);
+    }
+
+    private void append(String payload) throws IOException {
+        append(List.of(payload));
+    }
+
+    private void append(List<String> payloads) throws IOException {
+        if (payloads.isEmpty())
+            return;
+        StringBuilder sb = new StringBuilder();
+        if (!journalFile.exists()) {
+            sb.append(HEADER).append('\t').append(Long.toHexString(baseCrc)).append('\t').append(baseLength).append('\n');
+            // 새 저널은 기준 스냅샷 정보를 먼저 기록
+        }
+        for (String payload : payloads)
+            sb.append(Long.toHexString(crcOf(payload.getBytes(StandardCharsets.UTF_8)))).append('\t').append(payload)
+                    .append('\n');
+
+        long start = APPEND_TIME.start();
+        byte[] bytes = sb.toString().getBytes(StandardCharsets.UTF_8);
+        DurableFiles.append(journalFile, bytes);
+        // -Dvoca.fsync.group 을 주면 편집마다 fsync를 기다리지 않고 모아서 내림
+        APPEND_TIME.stop(start);
+        APPEND_BYTES.add(bytes.length);
+        journalBytes += bytes.length;
+    }
+
+    // 저널의 레코드를 순서대로 적용합니다. 기준 스냅샷이 다르거나 손상된 레코드를 만나면 거기서 멈춤
+    // 끝까지 모두 적용했으면 true
+    private boolean replay(ArrayList<String> lines, long crc, long length) throws IOException {
+        try (BufferedReader br = new BufferedReader(
+                new InputStreamReader(Files.newInputStream(journalFile.toPath()), StandardCharsets.UTF_8))) {
+            String header = br.readLine();
+            if (header == null || !header.equals(HEADER + "\t" + Long.toHexString(crc) + "\t" + length))
+                return false;
+            // 이미 스냅샷에 반영된(컴팩션 후 삭제되지 못한) 저널이면 무시
+
+            String record;
+            while ((record = br.readLine()) != null) {
+                int tab = record.indexOf('\t');
+                if (tab < 0)
+                    return false;
+                String payload = record.substring(tab + 1);
+                if (!record.substring(0, tab).equals(Long.toHexString(crcOf(payload.getBytes(StandardCharsets.UTF_8)))))
+                    return false;
+                // 잘린 레코드 (쓰는 도중 종료) 이후는 적용하지 않음
+
+                if (!apply(lines, payload))
+                    return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean apply(ArrayList<String> lines, String payload) {
+        String[] p = payload.split("\t", 3);
+        try {
+            switch (p[0]) {
+                case "A" -> lines.add(payload.substring(2));
+                case "S" -> lines.set(Integer.parseInt(p[1]), p[2]);
+                case "D" -> lines.remove(Integer.parseInt(p[1]));
+                default -> {
+                    return false;
+                }
+            }
+        } catch (RuntimeException e) {
+            return false;
+            // 번호가 맞지 않는 레코드는 더 이상 신뢰할 수 없음
+        }
+        return true;
+    }
+
+    private static ArrayList<String> decodeLines(byte[] bytes) {
+        return new String(bytes, StandardCharsets.UTF_8).lines()
+                .collect(ArrayList::new, ArrayList::add, ArrayList::addAll);
+    }
+
+    private static long crcOf(byte[] bytes) {
+        CRC32 crc = new CRC32();
+        crc.update(bytes);
+        return crc.getValue();
+    }
+}
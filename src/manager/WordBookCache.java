@@ -0,0 +1,119 @@
+package manager;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import data.Word;
+import util.Metrics;
+
+// 파싱한 단어 목록을 경로별로 보관하는 프로세스 전체 캐시
+// 같은 단어장으로 퀴즈를 여러 번 풀거나 복습 모드가 모든 단어장을 읽을 때, 파일이 바뀌지 않았으면 다시 읽고 나누지 않습니다.
+// 파일(과 저널)의 수정 시각/크기가 달라졌으면 다시 읽으며,
+// 가장 오래 쓰지 않은 단어장부터 버려서 단어장 수(MAX_BOOKS)와 추정 메모리(MAX_BYTES)를 넘지 않게 유지합니다. (LRU)
+// 반환하는 목록은 여러 곳에서 함께 쓰므로 수정할 수 없음
+// 객관식 보기 이웃 표(DistractorEngine)도 목록과 함께 보관하여, 같은 단어장으로 다시 퀴즈를 낼 때 표를 새로 만들지 않습니다.
+
+public class WordBookCache {
+    private static final int MAX_BOOKS = 16;
+    private static final long MAX_BYTES = 32L * 1024 * 1024;
+
+    private static final long WORD_OVERHEAD = 96;
+    // 단어 하나당 객체/문자열 헤더/목록 칸 등의 대략적인 크기 (바이트)
+
+    // 파일을 읽어 단어 목록을 만드는 방법 (단어장 종류마다 다름)
+    public interface Loader {
+        List<Word> load() throws IOException;
+    }
+
+    private static class Entry {
+        final long[] stamp;
+        final List<Word> words;
+        final long bytes;
+        DistractorEngine distractors;
+        // 처음 객관식 퀴즈를 낼 때 만듦 (목록이 바뀌면 항목째 새로 만들어지므로 함께 버려짐)
+
+        Entry(long[] stamp, List<Word> words, long bytes) {
+            this.stamp = stamp;
+            this.words = words;
+            this.bytes = bytes;
+        }
+    }
+
+    private static final LinkedHashMap<String, Entry> cache = new LinkedHashMap<>(16, 0.75f, true);
+    // 접근 순서로 정렬 (맨 앞이 가장 오래 쓰지 않은 단어장)
+    private static long totalBytes;
+
+    private static final Metrics.Counter HITS = Metrics.counter("voca_wordbook_cache_hits_total", "단어장 캐시에서 바로 꺼낸 횟수");
+    private static final Metrics.Counter MISSES = Metrics.counter("voca_wordbook_cache_misses_total", "단어장을 파일에서 새로 읽은 횟수");
+
+    // 캐시된 목록을 반환하고, 없거나 stamp가 달라졌으면 loader로 새로 읽습니다.
+    public static synchronized List<Word> get(String path, long[] stamp, Loader loader) throws IOException {
+        Entry entry = cache.get(path);
+        if (entry != null && Arrays.equals(entry.stamp, stamp)) {
+            HITS.inc();
+            return entry.words;
+        }
+        MISSES.inc();
+        if (entry != null) {
+            cache.remove(path);
+            totalBytes -= entry.bytes;
+        }
+
+        List<Word> words = Collections.unmodifiableList(loader.load());
+        entry = new Entry(stamp, words, estimateBytes(words));
+        if (entry.bytes > MAX_BYTES)
+            return words;
+        // 혼자서 한도를 넘는 단어장은 보관하지 않음
+
+        cache.put(path, entry);
+        totalBytes += entry.bytes;
+        evict();
+        return words;
+    }
+
+    // words(get이 반환한 목록)의 보기 엔진을 반환합니다. 캐시에 없는 목록(표본, 바이너리 단어장 등)이면 새로 만듦
+    public static synchronized DistractorEngine distractors(List<Word> words, Random random) {
+        for (Entry entry : cache.values()) {
+            if (entry.words != words)
+                continue;
+            if (entry.distractors == null)
+                entry.distractors = new DistractorEngine(words, random);
+            return entry.distractors;
+        }
+        return new DistractorEngine(words, random);
+    }
+
+    // 텍스트 단어장의 stamp (파일과 저널의 수정 시각/크기)
+    public static long[] stampOf(File file) {
+        File journal = VocaJournal.journalFileOf(file);
+        return new long[] { file.lastModified(), file.length(), journal.lastModified(), journal.length() };
+    }
+
+    public static synchronized void invalidate(String path) {
+        Entry entry = cache.remove(path);
+        if (entry != null)
+            totalBytes -= entry.bytes;
+    }
+
+    private static void evict() {
+        Iterator<Map.Entry<String, Entry>> it = cache.entrySet().iterator();
+        while ((cache.size() > MAX_BOOKS || totalBytes > MAX_BYTES) && it.hasNext()) {
+            totalBytes -= it.next().getValue().bytes;
+            it.remove();
+        }
+    }
+
+    private static long estimateBytes(List<Word> words) {
+        long bytes = 0;
+        for (Word w : words)
+            bytes += WORD_OVERHEAD + 2L * (w.getEnglish().length() + w.getKorean().length());
+        return bytes;
+    }
+}
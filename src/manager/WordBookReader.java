@@ -0,0 +1,287 @@
+package manager;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardOpenOption;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+import data.PublicWord;
+import data.Word;
+import data.WordBook;
+import util.Metrics;
+
+// 단어장 파일을 처음부터 한 줄씩 읽어 단어로 바꿔 주는 reader
+// 파일 전체를 List로 읽지 않고 고정 크기 버퍼(FileChannel -> UTF-8 디코딩)만 사용하므로,
+// 수 GB짜리 단어장도 검색/통계 걸러내기/무작위 추출(Sampler.reservoir)을 일정한 메모리로 처리할 수 있습니다.
+// 줄을 단어로 바꾸는 방식은 Decoder로 바꿔 끼울 수 있음 (개인 단어장, 공용 단어장 형식)
+//
+// 저널(파일명.journal)이 남아 있는 단어장은 기록이 줄 번호를 가리키므로 앞에서부터 흘려 읽을 수 없어
+// VocaJournal.readLines로 합친 결과를 읽습니다. (저널은 편집 세션이 끝나면 비워지므로 드문 경우)
+
+public class WordBookReader implements Iterator<Word>, Closeable {
+
+    // 한 줄을 단어로 바꿉니다. 단어가 아닌 줄(빈 줄, 주석, 형식 오류)이면 null
+    public interface Decoder {
+        Word decode(String line);
+    }
+
+    // 개인 단어장/오답노트/즐겨찾기 ("영단어\t뜻", 즐겨찾기 토글(*)은 빼고 읽음)
+    public static final Decoder PERSONAL = line -> {
+        String t = wordLine(line);
+        return t == null ? null : new Word(WordBook.englishOf(t), WordBook.koreanOf(t));
+    };
+
+    // 공용 단어장 ("영단어\t뜻\t출제 수\t정답 수")
+    public static final Decoder PUBLIC = line -> {
+        String t = wordLine(line);
+        if (t == null)
+            return null;
+        String[] parts = t.split("\t");
+        if (parts.length == 4) {
+            try {
+                return new PublicWord(parts[0].trim(), parts[1].trim(), Integer.parseInt(parts[2].trim()),
+                        Integer.parseInt(parts[3].trim()));
+            } catch (NumberFormatException ignored) {
+                // 통계가 손상된 단어는 출제된 적 없는 것으로 봄
+            }
+        }
+        return new PublicWord(parts[0].trim(), parts[1].trim());
+    };
+
+    // 공용 단어장 + 아직 publics.txt에 합치지 않은 통계 증가분 (키 -> {출제, 정답})
+    public static Decoder publicWithDeltas(Map<String, long[]> deltas) {
+        return line -> {
+            PublicWord w = (PublicWord) PUBLIC.decode(line);
+            if (w == null)
+                return null;
+            long[] d = deltas.get(w.getEnglish().toLowerCase());
+            if (d == null)
+                return w;
+            return new PublicWord(w.getEnglish(), w.getKorean(), (int) (w.questions + d[0]),
+                    (int) (w.correct + d[1]));
+        };
+    }
+
+    // 이 크기보다 큰 단어장은 전체를 메모리에 올리지 않고 스트리밍으로 처리 (-Dvoca.stream.threshold=바이트)
+    public static final long STREAM_THRESHOLD = Long.getLong("voca.stream.threshold", 64L * 1024 * 1024);
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private static final Metrics.Counter READ_BYTES = Metrics.counter("voca_file_read_bytes_total", "단어장 스냅샷에서 읽은 바이트");
+    private static final Metrics.Counter LINES_PARSED = Metrics.counter("voca_file_lines_parsed_total", "단어장에서 읽은 라인 수");
+
+    private final Iterator<String> lines;
+    private final Closeable source;
+    private final Decoder decoder;
+    private Word next;
+
+    private WordBookReader(Iterator<String> lines, Closeable source, Decoder decoder) {
+        this.lines = lines;
+        this.source = source;
+        this.decoder = decoder;
+    }
+
+    public static WordBookReader open(File file, Decoder decoder) throws IOException {
+        Stream<String> lines = lines(file);
+        return new WordBookReader(lines.iterator(), lines::close, decoder);
+    }
+
+    // 파일이 크면 스트리밍으로 처리해야 하는지
+    public static boolean isLarge(File file) {
+        return file.length() > STREAM_THRESHOLD;
+    }
+
+    // 단어장의 줄들을 순서대로 (저널이 있으면 반영한 결과). 다 쓰면 close 해야 함
+    public static Stream<String> lines(File file) throws IOException {
+        Iterator<String> it;
+        Closeable source;
+        if (VocaJournal.journalFileOf(file).exists()) {
+            it = VocaJournal.readLines(file).iterator();
+            source = () -> {
+            };
+        } else {
+            LineReader reader = LineReader.open(file);
+            it = reader;
+            source = reader;
+        }
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(it, Spliterator.ORDERED | Spliterator.NONNULL), false)
+                .onClose(() -> closeQuietly(source));
+    }
+
+    // 단어 스트림 (try-with-resources로 닫아야 파일이 닫힘)
+    public Stream<Word> stream() {
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(this, Spliterator.ORDERED | Spliterator.NONNULL), false)
+                .onClose(() -> closeQuietly(this));
+    }
+
+    @Override
+    public boolean hasNext() {
+        while (next == null && lines.hasNext())
+            next = decoder.decode(lines.next());
+        return next != null;
+    }
+
+    @Override
+    public Word next() {
+        if (!hasNext())
+            throw new NoSuchElementException();
+        Word w = next;
+        next = null;
+        return w;
+    }
+
+    @Override
+    public void close() throws IOException {
+        source.close();
+    }
+
+    // 주석/빈 줄/뜻이 없는 줄이면 null, 아니면 앞뒤 공백을 뺀 줄
+    private static String wordLine(String line) {
+        String t = line.trim();
+        if (t.isEmpty() || t.startsWith("#"))
+            return null;
+        int tab = t.indexOf('\t');
+        if (tab <= 0 || tab == t.length() - 1)
+            return null;
+        return t;
+    }
+
+    private static void closeQuietly(Closeable c) {
+        try {
+            c.close();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    // FileChannel에서 바이트를 버퍼 단위로 읽어 UTF-8로 풀고 줄 단위로 잘라 주는 iterator
+    // (\n, \r\n 모두 줄 끝으로 인식, 잘못된 바이트는 대체 문자로 바꿈)
+    static final class LineReader implements Iterator<String>, Closeable {
+        private final FileChannel channel;
+        private final ByteBuffer bytes = ByteBuffer.allocate(BUFFER_SIZE);
+        private final CharBuffer chars = CharBuffer.allocate(BUFFER_SIZE);
+        // UTF-8은 바이트 수보다 글자 수가 많을 수 없으므로 같은 크기면 넘치지 않음
+        private final CharsetDecoder utf8 = StandardCharsets.UTF_8.newDecoder()
+                .onMalformedInput(CodingErrorAction.REPLACE).onUnmappableCharacter(CodingErrorAction.REPLACE);
+        private final StringBuilder line = new StringBuilder();
+        private boolean eof, done;
+        private String next;
+
+        private LineReader(FileChannel channel) {
+            this.channel = channel;
+            chars.flip();
+            // 처음에는 읽을 글자가 없는 상태
+        }
+
+        static LineReader open(File file) throws IOException {
+            if (!file.exists())
+                return new LineReader(null);
+            return new LineReader(FileChannel.open(file.toPath(), StandardOpenOption.READ));
+        }
+
+        @Override
+        public boolean hasNext() {
+            if (next == null) {
+                try {
+                    next = readLine();
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }
+            return next != null;
+        }
+
+        @Override
+        public String next() {
+            if (!hasNext())
+                throw new NoSuchElementException();
+            String s = next;
+            next = null;
+            return s;
+        }
+
+        private String readLine() throws IOException {
+            while (true) {
+                char[] a = chars.array();
+                int pos = chars.position(), lim = chars.limit();
+                for (int i = pos; i < lim; i++) {
+                    if (a[i] == '\n') {
+                        chars.position(i + 1);
+                        if (line.length() == 0)
+                            return takeLine(a, pos, i);
+                        // 버퍼 안에서 끝나는 줄은 StringBuilder를 거치지 않음
+                        line.append(a, pos, i - pos);
+                        return takeLine();
+                    }
+                }
+                line.append(a, pos, lim - pos);
+                chars.position(lim);
+                if (!fill())
+                    return line.length() > 0 ? takeLine() : null;
+                // 마지막 줄에 줄바꿈이 없어도 한 줄로 봄
+            }
+        }
+
+        private String takeLine(char[] a, int from, int to) {
+            if (to > from && a[to - 1] == '\r')
+                to--;
+            LINES_PARSED.inc();
+            return new String(a, from, to - from);
+        }
+
+        private String takeLine() {
+            int len = line.length();
+            if (len > 0 && line.charAt(len - 1) == '\r')
+                len--;
+            String s = line.substring(0, len);
+            line.setLength(0);
+            LINES_PARSED.inc();
+            return s;
+        }
+
+        // 글자 버퍼를 다시 채웁니다. 더 읽을 것이 없으면 false
+        private boolean fill() throws IOException {
+            if (done || channel == null)
+                return false;
+            chars.clear();
+            while (chars.position() == 0 && !done) {
+                if (!eof) {
+                    int n = channel.read(bytes);
+                    if (n < 0)
+                        eof = true;
+                    else
+                        READ_BYTES.add(n);
+                }
+                bytes.flip();
+                utf8.decode(bytes, chars, eof);
+                bytes.compact();
+                if (eof) {
+                    utf8.flush(chars);
+                    done = true;
+                }
+            }
+            chars.flip();
+            return chars.hasRemaining();
+        }
+
+        @Override
+        public void close() throws IOException {
+            if (channel != null)
+                channel.close();
+        }
+    }
+}
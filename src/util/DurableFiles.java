@@ -0,0 +1,212 @@
+package util;
+
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+// 저장하는 곳들이 함께 쓰는 안전한 파일 쓰기
+//   replace : 임시 파일에 전부 쓰고 force 한 뒤 원자적으로 이름을 바꿈
+//             (쓰는 도중 프로그램이 죽거나 디스크가 가득 차도 기존 파일은 그대로 남음)
+//   append  : 파일 끝에 덧붙이고 force
+// 여러 스레드가 같은 파일에 동시에 덧붙이면 먼저 force를 시작한 쪽이 다른 쪽의 기록까지 함께 디스크에 내립니다. (그룹 커밋)
+//
+// -Dvoca.fsync.group=밀리초 를 주면 덧붙인 내용은 바로 파일에 쓰되 force는 백그라운드에서 그 간격마다 한 번에 모아서 합니다.
+// 편집 한 번마다 fsync를 기다리지 않으므로 빠르고, 프로그램이 죽어도 내용은 남지만 전원이 나가면 마지막 간격만큼 잃을 수 있음
+// (기본값 0: 덧붙일 때마다 force)
+
+public class DurableFiles {
+
+    // 임시 파일에 내용을 쓰는 방법 (out은 replace가 닫으므로 닫지 않아도 됨)
+    public interface Writer {
+        void write(OutputStream out) throws IOException;
+    }
+
+    public static final long GROUP_MILLIS = Long.getLong("voca.fsync.group", 0);
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private static final Metrics.Counter SYNCS = Metrics.counter("voca_fsync_total", "디스크에 내린(force) 횟수");
+    private static final Metrics.Counter SHARED = Metrics.counter("voca_fsync_shared_total",
+            "다른 쓰기의 force에 함께 묶이거나 뒤로 미뤄진 덧붙이기 수");
+
+    // 파일별 그룹 커밋 상태 (덧붙인 횟수와 디스크에 내린 횟수)
+    private static final class Group {
+        long written;
+        long synced;
+        boolean syncing;
+    }
+
+    private static final ConcurrentHashMap<String, Group> groups = new ConcurrentHashMap<>();
+    private static final Set<File> dirty = ConcurrentHashMap.newKeySet();
+    // 지연 모드에서 아직 force 하지 않은 파일
+
+    private static ScheduledExecutorService flusher;
+
+    // file을 writer가 쓴 내용으로 통째로 교체합니다.
+    public static void replace(File file, Writer writer) throws IOException {
+        File parent = file.getAbsoluteFile().getParentFile();
+        if (parent != null && !parent.exists())
+            parent.mkdirs();
+
+        File tmp = new File(file.getPath() + ".tmp");
+        try (FileOutputStream fos = new FileOutputStream(tmp, false);
+                OutputStream out = new BufferedOutputStream(fos, BUFFER_SIZE)) {
+            writer.write(out);
+            out.flush();
+            fos.getFD().sync();
+            SYNCS.inc();
+            // 디스크에 완전히 기록된 뒤에 교체
+        } catch (IOException | RuntimeException e) {
+            tmp.delete();
+            throw e;
+        }
+        move(tmp, file);
+        syncDirectory(parent);
+    }
+
+    // 줄 목록으로 교체합니다. (줄마다 시스템 줄바꿈)
+    public static void replaceLines(File file, List<String> lines) throws IOException {
+        byte[] newLine = System.lineSeparator().getBytes(StandardCharsets.UTF_8);
+        replace(file, out -> {
+            for (String line : lines) {
+                out.write(line.getBytes(StandardCharsets.UTF_8));
+                out.write(newLine);
+            }
+        });
+    }
+
+    // 파일 끝에 덧붙이고 디스크에 내립니다. 덧붙인 뒤의 파일 크기를 반환
+    public static long append(File file, byte[] bytes) throws IOException {
+        File parent = file.getAbsoluteFile().getParentFile();
+        if (parent != null && !parent.exists())
+            parent.mkdirs();
+
+        Group group = groups.computeIfAbsent(file.getAbsolutePath(), k -> new Group());
+        try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.APPEND)) {
+            ByteBuffer buffer = ByteBuffer.wrap(bytes);
+            while (buffer.hasRemaining())
+                channel.write(buffer);
+            long size = channel.size();
+
+            long mine;
+            synchronized (group) {
+                mine = ++group.written;
+            }
+            if (GROUP_MILLIS > 0) {
+                dirty.add(file.getAbsoluteFile());
+                startFlusher();
+                SHARED.inc();
+                return size;
+            }
+            // 지연 모드: force는 백그라운드에서
+
+            sync(group, mine, channel);
+            return size;
+        }
+    }
+
+    // 지연 모드에서 아직 내리지 않은 파일을 모두 디스크에 내립니다. (종료할 때도 자동으로 불림)
+    public static void flushAll() {
+        for (File file : dirty) {
+            dirty.remove(file);
+            try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.WRITE)) {
+                channel.force(false);
+                SYNCS.inc();
+            } catch (NoSuchFileException e) {
+                // 그사이 컴팩션 등으로 지워진 파일 (교체한 쪽이 이미 force 함)
+            } catch (IOException e) {
+                System.out.println(file.getName() + " 파일을 디스크에 기록하지 못했습니다: " + e.getMessage());
+            }
+        }
+    }
+
+    // 원자적으로 이름을 바꿉니다. (지원하지 않는 파일 시스템이면 일반 이동)
+    public static void move(File from, File to) throws IOException {
+        try {
+            Files.move(from.toPath(), to.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(from.toPath(), to.toPath(), StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    // 이름 바꾸기 자체가 디스크에 남도록 폴더를 force 합니다. (폴더를 열 수 없는 OS(Windows)에서는 건너뜀)
+    private static void syncDirectory(File dir) {
+        if (dir == null)
+            return;
+        try (FileChannel channel = FileChannel.open(dir.toPath(), StandardOpenOption.READ)) {
+            channel.force(true);
+        } catch (IOException e) {
+            // 지원하지 않으면 파일 내용의 force만으로 만족
+        }
+    }
+
+    // mine번째 덧붙이기가 디스크에 내려갈 때까지 기다립니다.
+    // 다른 스레드가 force 중이면 끝나기를 기다리고, 그 force가 내 기록을 포함했으면 다시 하지 않음
+    private static void sync(Group group, long mine, FileChannel channel) throws IOException {
+        long upTo;
+        synchronized (group) {
+            boolean interrupted = false;
+            while (group.syncing && group.synced < mine) {
+                try {
+                    group.wait();
+                } catch (InterruptedException e) {
+                    interrupted = true;
+                    // force 중인 쪽이 끝나기 전에 빠져나가면 두 스레드가 동시에 force를 맡게 되므로 끝까지 기다림
+                }
+            }
+            if (interrupted)
+                Thread.currentThread().interrupt();
+            if (group.synced >= mine) {
+                SHARED.inc();
+                return;
+            }
+            group.syncing = true;
+            upTo = group.written;
+            // 지금까지 파일에 쓴 기록은 이번 force에 모두 포함됨
+        }
+
+        boolean done = false;
+        try {
+            channel.force(false);
+            // 덧붙이기는 파일 크기만 바뀌므로 데이터 force(fdatasync)로 충분
+            SYNCS.inc();
+            done = true;
+        } finally {
+            synchronized (group) {
+                group.syncing = false;
+                if (done)
+                    group.synced = Math.max(group.synced, upTo);
+                group.notifyAll();
+            }
+        }
+    }
+
+    private static synchronized void startFlusher() {
+        if (flusher != null)
+            return;
+        flusher = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "fsync-group");
+            t.setDaemon(true);
+            return t;
+        });
+        flusher.scheduleAtFixedRate(DurableFiles::flushAll, GROUP_MILLIS, GROUP_MILLIS, TimeUnit.MILLISECONDS);
+        Runtime.getRuntime().addShutdownHook(new Thread(DurableFiles::flushAll, "fsync-group-final"));
+    }
+}
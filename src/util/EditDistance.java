@@ -0,0 +1,69 @@
+package util;
+
+// 두 문자열의 편집 거리(삽입/삭제/교체/인접한 두 글자 바꾸기 횟수)를 구하는 클래스 (Damerau-Levenshtein, OSA 방식)
+// 채점에서는 "max 이하인지"만 알면 되므로 대각선 주변 폭 max의 띠만 계산하고, 한 줄 전체가 max를 넘으면 바로 멈춥니다. (O(max * 길이))
+// 계산에 쓰는 배열은 객체 안에 두고 재사용하므로 여러 번 호출해도 새로 할당하지 않음 (한 스레드에서만 사용)
+
+public class EditDistance {
+    private int[] twoBack = new int[32];
+    private int[] previous = new int[32];
+    private int[] current = new int[32];
+
+    // a와 b의 편집 거리. max보다 크면 max + 1을 반환
+    public int bounded(CharSequence a, CharSequence b, int max) {
+        int n = a.length(), m = b.length();
+        if (Math.abs(n - m) > max)
+            return max + 1;
+        if (n == 0 || m == 0)
+            return Math.max(n, m);
+        ensureCapacity(m + 1);
+
+        int big = max + 1;
+        for (int j = 0; j <= m; j++)
+            previous[j] = j <= max ? j : big;
+
+        for (int i = 1; i <= n; i++) {
+            int from = Math.max(1, i - max);
+            int to = Math.min(m, i + max);
+            current[0] = i <= max ? i : big;
+            if (from > 1)
+                current[from - 1] = big;
+            // 띠 바로 왼쪽 칸은 띠 밖이므로 max보다 큰 값으로 둠
+
+            char ca = a.charAt(i - 1);
+            int rowMin = current[0];
+            for (int j = from; j <= to; j++) {
+                char cb = b.charAt(j - 1);
+                int cost = ca == cb ? 0 : 1;
+                int d = Math.min(Math.min(previous[j] + 1, current[j - 1] + 1), previous[j - 1] + cost);
+                if (i > 1 && j > 1 && ca == b.charAt(j - 2) && a.charAt(i - 2) == cb)
+                    d = Math.min(d, twoBack[j - 2] + 1);
+                // 인접한 두 글자가 바뀐 경우 (recieve -> receive)
+                current[j] = Math.min(d, big);
+                rowMin = Math.min(rowMin, current[j]);
+            }
+            if (to < m)
+                current[to + 1] = big;
+            // 띠 바로 오른쪽 칸도 다음 줄에서 읽으므로 채워 둠
+
+            if (rowMin > max)
+                return big;
+            // 이 줄의 최솟값이 이미 max를 넘으면 더 볼 필요 없음
+
+            int[] t = twoBack;
+            twoBack = previous;
+            previous = current;
+            current = t;
+        }
+        return Math.min(previous[m], big);
+    }
+
+    private void ensureCapacity(int size) {
+        if (previous.length >= size)
+            return;
+        int capacity = Math.max(size, previous.length * 2);
+        twoBack = new int[capacity];
+        previous = new int[capacity];
+        current = new int[capacity];
+    }
+}
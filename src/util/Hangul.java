@@ -0,0 +1,66 @@
+package util;
+
+// 한글 음절을 자모 단위로 분해하는 유틸리티 클래스
+// "사과" -> "ㅅㅏㄱㅗㅏ" 처럼 풀어 두면 "삭", "사고" 같은 입력 중간 상태로도 부분 일치 검색을 할 수 있습니다.
+// 겹모음(ㅘ)과 겹받침(ㄳ)은 기본 자모로 한 번 더 풀어서 타이핑 순서와 같은 형태로 만듭니다.
+
+public class Hangul {
+    private static final char SYLLABLE_BASE = 0xAC00;
+    private static final char SYLLABLE_LAST = 0xD7A3;
+
+    private static final String[] CHO = {
+            "ㄱ", "ㄲ", "ㄴ", "ㄷ", "ㄸ", "ㄹ", "ㅁ", "ㅂ", "ㅃ", "ㅅ",
+            "ㅆ", "ㅇ", "ㅈ", "ㅉ", "ㅊ", "ㅋ", "ㅌ", "ㅍ", "ㅎ"
+    };
+    // 초성 19자
+
+    private static final String[] JUNG = {
+            "ㅏ", "ㅐ", "ㅑ", "ㅒ", "ㅓ", "ㅔ", "ㅕ", "ㅖ", "ㅗ", "ㅗㅏ",
+            "ㅗㅐ", "ㅗㅣ", "ㅛ", "ㅜ", "ㅜㅓ", "ㅜㅔ", "ㅜㅣ", "ㅠ", "ㅡ", "ㅡㅣ", "ㅣ"
+    };
+    // 중성 21자 (겹모음은 기본 모음 두 개로 분해)
+
+    private static final String[] JONG = {
+            "", "ㄱ", "ㄲ", "ㄱㅅ", "ㄴ", "ㄴㅈ", "ㄴㅎ", "ㄷ", "ㄹ", "ㄹㄱ",
+            "ㄹㅁ", "ㄹㅂ", "ㄹㅅ", "ㄹㅌ", "ㄹㅍ", "ㄹㅎ", "ㅁ", "ㅂ", "ㅂㅅ", "ㅅ",
+            "ㅆ", "ㅇ", "ㅈ", "ㅊ", "ㅋ", "ㅌ", "ㅍ", "ㅎ"
+    };
+    // 종성 27자 + 받침 없음 (겹받침은 기본 자음 두 개로 분해)
+
+    private static final String COMPAT_COMPLEX = "ㄳㄵㄶㄺㄻㄼㄽㄾㄿㅀㅄㅘㅙㅚㅝㅞㅟㅢ";
+    private static final String[] COMPAT_SPLIT = {
+            "ㄱㅅ", "ㄴㅈ", "ㄴㅎ", "ㄹㄱ", "ㄹㅁ", "ㄹㅂ", "ㄹㅅ", "ㄹㅌ", "ㄹㅍ", "ㄹㅎ", "ㅂㅅ",
+            "ㅗㅏ", "ㅗㅐ", "ㅗㅣ", "ㅜㅓ", "ㅜㅔ", "ㅜㅣ", "ㅡㅣ"
+    };
+    // 사용자가 낱자로 입력한 겹자모도 같은 방식으로 분해
+
+    public static boolean isSyllable(char c) {
+        return c >= SYLLABLE_BASE && c <= SYLLABLE_LAST;
+    }
+
+    // 문자열을 자모 단위로 분해합니다. 한글이 아닌 문자는 소문자로 바꿔 그대로 둠
+    public static String decompose(CharSequence s) {
+        StringBuilder sb = new StringBuilder(s.length() * 3);
+        decompose(s, sb);
+        return sb.toString();
+    }
+
+    // 분해 결과를 주어진 버퍼 뒤에 덧붙입니다. (반복 호출 시 버퍼를 재사용하기 위한 메서드)
+    public static void decompose(CharSequence s, StringBuilder out) {
+        for (int i = 0; i < s.length(); i++) {
+            char c = s.charAt(i);
+            if (isSyllable(c)) {
+                int code = c - SYLLABLE_BASE;
+                out.append(CHO[code / 588]);
+                out.append(JUNG[(code % 588) / 28]);
+                out.append(JONG[code % 28]);
+            } else {
+                int complex = COMPAT_COMPLEX.indexOf(c);
+                if (complex >= 0)
+                    out.append(COMPAT_SPLIT[complex]);
+                else
+                    out.append(Character.toLowerCase(c));
+            }
+        }
+    }
+}
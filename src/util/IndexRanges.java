@@ -0,0 +1,48 @@
+package util;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.TreeSet;
+
+// "1-50,72,90" 처럼 번호 범위와 목록을 섞어 쓴 입력을 해석하는 유틸리티 클래스
+// 화면에 보이는 1부터 시작하는 번호를 받아, 중복 없이 정렬된 0부터 시작하는 인덱스 목록으로 바꿉니다.
+
+public class IndexRanges {
+
+    // 입력을 해석합니다. 형식이 잘못되었거나 1~count 범위를 벗어난 번호가 있으면 null
+    public static List<Integer> parse(String input, int count) {
+        TreeSet<Integer> result = new TreeSet<>();
+        for (String token : input.split(",")) {
+            String t = token.trim();
+            if (t.isEmpty())
+                continue;
+            // "1-3,,5" 처럼 빈 칸은 무시
+
+            int from, to;
+            try {
+                int dash = t.indexOf('-', 1);
+                if (dash < 0) {
+                    from = to = Integer.parseInt(t);
+                } else {
+                    from = Integer.parseInt(t.substring(0, dash).trim());
+                    to = Integer.parseInt(t.substring(dash + 1).trim());
+                }
+            } catch (NumberFormatException e) {
+                return null;
+            }
+
+            if (from > to) {
+                int tmp = from;
+                from = to;
+                to = tmp;
+            }
+            // "50-1" 처럼 거꾸로 써도 같은 범위로 처리
+
+            if (from < 1 || to > count)
+                return null;
+            for (int n = from; n <= to; n++)
+                result.add(n - 1);
+        }
+        return new ArrayList<>(result);
+    }
+}
@@ -0,0 +1,237 @@
+package util;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+// 프로그램 내부 동작의 횟수/크기/시간을 모으는 측정 도구
+//   Counter   : 누적 횟수나 바이트 수 (LongAdder 기반, 여러 스레드에서 동시에 올려도 됨)
+//   Histogram : 값의 분포 (HdrHistogram처럼 2의 거듭제곱 구간을 16칸씩 나눈 로그-선형 버킷, 상대 오차 약 6%)
+//   Timer     : 나노초 단위 시간을 기록하는 Histogram (내보낼 때는 초 단위)
+// 실행할 때 -Dvoca.metrics=prom 이면 res/metrics.prom 파일(Prometheus 텍스트 형식)을, -Dvoca.metrics=log 이면
+// res/metrics.log 에 요약을 주기적으로(-Dvoca.metrics.period=초, 기본 60초) 그리고 종료할 때 한 번 더 씁니다.
+// 설정하지 않으면 값만 모으고 파일은 만들지 않음
+
+public class Metrics {
+
+    public static class Counter {
+        private final LongAdder value = new LongAdder();
+
+        public void inc() {
+            value.increment();
+        }
+
+        public void add(long n) {
+            value.add(n);
+        }
+
+        public long get() {
+            return value.sum();
+        }
+    }
+
+    public static class Histogram {
+        private static final int SUB_BITS = 4;
+        private static final int SUB_COUNT = 1 << SUB_BITS;
+        private static final int BUCKETS = (64 - SUB_BITS) * SUB_COUNT;
+
+        private final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+        private final LongAdder count = new LongAdder();
+        private final LongAdder sum = new LongAdder();
+        private final AtomicLong max = new AtomicLong();
+
+        public void record(long value) {
+            if (value < 0)
+                value = 0;
+            counts.incrementAndGet(bucketOf(value));
+            count.increment();
+            sum.add(value);
+            long m;
+            while (value > (m = max.get()) && !max.compareAndSet(m, value)) {
+            }
+        }
+
+        public long count() {
+            return count.sum();
+        }
+
+        public long sum() {
+            return sum.sum();
+        }
+
+        public long max() {
+            return max.get();
+        }
+
+        // p(0~100) 백분위수의 근삿값 (해당 버킷의 가운데 값, 최댓값을 넘지 않음)
+        public long percentile(double p) {
+            long total = count();
+            if (total == 0)
+                return 0;
+            long rank = Math.max(1, (long) Math.ceil(p / 100 * total));
+            long seen = 0;
+            for (int i = 0; i < BUCKETS; i++) {
+                seen += counts.get(i);
+                if (seen >= rank)
+                    return Math.min(max(), (lowerBound(i) + lowerBound(i + 1)) / 2);
+            }
+            return max();
+        }
+
+        // 16 미만은 값 그대로, 그 이상은 [2^e, 2^(e+1)) 구간을 16칸으로 나눔
+        static int bucketOf(long v) {
+            if (v < SUB_COUNT)
+                return (int) v;
+            int e = 63 - Long.numberOfLeadingZeros(v);
+            int sub = (int) ((v >>> (e - SUB_BITS)) & (SUB_COUNT - 1));
+            return (e - SUB_BITS + 1) * SUB_COUNT + sub;
+        }
+
+        static long lowerBound(int index) {
+            if (index < SUB_COUNT)
+                return index;
+            int e = index / SUB_COUNT + SUB_BITS - 1;
+            if (e >= 63)
+                return Long.MAX_VALUE;
+            return (long) (SUB_COUNT + index % SUB_COUNT) << (e - SUB_BITS);
+        }
+    }
+
+    public static class Timer extends Histogram {
+        public long start() {
+            return System.nanoTime();
+        }
+
+        // start()로 받은 시각부터 지금까지 걸린 시간을 기록
+        public void stop(long startNanos) {
+            record(System.nanoTime() - startNanos);
+        }
+    }
+
+    private static final ConcurrentHashMap<String, Counter> counters = new ConcurrentHashMap<>();
+    private static final ConcurrentHashMap<String, Histogram> histograms = new ConcurrentHashMap<>();
+    private static final ConcurrentHashMap<String, String> help = new ConcurrentHashMap<>();
+
+    private static ScheduledExecutorService exporter;
+
+    // 이름이 같으면 같은 객체를 반환 (클래스의 static 필드로 한 번만 받아 두고 사용)
+    public static Counter counter(String name, String description) {
+        help.putIfAbsent(name, description);
+        return counters.computeIfAbsent(name, k -> new Counter());
+    }
+
+    public static Histogram histogram(String name, String description) {
+        help.putIfAbsent(name, description);
+        return histograms.computeIfAbsent(name, k -> new Histogram());
+    }
+
+    public static Timer timer(String name, String description) {
+        help.putIfAbsent(name, description);
+        return (Timer) histograms.computeIfAbsent(name, k -> new Timer());
+    }
+
+    // Prometheus 텍스트 형식 (카운터는 counter, 히스토그램/타이머는 분위수를 담은 summary)
+    public static String prometheusText() {
+        StringBuilder sb = new StringBuilder();
+        for (Map.Entry<String, Counter> e : new TreeMap<>(counters).entrySet()) {
+            String name = e.getKey();
+            sb.append("# HELP ").append(name).append(' ').append(help.getOrDefault(name, name)).append('\n');
+            sb.append("# TYPE ").append(name).append(" counter\n");
+            sb.append(name).append(' ').append(e.getValue().get()).append('\n');
+        }
+        for (Map.Entry<String, Histogram> e : new TreeMap<>(histograms).entrySet()) {
+            String name = e.getKey();
+            Histogram h = e.getValue();
+            double scale = h instanceof Timer ? 1e-9 : 1;
+            sb.append("# HELP ").append(name).append(' ').append(help.getOrDefault(name, name)).append('\n');
+            sb.append("# TYPE ").append(name).append(" summary\n");
+            for (double q : new double[] { 0.5, 0.9, 0.99, 1.0 })
+                sb.append(name).append("{quantile=\"").append(q).append("\"} ")
+                        .append(format(h.percentile(q * 100) * scale)).append('\n');
+            sb.append(name).append("_sum ").append(format(h.sum() * scale)).append('\n');
+            sb.append(name).append("_count ").append(h.count()).append('\n');
+        }
+        return sb.toString();
+    }
+
+    // 사람이 읽는 요약 (시간 합계가 큰 항목부터 - 어떤 작업이 시간을 많이 쓰는지 바로 보이도록)
+    public static List<String> summaryLines() {
+        ArrayList<String> lines = new ArrayList<>();
+        ArrayList<Map.Entry<String, Histogram>> sorted = new ArrayList<>(histograms.entrySet());
+        sorted.sort((a, b) -> Long.compare(b.getValue().sum(), a.getValue().sum()));
+        for (Map.Entry<String, Histogram> e : sorted) {
+            Histogram h = e.getValue();
+            if (h.count() == 0)
+                continue;
+            if (h instanceof Timer)
+                lines.add(String.format("%s count=%d total=%.3fms p50=%.3fms p99=%.3fms max=%.3fms", e.getKey(),
+                        h.count(), h.sum() / 1e6, h.percentile(50) / 1e6, h.percentile(99) / 1e6, h.max() / 1e6));
+            else
+                lines.add(String.format("%s count=%d sum=%d p50=%d p99=%d max=%d", e.getKey(), h.count(), h.sum(),
+                        h.percentile(50), h.percentile(99), h.max()));
+        }
+        for (Map.Entry<String, Counter> e : new TreeMap<>(counters).entrySet())
+            if (e.getValue().get() != 0)
+                lines.add(e.getKey() + " " + e.getValue().get());
+        return lines;
+    }
+
+    // 시스템 속성(voca.metrics, voca.metrics.period)에 따라 주기적인 내보내기를 시작합니다.
+    public static synchronized void startFromSystemProperties() {
+        String mode = System.getProperty("voca.metrics", "").trim().toLowerCase();
+        if (exporter != null || !(mode.equals("prom") || mode.equals("log")))
+            return;
+        long period = Long.getLong("voca.metrics.period", 60);
+
+        Runnable export = () -> {
+            try {
+                if (mode.equals("prom"))
+                    writePrometheus(new File("res/metrics.prom"));
+                else
+                    appendLog(new File("res/metrics.log"));
+            } catch (IOException e) {
+                System.out.println("측정값을 저장하지 못했습니다: " + e.getMessage());
+            }
+        };
+        exporter = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "metrics-export");
+            t.setDaemon(true);
+            return t;
+        });
+        exporter.scheduleAtFixedRate(export, period, period, TimeUnit.SECONDS);
+        Runtime.getRuntime().addShutdownHook(new Thread(export, "metrics-final-export"));
+        // 종료할 때 마지막 값까지 기록
+    }
+
+    // Prometheus 텍스트 파일을 통째로 교체합니다. (수집기가 반쯤 쓰인 파일을 읽지 않도록 임시 파일에 쓰고 이름 바꾸기)
+    public static void writePrometheus(File file) throws IOException {
+        byte[] text = prometheusText().getBytes(StandardCharsets.UTF_8);
+        DurableFiles.replace(file, out -> out.write(text));
+    }
+
+    // 요약을 시각과 함께 로그 파일 끝에 덧붙입니다.
+    public static void appendLog(File file) throws IOException {
+        String now = LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss"));
+        StringBuilder sb = new StringBuilder();
+        for (String line : summaryLines())
+            sb.append(now).append(' ').append(line).append('\n');
+        DurableFiles.append(file, sb.toString().getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static String format(double v) {
+        return v == Math.rint(v) && Math.abs(v) < 1e15 ? String.valueOf((long) v) : String.valueOf(v);
+    }
+}
@@ -33,6 +33,19 @@ public class Path {
         return "res/" + username + "/favorites/_favorites.txt";
     }
 
+    public static String getFavoriteIndexFilePath(String username) {
+        return "res/" + username + "/favorites/_stars.idx";
+    }
+
+    public static String getReviewStateFilePath(String username) {
+        return "res/" + username + "/review_state.txt";
+    }
+
+    // 사용자 폴더와 겹치지 않도록 '.'으로 시작하는 폴더에 둠 (계정 이름은 '.'으로 시작할 수 없음)
+    public static String getSnapshotDirPath(String username) {
+        return "res/.snapshots/" + username + "/";
+    }
+
     public static String getPublicDirPath() {
         return "res/public/vocas";
     }
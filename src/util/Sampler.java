@@ -0,0 +1,122 @@
+package util;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.PriorityQueue;
+import java.util.Random;
+import java.util.function.IntToDoubleFunction;
+
+// 퀴즈 출제용 무작위 추출 유틸리티
+// - distinctIndices / IndexDrawer : 0~n-1 중 서로 다른 k개를 뽑는 부분 Fisher-Yates 셔플
+//   실제 배열 대신 "자리를 바꾼 칸"만 해시맵에 기록하므로 n이 커도 시간과 메모리가 k에 비례합니다.
+// - reservoir : 전체 개수를 모르는 스트림에서 k개를 고르게 뽑기 (Algorithm L)
+// - weightedIndices : 가중치에 비례하는 확률로 k개를 중복 없이 뽑기 (Efraimidis-Spirakis A-Res)
+
+public class Sampler {
+
+    // 0~n-1 중 서로 다른 k개를 무작위 순서로 반환합니다. (k가 n보다 크면 n개)
+    public static int[] distinctIndices(int n, int k, Random random) {
+        IndexDrawer drawer = new IndexDrawer(n, random);
+        int[] out = new int[Math.min(n, Math.max(k, 0))];
+        for (int i = 0; i < out.length; i++)
+            out[i] = drawer.next();
+        return out;
+    }
+
+    // 0~n-1 을 하나씩 중복 없이 뽑는 추출기 (뽑은 개수만큼의 메모리만 사용)
+    public static class IndexDrawer {
+        private final int n;
+        private final Random random;
+        private final HashMap<Integer, Integer> swapped = new HashMap<>();
+        // 가상의 배열 [0, 1, ..., n-1] 중 값이 바뀐 칸만 기록 (칸 번호 -> 값)
+        private int drawn;
+
+        public IndexDrawer(int n, Random random) {
+            this.n = n;
+            this.random = random;
+        }
+
+        public boolean hasNext() {
+            return drawn < n;
+        }
+
+        public int next() {
+            if (drawn >= n)
+                throw new NoSuchElementException();
+            int j = drawn + random.nextInt(n - drawn);
+            int picked = swapped.getOrDefault(j, j);
+            if (j != drawn)
+                swapped.put(j, swapped.getOrDefault(drawn, drawn));
+            swapped.remove(drawn);
+            // 앞쪽 칸은 다시 쓰이지 않으므로 지워서 메모리를 k개 이하로 유지
+            drawn++;
+            return picked;
+        }
+    }
+
+    // 스트림에서 k개를 고르게 뽑습니다. 전체 개수를 미리 몰라도 되고, 메모리는 k개만 사용 (Algorithm L)
+    public static <T> List<T> reservoir(Iterator<T> source, int k, Random random) {
+        ArrayList<T> sample = new ArrayList<>(Math.max(k, 0));
+        if (k <= 0)
+            return sample;
+        while (sample.size() < k && source.hasNext())
+            sample.add(source.next());
+        if (!source.hasNext())
+            return sample;
+
+        double w = Math.exp(Math.log(nextOpen(random)) / k);
+        while (true) {
+            long skip = (long) Math.floor(Math.log(nextOpen(random)) / Math.log(1 - w));
+            // 다음으로 교체될 원소까지 건너뛸 개수
+            for (long s = 0; s < skip; s++) {
+                if (!source.hasNext())
+                    return sample;
+                source.next();
+            }
+            if (!source.hasNext())
+                return sample;
+            sample.set(random.nextInt(k), source.next());
+            w *= Math.exp(Math.log(nextOpen(random)) / k);
+        }
+    }
+
+    // 가중치에 비례하는 확률로 0~n-1 중 k개를 중복 없이 뽑습니다. 가중치가 큰 번호일수록 앞에 올 가능성이 큼
+    // 가중치가 0 이하인 번호는 뽑지 않음. 시간 O(n log k), 메모리 O(k)
+    public static int[] weightedIndices(int n, IntToDoubleFunction weight, int k, Random random) {
+        if (k <= 0)
+            return new int[0];
+        PriorityQueue<double[]> heap = new PriorityQueue<>(k, (a, b) -> Double.compare(a[0], b[0]));
+        // {키, 번호} - 키가 가장 작은 것이 맨 위 (키 = log(u) / 가중치, 클수록 뽑힘)
+
+        for (int i = 0; i < n; i++) {
+            double w = weight.applyAsDouble(i);
+            if (!(w > 0))
+                continue;
+            double key = Math.log(nextOpen(random)) / w;
+            if (heap.size() < k)
+                heap.add(new double[] { key, i });
+            else if (key > heap.peek()[0]) {
+                heap.poll();
+                heap.add(new double[] { key, i });
+            }
+        }
+
+        int[] out = new int[heap.size()];
+        for (int i = out.length - 1; i >= 0; i--)
+            out[i] = (int) heap.poll()[1];
+        // 키가 큰 순서(= 가중치 순으로 무작위 정렬된 순서)로 반환
+        return out;
+    }
+
+    // (0, 1) 구간의 난수 (log(0) 방지)
+    private static double nextOpen(Random random) {
+        double u;
+        do {
+            u = random.nextDouble();
+        } while (u == 0.0);
+        return u;
+    }
+}